@@ -9,4 +9,30 @@ import java.lang.annotation.Target;
 @Target({ElementType.METHOD})
 public @interface DataLoaderMethod {
     String value();
+
+    /**
+     * Maximum duration of batch load in milliseconds, keys of timed out batch fail. 0 - no timeout
+     */
+    long timeoutMillis() default 0;
+
+    /**
+     * Number of consecutive failed batch loads opening the circuit breaker, 0 - no circuit breaker.
+     * While the circuit is open keys fail without calling the method
+     */
+    int circuitBreakerThreshold() default 0;
+
+    /**
+     * Time in milliseconds the circuit breaker stays open before single probe batch is let through
+     */
+    long circuitBreakerOpenMillis() default 10_000;
+
+    /**
+     * Maximum number of additional invocations used to retry failed batch by bisecting it,
+     * so keys failing the batch are isolated and the rest of the batch is still loaded.
+     * 0 (default) - failed batch fails all its keys.
+     * Isolating single key of batch of n keys takes about 2 * log2(n) additional invocations,
+     * so the value bounds the load failing batch can put on the backend.
+     * Keys can be also failed individually by returning {@code Try} values (List&lt;Try&lt;V&gt;&gt; or Map&lt;K, Try&lt;V&gt;&gt;)
+     */
+    int bisectRetries() default 0;
 }
@@ -1,29 +1,101 @@
 package org.rapidgraphql.client;
 
 import kong.unirest.core.*;
+import kong.unirest.core.json.JSONArray;
+import kong.unirest.core.json.JSONObject;
 import lombok.Builder;
 import org.rapidgraphql.client.exceptions.GraphQLHttpErrorException;
+import org.rapidgraphql.client.exceptions.RapidGraphQLClientException;
 import org.rapidgraphql.client.extractor.ResultExtractor;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class GraphQLHttpClient {
+    // errors of servers which don't know the hash or don't support persisted queries
+    private static final Set<String> PERSISTED_QUERY_ERRORS = Set.of("PersistedQueryNotFound", "PersistedQueryNotSupported");
     private final String url;
+    private final boolean persistedQueries;
+    // queries are generated per method of the api interface, so there are as many hashes as methods
+    private final Map<String, String> queryHashes = new ConcurrentHashMap<>();
     UnirestInstance unirestInstance;
-    @Builder
+
     public GraphQLHttpClient(String url, Config requestConfig) {
+        this(url, requestConfig, false);
+    }
+
+    /**
+     * @param url - url of the graphql endpoint
+     * @param requestConfig - configuration of the http requests
+     * @param persistedQueries - send hash of the query first (Automatic Persisted Queries),
+     *                         query is sent only if the server responds (with any status) that it doesn't know
+     *                         the hash or doesn't support persisted queries
+     */
+    @Builder
+    public GraphQLHttpClient(String url, Config requestConfig, boolean persistedQueries) {
         this.url = url;
+        this.persistedQueries = persistedQueries;
         this.unirestInstance = new UnirestInstance(requestConfig);
     }
+
     public Object exchange(GraphQLRequestBody graphQLRequestBody, ResultExtractor extractor) {
+        GraphQLRequestBody requestBody = graphQLRequestBody;
+        if (persistedQueries && graphQLRequestBody.getQuery() != null) {
+            String hash = queryHashes.computeIfAbsent(graphQLRequestBody.getQuery(), GraphQLHttpClient::sha256);
+            HttpResponse<JsonNode> hashResponse = post(graphQLRequestBody.withPersistedQuery(hash, false));
+            if (!isPersistedQueryError(hashResponse.getBody())) {
+                return extract(hashResponse, extractor);
+            }
+            requestBody = graphQLRequestBody.withPersistedQuery(hash, true);
+        }
+        return extract(post(requestBody), extractor);
+    }
+
+    private static Object extract(HttpResponse<JsonNode> jsonNodeHttpResponse, ResultExtractor extractor) {
+        if (!jsonNodeHttpResponse.isSuccess()) {
+            throw new GraphQLHttpErrorException(jsonNodeHttpResponse);
+        }
+        return jsonNodeHttpResponse.mapBody(extractor::extract);
+    }
+
+    private HttpResponse<JsonNode> post(GraphQLRequestBody graphQLRequestBody) {
         HttpRequestWithBody requestWithBody = unirestInstance.post(url)
                 .accept("application/json")
                 .contentType("application/json");
-        HttpResponse<JsonNode> jsonNodeHttpResponse = requestWithBody
+        return requestWithBody
                 .body(graphQLRequestBody)
                 .headers(graphQLRequestBody.getHeaders())
                 .asJson();
-        if (!jsonNodeHttpResponse.isSuccess()) {
-            throw new GraphQLHttpErrorException(jsonNodeHttpResponse);
+    }
+
+    private static boolean isPersistedQueryError(JsonNode body) {
+        if (body == null || body.isArray()) {
+            return false;
+        }
+        JSONArray errors = body.getObject().optJSONArray("errors");
+        if (errors == null) {
+            return false;
+        }
+        for (int i = 0; i < errors.length(); i++) {
+            JSONObject error = errors.optJSONObject(i);
+            if (error != null && PERSISTED_QUERY_ERRORS.contains(error.optString("message"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String sha256(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RapidGraphQLClientException("SHA-256 is not supported", e);
         }
-        return jsonNodeHttpResponse.mapBody(extractor::extract);
     }
 }
@@ -1,6 +1,7 @@
 package org.rapidgraphql.client;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -11,10 +12,13 @@ import java.util.Optional;
 @Data
 @Builder
 public class GraphQLRequestBody {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     String query;
     @Builder.Default
     Map<String,Object> variables = new HashMap<>();
     String operationName;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Map<String, Object> extensions;
     @JsonIgnore
     String fieldName;
     @Builder.Default
@@ -59,4 +63,20 @@ public class GraphQLRequestBody {
     public void variable(String name, Object arg) {
         variables.put(name, arg);
     }
+
+    /**
+     * @param sha256Hash - hex encoded SHA-256 hash of the query
+     * @param includeQuery - false to send only the hash of the query
+     * @return copy of the request with the persisted query extension
+     */
+    public GraphQLRequestBody withPersistedQuery(String sha256Hash, boolean includeQuery) {
+        return GraphQLRequestBody.builder()
+                .query(includeQuery ? query : null)
+                .variables(variables)
+                .operationName(operationName)
+                .extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", sha256Hash)))
+                .fieldName(fieldName)
+                .headers(headers)
+                .build();
+    }
 }
@@ -19,6 +19,7 @@ public class RapidGraphQLClient {
                 .build();
         private ObjectMapper objectMapper = DEFAULT_OBJECT_MAPPER;
         private final Config requestConfig = new Config().setObjectMapper(new JacksonObjectMapper(DEFAULT_OBJECT_MAPPER));
+        private boolean persistedQueries = false;
 
         public Builder objectMapper(ObjectMapper objectMapper) {
             this.objectMapper = objectMapper;
@@ -33,8 +34,16 @@ public class RapidGraphQLClient {
             requestConfig.requestTimeout(millies);
             return this;
         }
+        /**
+         * Send SHA-256 hash of the query instead of the query (Automatic Persisted Queries),
+         * the query is sent only if the server doesn't know the hash yet
+         */
+        public Builder persistedQueries(boolean enabled) {
+            this.persistedQueries = enabled;
+            return this;
+        }
         public <T> T target(Class<T> apiClass, String url) {
-            GraphQLHttpClient graphQLHttpClient = new GraphQLHttpClient(url, requestConfig);
+            GraphQLHttpClient graphQLHttpClient = new GraphQLHttpClient(url, requestConfig, persistedQueries);
             return (T) Proxy.newProxyInstance(
                     apiClass.getClassLoader(),
                     new Class[]{apiClass},
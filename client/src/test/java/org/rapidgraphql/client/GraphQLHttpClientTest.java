@@ -0,0 +1,119 @@
+package org.rapidgraphql.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import kong.unirest.core.Config;
+import kong.unirest.modules.jackson.JacksonObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rapidgraphql.client.exceptions.GraphQLHttpErrorException;
+import org.rapidgraphql.client.extractor.ResultExtractorFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GraphQLHttpClientTest {
+    private static final String QUERY = "query hello{hello}";
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, String> persistedQueries = new ConcurrentHashMap<>();
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private volatile int persistedQueryNotFoundStatus = 200;
+    private volatile int errorStatus;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/graphql", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    // minimal server side of Automatic Persisted Queries
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        requests.add(request);
+        String hash = request.path("extensions").path("persistedQuery").path("sha256Hash").asText(null);
+        String query = request.path("query").asText(null);
+        if (hash != null && query != null) {
+            persistedQueries.put(hash, query);
+        }
+        boolean notFound = query == null && !persistedQueries.containsKey(hash);
+        int status = errorStatus != 0 ? errorStatus : notFound ? persistedQueryNotFoundStatus : 200;
+        String response = errorStatus != 0 ? "{\"errors\": [{\"message\": \"Internal error\"}]}"
+                : notFound ? "{\"errors\": [{\"message\": \"PersistedQueryNotFound\"}]}"
+                : "{\"data\": {\"hello\": \"world\"}}";
+        byte[] body = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(body);
+        }
+    }
+
+    private Object hello(GraphQLHttpClient client) {
+        return client.exchange(GraphQLRequestBody.builder().query(QUERY).fieldName("hello").build(),
+                ResultExtractorFactory.createExtractor("hello", String.class, objectMapper));
+    }
+
+    private GraphQLHttpClient persistedQueriesClient() {
+        return GraphQLHttpClient.builder()
+                .url("http://localhost:" + server.getAddress().getPort() + "/graphql")
+                .requestConfig(new Config().setObjectMapper(new JacksonObjectMapper(objectMapper)))
+                .persistedQueries(true)
+                .build();
+    }
+
+    @Test
+    public void persistedQueryIsSentOnlyWhenServerDoesNotKnowTheHash() {
+        GraphQLHttpClient client = persistedQueriesClient();
+
+        assertThat(hello(client)).isEqualTo("world");
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(0).has("query")).isFalse();
+        assertThat(requests.get(1).path("query").asText()).isEqualTo(QUERY);
+        assertThat(persistedQueries).containsEntry(GraphQLHttpClient.sha256(QUERY), QUERY);
+
+        assertThat(hello(client)).isEqualTo("world");
+        assertThat(requests).hasSize(3);
+        assertThat(requests.get(2).has("query")).isFalse();
+    }
+
+    @Test
+    public void queryIsSentWhenServerRejectsUnknownHashWithClientError() {
+        persistedQueryNotFoundStatus = 400;
+        GraphQLHttpClient client = persistedQueriesClient();
+
+        assertThat(hello(client)).isEqualTo("world");
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1).path("query").asText()).isEqualTo(QUERY);
+    }
+
+    @Test
+    public void serverErrorIsNotRetriedWithQuery() {
+        errorStatus = 500;
+        GraphQLHttpClient client = persistedQueriesClient();
+
+        assertThatThrownBy(() -> hello(client))
+                .isInstanceOf(GraphQLHttpErrorException.class)
+                .hasMessageContaining("500");
+        assertThat(requests).hasSize(1);
+        assertThat(requests.get(0).has("query")).isFalse();
+    }
+}
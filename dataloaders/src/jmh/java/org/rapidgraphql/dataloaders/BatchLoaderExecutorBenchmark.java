@@ -0,0 +1,88 @@
+package org.rapidgraphql.dataloaders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares executors running blocking batch loads: many batches are dispatched at once,
+ * each of them blocks for ioMillis (simulating JDBC/HTTP call)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchLoaderExecutorBenchmark {
+    @Param({"common", "fixed", "virtual"})
+    public String executorKind;
+
+    @Param({"256"})
+    public int batchesInFlight;
+
+    @Param({"5"})
+    public int ioMillis;
+
+    private BatchLoaderExecutor executor;
+    private BlockingLoader loader;
+
+    public static class BlockingLoader extends GraphQLBatchLoader<Integer, Integer> {
+        private final int ioMillis;
+
+        public BlockingLoader(BatchLoaderExecutor executor, int ioMillis) {
+            this.ioMillis = ioMillis;
+            useExecutor(executor);
+        }
+
+        @Override
+        public List<Integer> syncLoad(List<Integer> keys) {
+            try {
+                Thread.sleep(ioMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return keys;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = BatchLoaderExecutor.create(BatchLoaderExecutor.Kind.parse(executorKind), "benchmark",
+                16, 10_000, BatchLoaderExecutor.RejectionPolicy.CALLER_RUNS);
+        loader = new BlockingLoader(executor, ioMillis);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Benchmark
+    public int dispatchBlockingBatches() {
+        List<CompletableFuture<List<Integer>>> batches = new ArrayList<>(batchesInFlight);
+        for (int i = 0; i < batchesInFlight; i++) {
+            batches.add(loader.load(List.of(i)).toCompletableFuture());
+        }
+        int loaded = 0;
+        for (CompletableFuture<List<Integer>> batch : batches) {
+            loaded += batch.join().size();
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,92 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Many threads resolving fields of one large request register (or look up) data loaders in the same registry.
+ * Compares lock-free registration with the previous implementation synchronizing on the registry
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class DataLoaderRegistrationBenchmark {
+    @Param({"32"})
+    public int loadersCount;
+
+    private List<IdentityLoader> lockFreeLoaders;
+    private List<SynchronizedIdentityLoader> synchronizedLoaders;
+    private DataLoaderRegistry lockFreeRegistry;
+    private DataLoaderRegistry synchronizedRegistry;
+
+    public static class IdentityLoader extends GraphQLBatchLoader<Integer, Integer> {
+        public IdentityLoader(String name) {
+            super(name);
+        }
+
+        @Override
+        public List<Integer> syncLoad(List<Integer> keys) {
+            return keys;
+        }
+    }
+
+    /**
+     * Registration as it was implemented before: lookup and registration under the registry monitor
+     */
+    public static class SynchronizedIdentityLoader extends IdentityLoader {
+        public SynchronizedIdentityLoader(String name) {
+            super(name);
+        }
+
+        @Override
+        public DataLoader<Integer, Integer> registerIn(DataLoaderRegistry dataLoaderRegistry) {
+            synchronized (dataLoaderRegistry) {
+                DataLoader<Integer, Integer> dataLoader = dataLoaderRegistry.getDataLoader(getDataLoaderName());
+                if (dataLoader == null) {
+                    dataLoader = createOrGetDataLoader();
+                    dataLoaderRegistry.register(getDataLoaderName(), dataLoader);
+                }
+                return dataLoader;
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        lockFreeLoaders = IntStream.range(0, loadersCount).mapToObj(i -> new IdentityLoader("loader" + i)).toList();
+        synchronizedLoaders = IntStream.range(0, loadersCount).mapToObj(i -> new SynchronizedIdentityLoader("loader" + i)).toList();
+        lockFreeRegistry = new DataLoaderRegistry();
+        synchronizedRegistry = new DataLoaderRegistry();
+    }
+
+    @Benchmark
+    public DataLoader<Integer, Integer> lockFreeRegistration() {
+        return lockFreeLoaders.get(ThreadLocalRandom.current().nextInt(loadersCount)).registerIn(lockFreeRegistry);
+    }
+
+    @Benchmark
+    public DataLoader<Integer, Integer> synchronizedRegistration() {
+        return synchronizedLoaders.get(ThreadLocalRandom.current().nextInt(loadersCount)).registerIn(synchronizedRegistry);
+    }
+}
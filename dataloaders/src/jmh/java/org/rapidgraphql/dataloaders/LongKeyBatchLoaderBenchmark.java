@@ -0,0 +1,93 @@
+package org.rapidgraphql.dataloaders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Measures batch load of entities by long ids, boxed GraphQLMappedBatchLoader vs LongKeyMappedBatchLoader.
+ * Batch loads run in the calling thread, run with "-prof gc" to compare allocation per batch:
+ * mvn -Pbenchmark -pl dataloaders -am test -DskipTests -Djmh.args="LongKeyBatchLoaderBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LongKeyBatchLoaderBenchmark {
+    @Param({"100", "1000"})
+    public int batchSize;
+
+    private Set<Long> keys;
+    private Object[] entities;
+    private BoxedLoader boxedLoader;
+    private PrimitiveLoader primitiveLoader;
+
+    class BoxedLoader extends GraphQLMappedBatchLoader<Long, Object> {
+        BoxedLoader() {
+            useExecutor(Runnable::run);
+        }
+
+        @Override
+        public Map<Long, Object> syncLoad(Set<Long> keys) {
+            Map<Long, Object> result = new HashMap<>();
+            for (Long key : keys) {
+                result.put(key, entities[(int) (long) key]);
+            }
+            return result;
+        }
+    }
+
+    class PrimitiveLoader extends LongKeyMappedBatchLoader<Object> {
+        PrimitiveLoader() {
+            useExecutor(Runnable::run);
+        }
+
+        @Override
+        public LongObjectHashMap<Object> syncLoad(long[] keys) {
+            LongObjectHashMap<Object> result = new LongObjectHashMap<>(keys.length);
+            for (long key : keys) {
+                result.put(key, entities[(int) key]);
+            }
+            return result;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = LongStream.range(0, batchSize).boxed().collect(Collectors.toCollection(LinkedHashSet::new));
+        entities = LongStream.range(0, batchSize).mapToObj(id -> "entity" + id).toArray();
+        boxedLoader = new BoxedLoader();
+        primitiveLoader = new PrimitiveLoader();
+    }
+
+    @Benchmark
+    public Object boxedKeys() {
+        Map<Long, Object> values = boxedLoader.load(keys).toCompletableFuture().join();
+        return values.get(0L);
+    }
+
+    @Benchmark
+    public Object primitiveKeys() {
+        Map<Long, Object> values = primitiveLoader.load(keys).toCompletableFuture().join();
+        return values.get(0L);
+    }
+}
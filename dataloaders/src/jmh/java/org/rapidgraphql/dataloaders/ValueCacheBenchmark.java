@@ -0,0 +1,85 @@
+package org.rapidgraphql.dataloaders;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.cache.CacheBuilder;
+import org.dataloader.CacheMap;
+import org.dataloader.ValueCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Guava and Caffeine backed caches under concurrent read-heavy load:
+ * every thread reads random keys, one of readsPerWrite operations is write
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ValueCacheBenchmark {
+    private static final int KEYS = 1 << 16;
+    private static final int MASK = KEYS - 1;
+
+    @Param({"guava", "caffeine"})
+    public String cacheKind;
+
+    @Param({"32"})
+    public int readsPerWrite;
+
+    private ValueCache<Integer, Integer> valueCache;
+    private CacheMap<Integer, Integer> futureCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("guava".equals(cacheKind)) {
+            valueCache = new GuavaValueCache<>(CacheBuilder.newBuilder().maximumSize(KEYS / 2).build());
+            futureCache = new GuavaFutureCache<>(CacheBuilder.newBuilder().maximumSize(KEYS / 2).build());
+        } else {
+            valueCache = new CaffeineValueCache<>(Caffeine.newBuilder().maximumSize(KEYS / 2).buildAsync());
+            futureCache = new CaffeineFutureCache<>(Caffeine.newBuilder().maximumSize(KEYS / 2).buildAsync());
+        }
+        for (int key = 0; key < KEYS; key++) {
+            valueCache.set(key, key);
+            futureCache.set(key, CompletableFuture.completedFuture(key));
+        }
+    }
+
+    @Benchmark
+    public CompletableFuture<Integer> valueCache() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt() & MASK;
+        if (random.nextInt(readsPerWrite) == 0) {
+            return valueCache.set(key, key);
+        }
+        return valueCache.get(key);
+    }
+
+    @Benchmark
+    public CompletableFuture<Integer> futureCache() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt() & MASK;
+        if (random.nextInt(readsPerWrite) == 0) {
+            CompletableFuture<Integer> value = CompletableFuture.completedFuture(key);
+            futureCache.set(key, value);
+            return value;
+        }
+        return futureCache.get(key);
+    }
+}
@@ -0,0 +1,101 @@
+package org.rapidgraphql.dataloaders;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.dataloader.Try;
+import org.dataloader.ValueCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures value cache lookup done by DataLoader on dispatch (getValues) with low hit ratio.
+ * Run with "-prof gc" to compare allocation rate of GuavaValueCache with the per-miss failed future baseline:
+ * mvn -Pbenchmark -pl dataloaders -am test -DskipTests -Djmh.args="ValueCacheMissBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValueCacheMissBenchmark {
+    @Param({"0", "10", "50"})
+    public int hitPercent;
+
+    @Param({"100"})
+    public int batchSize;
+
+    private List<Integer> keys;
+    private ValueCache<Integer, Integer> batchLookupCache;
+    private ValueCache<Integer, Integer> failedFuturePerMissCache;
+
+    /**
+     * Previous implementation: new failed future per miss, DataLoader default getValues calling get() per key
+     */
+    static class FailedFuturePerMissCache implements ValueCache<Integer, Integer> {
+        private final Cache<Integer, Integer> cache;
+        private final GuavaValueCache.EntityNotFoundException defaultException = new GuavaValueCache.EntityNotFoundException();
+
+        FailedFuturePerMissCache(Cache<Integer, Integer> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public CompletableFuture<Integer> get(Integer key) {
+            Integer value = cache.getIfPresent(key);
+            return value == null ? CompletableFuture.failedFuture(defaultException) : CompletableFuture.completedFuture(value);
+        }
+
+        @Override
+        public CompletableFuture<Integer> set(Integer key, Integer value) {
+            cache.put(key, value);
+            return CompletableFuture.completedFuture(value);
+        }
+
+        @Override
+        public CompletableFuture<Void> delete(Integer key) {
+            cache.invalidate(key);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> clear() {
+            cache.invalidateAll();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Cache<Integer, Integer> cache = CacheBuilder.newBuilder().build();
+        keys = IntStream.range(0, batchSize).boxed().toList();
+        keys.stream().filter(key -> key % 100 < hitPercent).forEach(key -> cache.put(key, key));
+        batchLookupCache = new GuavaValueCache<>(cache);
+        failedFuturePerMissCache = new FailedFuturePerMissCache(cache);
+    }
+
+    @Benchmark
+    public List<Try<Integer>> batchLookup() throws ValueCache.ValueCachingNotSupported {
+        return batchLookupCache.getValues(keys).join();
+    }
+
+    @Benchmark
+    public List<Try<Integer>> failedFuturePerMiss() throws ValueCache.ValueCachingNotSupported {
+        return failedFuturePerMissCache.getValues(keys).join();
+    }
+}
@@ -1,22 +1,35 @@
 package org.rapidgraphql.dataloaders;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.base.Ticker;
 import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import lombok.Getter;
+import org.dataloader.BatchLoaderEnvironment;
 import org.dataloader.DataLoader;
 import org.dataloader.DataLoaderOptions;
 import org.dataloader.DataLoaderRegistry;
+import org.dataloader.ValueCache;
 import org.dataloader.ValueCacheOptions;
 import org.dataloader.registries.DispatchPredicate;
 import org.dataloader.registries.ScheduledDataLoaderRegistry;
 import org.slf4j.Logger;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.rapidgraphql.dataloaders.ClassUtils.getUserClass;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -24,6 +37,12 @@ import static org.slf4j.LoggerFactory.getLogger;
 public abstract class AbstractGraphQLBatchLoader<K, T> implements GraphQLDataLoader, DataLoaderRegistrar<K, T> {
     private static final Logger LOGGER = getLogger(AbstractGraphQLBatchLoader.class);
     private static final DispatchPredicate DISPATCH_IF_EMPTY = (dataLoaderKey, dataLoader) -> dataLoader.dispatchDepth()==0;
+    // source of batches whose keys weren't requested by get or getMany
+    private static final Object UNKNOWN_SOURCE = new Object();
+    // environment of batches loaded outside of DataLoader
+    static final BatchLoaderEnvironment EMPTY_ENVIRONMENT = BatchLoaderEnvironment.newBatchLoaderEnvironment().build();
+    // environment of the batch DataLoader is calling load with, set only for the duration of the call
+    private static final ThreadLocal<BatchLoaderEnvironment> LOADING_ENVIRONMENT = new ThreadLocal<>();
 
     private final String dataLoaderName;
     @Getter
@@ -34,13 +53,29 @@ public abstract class AbstractGraphQLBatchLoader<K, T> implements GraphQLDataLoa
     @Getter
     private DispatchPredicate dispatchPredicate = DispatchPredicate.DISPATCH_ALWAYS;
     private boolean isScheduled = false;
+    private BatchLoaderExecutor executor;
+    private BatchLoaderExecutor defaultExecutor;
+    private final DataLoaderInstrumentation instrumentation;
+    private final BatchLoadGuard batchLoadGuard;
+    private AsyncCache<K, T> sharedCache;
+    private WindowedDispatcher windowedDispatcher;
+    private FairBatchScheduler batchScheduler;
+    private InFlightTable<K, T> inFlightTable;
+    private ValueCache<K, T> valueCache;
+    private com.github.benmanes.caffeine.cache.Cache<K, Boolean> negativeCache;
 
     public AbstractGraphQLBatchLoader() {
         this.dataLoaderName = getUserClass(getClass()).getName();
+        this.instrumentation = new DataLoaderInstrumentation(dataLoaderName);
+        this.batchLoadGuard = new BatchLoadGuard(this.dataLoaderName);
+        instrumentation.setBatchLoadGuard(batchLoadGuard);
     }
 
     public AbstractGraphQLBatchLoader(String dataLoaderName) {
         this.dataLoaderName = dataLoaderName;
+        this.instrumentation = new DataLoaderInstrumentation(dataLoaderName);
+        this.batchLoadGuard = new BatchLoadGuard(this.dataLoaderName);
+        instrumentation.setBatchLoadGuard(batchLoadGuard);
     }
 
     /**
@@ -54,11 +89,17 @@ public abstract class AbstractGraphQLBatchLoader<K, T> implements GraphQLDataLoa
      * Requested entities are resolved in batches when the dispatch on dataloader is called.
      */
     public CompletableFuture<T> get(K key, DataFetchingEnvironment env) {
-        DataLoader<K, T> dataLoader = env.getDataLoader(dataLoaderName);
-        if (dataLoader == null) {
-            dataLoader = registerIn(env.getDataLoaderRegistry());
+        if (sharedCache != null) {
+            CompletableFuture<T> cached = getFromSharedCache(key);
+            if (cached != null) {
+                instrumentation.recordCacheAccess(BatchLoaderMetrics.CacheType.SHARED, 1, 0);
+                return cached;
+            }
+            instrumentation.recordCacheAccess(BatchLoaderMetrics.CacheType.SHARED, 0, 1);
         }
-        return dataLoader.load(key);
+        CompletableFuture<T> value = loadKey(getDataLoader(env), key, Deadline.from(env));
+        keysAdded();
+        return value;
     }
 
     /**
@@ -72,11 +113,94 @@ public abstract class AbstractGraphQLBatchLoader<K, T> implements GraphQLDataLoa
      * Requested entities are resolved in batches when the dispatch on dataloader is called.
      */
     public CompletableFuture<List<T>> getMany(List<K> keys, DataFetchingEnvironment env) {
+        if (sharedCache == null) {
+            CompletableFuture<List<T>> values = loadKeys(getDataLoader(env), keys, Deadline.from(env));
+            keysAdded();
+            return values;
+        }
+        List<T> values = new ArrayList<>(keys.size());
+        List<K> missingKeys = null;
+        List<Integer> missingIndexes = null;
+        for (K key : keys) {
+            CompletableFuture<T> cached = getFromSharedCache(key);
+            if (cached == null) {
+                if (missingKeys == null) {
+                    missingKeys = new ArrayList<>();
+                    missingIndexes = new ArrayList<>();
+                }
+                missingKeys.add(key);
+                missingIndexes.add(values.size());
+            }
+            values.add(cached == null ? null : cached.join());
+        }
+        int misses = missingKeys == null ? 0 : missingKeys.size();
+        instrumentation.recordCacheAccess(BatchLoaderMetrics.CacheType.SHARED, keys.size() - misses, misses);
+        if (missingKeys == null) {
+            return CompletableFuture.completedFuture(values);
+        }
+        List<Integer> indexes = missingIndexes;
+        CompletableFuture<List<T>> loadedValues = loadKeys(getDataLoader(env), missingKeys, Deadline.from(env));
+        keysAdded();
+        return loadedValues.thenApply(loaded -> {
+            for (int i = 0; i < loaded.size(); i++) {
+                values.set(indexes.get(i), loaded.get(i));
+            }
+            return values;
+        });
+    }
+
+    /**
+     * Requests key from the DataLoader, subclasses can pass key context
+     * @param dataLoader - DataLoader of the current request
+     * @param key - key to load
+     * @param deadline - deadline of the request, null if the request has no deadline
+     * @return future of the value
+     */
+    protected CompletableFuture<T> loadKey(DataLoader<K, T> dataLoader, K key, Deadline deadline) {
+        Object keyContext = keyContext(dataLoader, deadline);
+        return keyContext == null ? dataLoader.load(key) : dataLoader.load(key, keyContext);
+    }
+
+    /**
+     * Requests keys from the DataLoader, subclasses can pass key contexts
+     * @param dataLoader - DataLoader of the current request
+     * @param keys - keys to load
+     * @param deadline - deadline of the request, null if the request has no deadline
+     * @return future of the values
+     */
+    protected CompletableFuture<List<T>> loadKeys(DataLoader<K, T> dataLoader, List<K> keys, Deadline deadline) {
+        Object keyContext = keyContext(dataLoader, deadline);
+        return keyContext == null ? dataLoader.loadMany(keys) : dataLoader.loadMany(keys, Collections.nCopies(keys.size(), keyContext));
+    }
+
+    private Object keyContext(DataLoader<K, T> dataLoader, Deadline deadline) {
+        // batches are queued per DataLoader they came from
+        return batchScheduler != null ? new KeyContext(dataLoader, deadline) : deadline;
+    }
+
+    private void keysAdded() {
+        if (windowedDispatcher != null) {
+            windowedDispatcher.keysAdded();
+        }
+    }
+
+    private CompletableFuture<T> getFromSharedCache(K key) {
+        CompletableFuture<T> cached = sharedCache.getIfPresent(key);
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally() || cached.join() == null) {
+            return null;
+        }
+        return cached;
+    }
+
+    private DataLoader<K, T> getDataLoader(DataFetchingEnvironment env) {
+        if (windowedDispatcher != null) {
+            return sharedDataLoader;
+        }
         DataLoader<K, T> dataLoader = env.getDataLoader(dataLoaderName);
         if (dataLoader == null) {
             dataLoader = registerIn(env.getDataLoaderRegistry());
         }
-        return dataLoader.loadMany(keys);
+        return dataLoader;
     }
 
     /**
@@ -90,10 +214,81 @@ public abstract class AbstractGraphQLBatchLoader<K, T> implements GraphQLDataLoa
      * @param cache - initialized Guava cache to store loaded values
      */
     protected void useValueCache(Cache<K, T> cache) {
+        setValueCache(instrumentation.instrument(new GuavaValueCache<>(cache)));
+    }
+    /**
+     * Setups two level cache: request DataLoader keeps its own cache (L1), deduplicating keys within the request,
+     * and loaded values are stored in shared bounded cache (L2).
+     * Keys found in L2 are returned by {@link #get} and {@link #getMany} without going through the DataLoader batch at all.
+     * Unlike {@link #useFutureCache}, DataLoader isn't shared by requests.
+     * Hits and misses of both levels are available by {@link #getCacheHitCount} and {@link #getCacheMissCount}
+     * (FUTURE for L1, SHARED for L2) and reported to {@link BatchLoaderMetrics}
+     * <code>
+     *     useTwoLevelCache(Caffeine.newBuilder()
+     *                 .maximumSize(10_000)
+     *                 .expireAfterWrite(Duration.ofMinutes(5)));
+     * </code>
+     * @param sharedCacheBuilder - configured Caffeine builder for the shared cache
+     */
+    protected void useTwoLevelCache(Caffeine<Object, Object> sharedCacheBuilder) {
+        requireLoadForCache("useTwoLevelCache");
+        sharedCache = sharedCacheBuilder.buildAsync(cacheLoader());
+        getDataLoaderOptions().setCachingEnabled(true);
+        setValueCache(new CaffeineValueCache<>(sharedCache));
+    }
+
+    /**
+     * @param cacheType - cache level
+     * @return number of keys found in the cache since the loader was created
+     */
+    public long getCacheHitCount(BatchLoaderMetrics.CacheType cacheType) {
+        return instrumentation.getCacheHitCount(cacheType);
+    }
+
+    /**
+     * @param cacheType - cache level
+     * @return number of keys not found in the cache since the loader was created
+     */
+    public long getCacheMissCount(BatchLoaderMetrics.CacheType cacheType) {
+        return instrumentation.getCacheMissCount(cacheType);
+    }
+
+    /**
+     * Setups batch oriented cache (usually remote, e.g. Redis) as ValueCache for DataLoader
+     * Each dispatched batch is looked up with one getAll() call and the loaded values are stored with one putAll() call
+     * @param cache - cache to store loaded values
+     */
+    protected void useBatchValueCache(BatchValueCache<K, T> cache) {
+        setValueCache(instrumentation.instrument(new BatchValueCacheAdapter<>(cache)));
+    }
+
+    /**
+     * Remembers keys loaded as null (e.g. keys missing in the map returned by mapped batch loader),
+     * so repeated lookups of nonexistent entities don't reach the batch loader until the entry expires.
+     * Absent keys are kept separately from the loaded values with their own expiration and size,
+     * can be combined with any value cache (useValueCache, useCaffeineValueCache, useBatchValueCache, useTwoLevelCache)
+     * or used alone. Hits and misses are reported as {@link BatchLoaderMetrics.CacheType#NEGATIVE}
+     * <code>
+     *     useNegativeCache(Duration.ofSeconds(30), 10_000);
+     * </code>
+     * @param ttl - time absent key is remembered, should be shorter than expiration of loaded values
+     * @param maximumSize - maximum number of absent keys to remember
+     */
+    protected void useNegativeCache(Duration ttl, long maximumSize) {
+        negativeCache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+        setValueCache(valueCache != null ? valueCache : ValueCache.defaultValueCache());
+    }
+
+    private void setValueCache(ValueCache<K, T> valueCache) {
+        this.valueCache = valueCache;
         getDataLoaderOptions()
-                .setValueCache(new GuavaValueCache<>(cache))
+                .setValueCache(negativeCache == null ? valueCache : new NegativeValueCache<>(valueCache, negativeCache, instrumentation))
                 .setValueCacheOptions(ValueCacheOptions.newOptions().setCompleteValueAfterCacheSet(true));
     }
+
     /**
      * Setups Guava cache as FutureCache for DataLoader
      * FutureCache is the most efficient way to cache entities. It will store completed futures
@@ -106,12 +301,131 @@ public abstract class AbstractGraphQLBatchLoader<K, T> implements GraphQLDataLoa
      * @param cache - initialized Guava cache to store CompletableFutures for loaded values
      */
     protected void useFutureCache(Cache<K, CompletableFuture<T>> cache) {
+        getDataLoaderOptions()
+                .setCacheMap(new GuavaFutureCache<>(cache))
+                .setCachingEnabled(true);
         if (sharedDataLoader == null) {
-            sharedDataLoader = createNewDataLoader();
+            sharedDataLoader = newDataLoader();
         }
+    }
+
+    /**
+     * Setups Guava cache as FutureCache for DataLoader refreshing values ahead of their expiration (stale-while-revalidate).
+     * Value older than refreshInterval is still returned immediately, while it is reloaded in background
+     * using {@link #loadForCache(Set)}. Refreshes of keys which became stale at the same time are batched,
+     * so hot keys expiring together don't make callers wait for the batch load.
+     * Values older than maxStaleness are never served, they are loaded by DataLoader as usual
+     * <code>
+     *     useRefreshingFutureCache(CacheBuilder.newBuilder().maximumSize(1000),
+     *                 Duration.ofMinutes(5), Duration.ofMinutes(30));
+     * </code>
+     * @param cacheBuilder - Guava builder with size limits, expiration must not be set (maxStaleness is used)
+     * @param refreshInterval - age of the value after which it is refreshed on access
+     * @param maxStaleness - age of the value after which it is expired
+     */
+    protected void useRefreshingFutureCache(CacheBuilder<Object, Object> cacheBuilder, Duration refreshInterval,
+                                            Duration maxStaleness) {
+        requireLoadForCache("useRefreshingFutureCache");
         getDataLoaderOptions()
-                .setCacheMap(new GuavaFutureCache<>(cache))
+                .setCacheMap(new RefreshingFutureCache<K, T>(cacheBuilder, refreshInterval, maxStaleness,
+                        Ticker.systemTicker(), DispatchTicker.getDefault(), this::refreshForCache))
                 .setCachingEnabled(true);
+        if (sharedDataLoader == null) {
+            sharedDataLoader = newDataLoader();
+        }
+    }
+
+    private CompletableFuture<Map<K, T>> refreshForCache(Set<K> keys) {
+        int maxBatchSize = getMaxBatchSize();
+        if (maxBatchSize <= 0 || keys.size() <= maxBatchSize) {
+            return supplyBatchAsync(keys.size(), () -> loadForCache(keys));
+        }
+        List<CompletableFuture<Map<K, T>>> batches = new ArrayList<>();
+        List<K> keyList = List.copyOf(keys);
+        for (int from = 0; from < keyList.size(); from += maxBatchSize) {
+            Set<K> batch = Set.copyOf(keyList.subList(from, Math.min(from + maxBatchSize, keyList.size())));
+            batches.add(supplyBatchAsync(batch.size(), () -> loadForCache(batch)));
+        }
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            Map<K, T> values = new HashMap<>();
+            batches.forEach(batch -> values.putAll(batch.join()));
+            return values;
+        });
+    }
+
+    /**
+     * Setups Caffeine cache as ValueCache for DataLoader
+     * The cache is built as AsyncLoadingCache, so refreshAfterWrite can be used: stale values are served
+     * while they are reloaded in background using {@link #loadForCache(Set)}
+     * <code>
+     *     useCaffeineValueCache(Caffeine.newBuilder()
+     *                 .maximumSize(1000)
+     *                 .expireAfterWrite(Duration.ofMinutes(30))
+     *                 .refreshAfterWrite(Duration.ofMinutes(5)));
+     * </code>
+     * @param cacheBuilder - configured Caffeine builder
+     */
+    protected void useCaffeineValueCache(Caffeine<Object, Object> cacheBuilder) {
+        requireLoadForCache("useCaffeineValueCache");
+        setValueCache(instrumentation.instrument(new CaffeineValueCache<>(cacheBuilder.buildAsync(cacheLoader()))));
+    }
+
+    /**
+     * Setups Caffeine cache as FutureCache for DataLoader
+     * The cache is built as AsyncLoadingCache, so refreshAfterWrite can be used: stale values are served
+     * while they are reloaded in background using {@link #loadForCache(Set)}
+     * <code>
+     *     useCaffeineFutureCache(Caffeine.newBuilder()
+     *                 .maximumSize(1000)
+     *                 .expireAfterWrite(Duration.ofMinutes(30)));
+     * </code>
+     * @param cacheBuilder - configured Caffeine builder
+     */
+    protected void useCaffeineFutureCache(Caffeine<Object, Object> cacheBuilder) {
+        requireLoadForCache("useCaffeineFutureCache");
+        getDataLoaderOptions()
+                .setCacheMap(new CaffeineFutureCache<>(cacheBuilder.buildAsync(cacheLoader())))
+                .setCachingEnabled(true);
+        if (sharedDataLoader == null) {
+            sharedDataLoader = newDataLoader();
+        }
+    }
+
+    /**
+     * Loads values outside of DataLoader dispatch, used by Caffeine caches to load and refresh entries.
+     * Loaders extending this class directly should override it to use caches loading values themselves
+     * (useTwoLevelCache, useCaffeineValueCache, useCaffeineFutureCache, useRefreshingFutureCache)
+     * @param keys - keys to load
+     * @return loaded values, missing keys are omitted
+     */
+    protected Map<K, T> loadForCache(Set<K> keys) {
+        throw new UnsupportedOperationException("Data loader " + getDataLoaderName() + " doesn't support loading for cache");
+    }
+
+    private void requireLoadForCache(String cacheSetup) {
+        for (Class<?> type = getClass(); type != AbstractGraphQLBatchLoader.class; type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod("loadForCache", Set.class);
+                return;
+            } catch (NoSuchMethodException e) {
+                // not overridden on this level
+            }
+        }
+        throw new IllegalStateException("Data loader " + getDataLoaderName() + " should override loadForCache to use " + cacheSetup);
+    }
+
+    private AsyncCacheLoader<K, T> cacheLoader() {
+        return new AsyncCacheLoader<>() {
+            @Override
+            public CompletableFuture<T> asyncLoad(K key, Executor executor) {
+                return supplyBatchAsync(1, () -> loadForCache(Set.of(key)).get(key));
+            }
+
+            @Override
+            public CompletableFuture<Map<K, T>> asyncLoadAll(Set<? extends K> keys, Executor executor) {
+                return supplyBatchAsync(keys.size(), () -> loadForCache(Set.copyOf(keys)));
+            }
+        };
     }
 
     /**
@@ -123,6 +437,198 @@ public abstract class AbstractGraphQLBatchLoader<K, T> implements GraphQLDataLoa
         getDataLoaderOptions().setMaxBatchSize(maxBatchSize);
     }
 
+    /**
+     * Deduplicates keys across concurrently running batch loads: key which is already being fetched by another batch
+     * (e.g. of another request) attaches to the running fetch instead of being fetched again.
+     * Useful when DataLoader caching is disabled, e.g. with {@link #useScheduledDispatch} or {@link #useDispatchWindow}.
+     * Keys are forgotten as soon as their batch completes, so this never serves stale values
+     */
+    protected void useInFlightDeduplication() {
+        inFlightTable = new InFlightTable<>();
+    }
+
+    InFlightTable<K, T> getInFlightTable() {
+        return inFlightTable;
+    }
+
+    /**
+     * Limits number of batch loads of this loader running at the same time,
+     * e.g. when maxBatchSize splits large dispatch into many batches. Excess batches are queued.
+     * Queued batches are started round-robin across the DataLoaders (requests) which dispatched them,
+     * so one heavy request can't take all the slots. The DataLoader of the batch is known for keys requested
+     * by {@link #get} and {@link #getMany}, batches of keys loaded from DataLoader directly share one queue
+     * @param maxConcurrentBatches - maximum number of batch loads running at the same time
+     */
+    protected void setMaxConcurrentBatches(int maxConcurrentBatches) {
+        batchScheduler = new FairBatchScheduler(maxConcurrentBatches);
+    }
+
+    /**
+     * Fails batch load which didn't complete within the timeout, so requests don't wait for slow backend.
+     * Keys of the batch fail with TimeoutException, other keys of the request resolve as usual.
+     * The synchronous load keeps running on the executor (and, with {@link #setMaxConcurrentBatches},
+     * keeps its slot), so a slow backend doesn't get more concurrent batches than allowed.
+     * Time the batch waits for a slot of {@link #setMaxConcurrentBatches} isn't counted
+     * @param timeout - maximum time from the batch start until its completion
+     */
+    protected void setBatchTimeout(Duration timeout) {
+        batchLoadGuard.setTimeout(timeout);
+    }
+
+    /**
+     * Opens the circuit after failureThreshold consecutive failed or timed out batch loads:
+     * while the circuit is open batch loads fail immediately with {@link CircuitBreakerOpenException}
+     * without calling the backend. After openDuration single probe batch is executed (half open),
+     * its success closes the circuit, failure opens it for another openDuration.
+     * The state is reported to {@link BatchLoaderMetrics}
+     * <code>
+     *     setBatchTimeout(Duration.ofMillis(500));
+     *     useCircuitBreaker(5, Duration.ofSeconds(10));
+     * </code>
+     * @param failureThreshold - number of consecutive failures opening the circuit
+     * @param openDuration - time the circuit stays open before the probe
+     */
+    protected void useCircuitBreaker(int failureThreshold, Duration openDuration) {
+        batchLoadGuard.useCircuitBreaker(failureThreshold, openDuration);
+    }
+
+    /**
+     * @return current state of the circuit breaker, CLOSED if circuit breaker isn't used
+     */
+    public BatchLoaderMetrics.CircuitState getCircuitState() {
+        return batchLoadGuard.getState();
+    }
+
+    /**
+     * Setups maximum batch size adapting to observed batch load latency (AIMD).
+     * Starting from the floor, every batch that filled the limit and completed within the target latency increases
+     * the limit by the floor, slow or failed batch halves it.
+     * Current limit is available by {@link #getMaxBatchSize()} and reported to {@link BatchLoaderMetrics}
+     * @param floor - minimum (and initial) maximum batch size
+     * @param ceiling - maximum batch size never exceeded
+     * @param targetLatency - batch load duration considered healthy
+     */
+    protected void useAdaptiveBatchSize(int floor, int ceiling, Duration targetLatency) {
+        instrumentation.setAdaptiveBatchSize(new AdaptiveBatchSize(floor, ceiling, targetLatency,
+                getDataLoaderOptions()::setMaxBatchSize));
+    }
+
+    /**
+     * @return current maximum batch size, non-positive value means unlimited
+     */
+    public int getMaxBatchSize() {
+        return getDataLoaderOptions().maxBatchSize();
+    }
+
+    /**
+     * Setups executor running synchronous batch loads of this loader.
+     * By default, batch loads are executed by the default executor of {@link DataLoaderRegistryFactory}
+     * <code>
+     *     useExecutor(BatchLoaderExecutor.fixed("products", 8, 100, RejectionPolicy.CALLER_RUNS));
+     * </code>
+     * @param executor - executor to run batch loads
+     */
+    protected void useExecutor(Executor executor) {
+        this.executor = BatchLoaderExecutor.of(getDataLoaderName(), executor);
+    }
+
+    /**
+     * @return executor running batch loads of this loader
+     */
+    public BatchLoaderExecutor getExecutor() {
+        if (executor != null) {
+            return executor;
+        }
+        return defaultExecutor != null ? defaultExecutor : BatchLoaderExecutor.commonPool();
+    }
+
+    /**
+     * Calls the batch loader entry point (load of keys) on behalf of DataLoader, so the entry point,
+     * including overrides of subclasses, can read environment of the batch by {@link #getBatchEnvironment()}
+     * @param environment - batch loader environment passed by DataLoader
+     * @param load - calls load of the batch keys
+     * @return result of the load
+     */
+    static <R> R loadWithEnvironment(BatchLoaderEnvironment environment, Supplier<R> load) {
+        BatchLoaderEnvironment previous = LOADING_ENVIRONMENT.get();
+        LOADING_ENVIRONMENT.set(environment);
+        try {
+            return load.get();
+        } finally {
+            if (previous == null) {
+                LOADING_ENVIRONMENT.remove();
+            } else {
+                LOADING_ENVIRONMENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Should be read synchronously by load of keys, before it hands the batch to other threads
+     * @return environment of the batch DataLoader is loading, empty environment if the batch is loaded outside of DataLoader
+     */
+    protected BatchLoaderEnvironment getBatchEnvironment() {
+        BatchLoaderEnvironment environment = LOADING_ENVIRONMENT.get();
+        return environment != null ? environment : EMPTY_ENVIRONMENT;
+    }
+
+    /**
+     * Runs synchronous batch load of keys dispatched by DataLoader on the loader executor
+     * and reports it to {@link BatchLoaderMetrics}.
+     * Batch whose {@link Deadline} (the latest deadline of its keys) passed before it started is skipped
+     * @param environment - batch loader environment with key contexts of the batch
+     * @param batchSize - number of keys in the batch
+     * @param batchLoad - synchronous batch load
+     * @return future completed with the batch load result
+     */
+    protected <R> CompletableFuture<R> supplyBatchAsync(BatchLoaderEnvironment environment, int batchSize, Supplier<R> batchLoad) {
+        List<Object> keyContexts = environment.getKeyContextsList();
+        return supplyBatchAsync(batchSize, source(keyContexts), Deadline.latest(keyContexts), batchLoad);
+    }
+
+    /**
+     * Runs synchronous batch load outside of DataLoader dispatch (e.g. load or refresh of cache entries)
+     * on the loader executor and reports it to {@link BatchLoaderMetrics}. The batch has no deadline
+     * @param batchSize - number of keys in the batch
+     * @param batchLoad - synchronous batch load
+     * @return future completed with the batch load result
+     */
+    protected <R> CompletableFuture<R> supplyBatchAsync(int batchSize, Supplier<R> batchLoad) {
+        return supplyBatchAsync(batchSize, UNKNOWN_SOURCE, null, batchLoad);
+    }
+
+    private Object source(List<Object> keyContexts) {
+        if (batchScheduler != null) {
+            for (Object keyContext : keyContexts) {
+                if (keyContext instanceof KeyContext context) {
+                    return context.dataLoader();
+                }
+            }
+        }
+        return UNKNOWN_SOURCE;
+    }
+
+    private <R> CompletableFuture<R> supplyBatchAsync(int batchSize, Object source, Deadline deadline, Supplier<R> batchLoad) {
+        if (deadline != null && deadline.isExpired()) {
+            instrumentation.recordBatchSkipped(batchSize);
+            return CompletableFuture.failedFuture(new DeadlineExceededException(dataLoaderName));
+        }
+        Supplier<R> recordedLoad = deadline == null
+                ? () -> instrumentation.recordBatchLoad(batchSize, batchLoad)
+                : () -> {
+                    // the batch could wait for its turn in the executor queue
+                    if (deadline.isExpired()) {
+                        instrumentation.recordBatchSkipped(batchSize);
+                        throw new DeadlineExceededException(dataLoaderName);
+                    }
+                    return Deadline.runWith(deadline, () -> instrumentation.recordBatchLoad(batchSize, batchLoad));
+                };
+        if (batchScheduler != null) {
+            return batchScheduler.submit(source, batchLoadGuard, () -> getExecutor().supplyAsync(recordedLoad));
+        }
+        return batchLoadGuard.run(() -> getExecutor().supplyAsync(recordedLoad));
+    }
+
     /**
      * Scheduled dispatch allows to batch queries across multiple GraphQL requests.
      * This comes at the cost of increased single request latency.
@@ -135,7 +641,7 @@ public abstract class AbstractGraphQLBatchLoader<K, T> implements GraphQLDataLoa
     protected void useScheduledDispatch(Duration durationSinceLastDispatch, int minDispatchSize) {
         isScheduled = true;
         if (sharedDataLoader == null) {
-            sharedDataLoader = createNewDataLoader();
+            sharedDataLoader = newDataLoader();
         }
         dispatchPredicate = DISPATCH_IF_EMPTY
                 .or(DispatchPredicate.dispatchIfLongerThan(durationSinceLastDispatch))
@@ -146,6 +652,35 @@ public abstract class AbstractGraphQLBatchLoader<K, T> implements GraphQLDataLoa
         }
     }
 
+    /**
+     * Dispatch window batches keys across multiple GraphQL requests, like {@link #useScheduledDispatch},
+     * but the DataLoader is dispatched by its own timer instead of polling request registries.
+     * Keys are collected for the window after the first pending key and dispatched if at least minDispatchSize
+     * keys are pending, otherwise collecting continues, but no key waits longer than maxLatency.
+     * All windowed loaders are driven by a single timer wheel thread, which sleeps while no keys are pending,
+     * the dispatch itself runs in a small shared dispatch pool, so a loader running its load in the dispatching thread
+     * doesn't delay windows of other loaders.
+     * The DataLoader is shared by all requests and isn't registered in request registries,
+     * it should be used through {@link #get}, {@link #getMany} and {@link #dataFetcher}
+     * <code>
+     *     useDispatchWindow(Duration.ofMillis(5), Duration.ofMillis(20), 100);
+     * </code>
+     * @param window - time to collect keys before dispatch
+     * @param maxLatency - maximum time the first key waits for the dispatch
+     * @param minDispatchSize - minimal number of keys to dispatch before maxLatency passes
+     */
+    protected void useDispatchWindow(Duration window, Duration maxLatency, int minDispatchSize) {
+        // disable caching until explicit CacheMap is defined
+        if (dataLoaderOptions.cacheMap().isEmpty()) {
+            dataLoaderOptions.setCachingEnabled(false);
+        }
+        if (sharedDataLoader == null) {
+            sharedDataLoader = newDataLoader();
+        }
+        windowedDispatcher = new WindowedDispatcher(sharedDataLoader, window, maxLatency, minDispatchSize,
+                DispatchTicker.getDefault(), WindowedDispatcher.defaultDispatchExecutor());
+    }
+
     /**
      * Creates dataFetcher that uses underlying dataloader to fetch data.
      * Key for data loader is extracted using keyExtractor function
@@ -167,32 +702,57 @@ public abstract class AbstractGraphQLBatchLoader<K, T> implements GraphQLDataLoa
         return environment -> (KEY)environment.getArgument(argName);
     }
 
+    /**
+     * Registers data loader in the registry unless it's already registered there.
+     * Registration is lock-free: concurrent callers race on the registry's concurrent map
+     * and all of them get the same DataLoader instance.
+     * Loaders using dispatch window aren't registered, their shared DataLoader is returned
+     * @param dataLoaderRegistry - registry to register DataLoader in
+     * @return DataLoader registered in the registry
+     */
     @Override
     public DataLoader<K, T> registerIn(DataLoaderRegistry dataLoaderRegistry) {
-        synchronized (dataLoaderRegistry) {
-            DataLoader<K, T> dataLoader = dataLoaderRegistry.getDataLoader(getDataLoaderName());
-            if (dataLoader == null) {
-                dataLoader = createOrGetDataLoader();
-                if (dataLoaderRegistry instanceof ScheduledDataLoaderRegistry) {
-                    LOGGER.debug("Registration of {} data loader in ScheduledDataLoaderRegistry", getDataLoaderName());
-                    ((ScheduledDataLoaderRegistry)dataLoaderRegistry).register(getDataLoaderName(), dataLoader, getDispatchPredicate());
-                } else {
-                    LOGGER.debug("Registration of {} data loader in DataLoaderRegistry", getDataLoaderName());
-                    dataLoaderRegistry.register(getDataLoaderName(), dataLoader);
-                }
-            }
-            return dataLoader;
+        if (windowedDispatcher != null) {
+            // dispatched by its window, request registry shouldn't dispatch it
+            return sharedDataLoader;
+        }
+        DataLoader<K, T> dataLoader = dataLoaderRegistry.computeIfAbsent(getDataLoaderName(), name -> {
+            LOGGER.debug("Registration of {} data loader in {}", name, dataLoaderRegistry.getClass().getSimpleName());
+            return createOrGetDataLoader();
+        });
+        if (dispatchPredicate != DispatchPredicate.DISPATCH_ALWAYS
+                && dataLoaderRegistry instanceof ScheduledDataLoaderRegistry) {
+            // predicate is stored separately from the data loader, re-registering the same pair is idempotent
+            ((ScheduledDataLoaderRegistry)dataLoaderRegistry).register(getDataLoaderName(), dataLoader, dispatchPredicate);
         }
+        return dataLoader;
     }
 
     protected DataLoader<K, T> createOrGetDataLoader() {
         if (sharedDataLoader != null) {
             return sharedDataLoader;
         }
-        return createNewDataLoader();
+        return newDataLoader();
     }
     abstract protected DataLoader<K, T> createNewDataLoader();
 
+    // statistics collector can be replaced in the options at any time, it's instrumented when DataLoader takes it
+    private DataLoader<K, T> newDataLoader() {
+        instrumentation.instrument(dataLoaderOptions);
+        DataLoader<K, T> dataLoader = createNewDataLoader();
+        instrumentation.register(dataLoader);
+        return dataLoader;
+    }
+
+    @Override
+    public void configure(DataLoaderRegistryFactory factory) {
+        defaultExecutor = factory.getDefaultExecutor();
+        instrumentation.setMetrics(factory.getMetrics());
+        if (executor != null) {
+            factory.getMetrics().registerExecutor(executor);
+        }
+    }
+
     @Override
     public boolean isLazyRegistrar() {
         return true;
@@ -0,0 +1,50 @@
+package org.rapidgraphql.dataloaders;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * AIMD (additive increase, multiplicative decrease) policy for maximum batch size.
+ * Batch which filled the current limit and completed within the target latency increases the limit by the floor,
+ * slow or failed batch halves it. The limit always stays between floor and ceiling.
+ */
+final class AdaptiveBatchSize {
+    private final int floor;
+    private final int ceiling;
+    private final long targetLatencyNanos;
+    private final IntConsumer onChange;
+    private final AtomicInteger current;
+
+    AdaptiveBatchSize(int floor, int ceiling, Duration targetLatency, IntConsumer onChange) {
+        if (floor <= 0 || ceiling < floor) {
+            throw new IllegalArgumentException("floor should be positive and not greater than ceiling");
+        }
+        this.floor = floor;
+        this.ceiling = ceiling;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.onChange = onChange;
+        this.current = new AtomicInteger(floor);
+        onChange.accept(floor);
+    }
+
+    int getCurrent() {
+        return current.get();
+    }
+
+    void onBatchLoad(int batchSize, long durationNanos, boolean failed) {
+        int limit = current.get();
+        int updated;
+        if (failed || durationNanos > targetLatencyNanos) {
+            updated = Math.max(floor, limit / 2);
+        } else if (batchSize >= limit) {
+            // only full batches prove the backend can take more
+            updated = (int) Math.min(ceiling, (long) limit + floor);
+        } else {
+            return;
+        }
+        if (updated != limit && current.compareAndSet(limit, updated)) {
+            onChange.accept(updated);
+        }
+    }
+}
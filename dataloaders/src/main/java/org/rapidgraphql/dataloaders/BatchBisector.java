@@ -0,0 +1,84 @@
+package org.rapidgraphql.dataloaders;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Retries failed batch load by bisecting it, so keys failing the batch (e.g. poisoned ids) are isolated
+ * and the rest of the batch is still loaded. Keys which fail on their own are resolved as failed
+ * (see {@link org.dataloader.Try}), so the error is reported only for them.
+ * Halves which fail are bisected further, so several poisoned keys in different halves are isolated too.
+ * If no part of the batch loads, the failure isn't caused by specific keys (e.g. backend is down)
+ * and the batch fails as a whole.
+ * Number of retries per batch is limited, keys left unresolved when retries are exhausted are failed
+ * @param <K> - key type
+ * @param <R> - batch result type
+ */
+final class BatchBisector<K, R> {
+    private final Function<List<K>, R> batchLoad;
+    private final BiFunction<List<K>, RuntimeException, R> failedResult;
+    private final BinaryOperator<R> merge;
+    private int retriesLeft;
+    private boolean anyLoaded;
+
+    private record Attempt<R>(R result, RuntimeException error) {}
+
+    /**
+     * @param batchLoad - loads batch of keys
+     * @param failedResult - creates result failing all the keys with the error
+     * @param merge - merges results of two halves of the batch
+     * @param maxRetries - maximum number of additional batch loads, 0 disables bisecting
+     */
+    BatchBisector(Function<List<K>, R> batchLoad, BiFunction<List<K>, RuntimeException, R> failedResult,
+                  BinaryOperator<R> merge, int maxRetries) {
+        this.batchLoad = batchLoad;
+        this.failedResult = failedResult;
+        this.merge = merge;
+        this.retriesLeft = maxRetries;
+    }
+
+    /**
+     * @param keys - keys of the batch
+     * @return result of the batch, keys failing on their own are failed in the result
+     * @throws RuntimeException - exception of the batch load, if none of its parts loaded
+     */
+    R load(List<K> keys) {
+        Attempt<R> attempt = attempt(keys);
+        if (attempt.error() == null) {
+            return attempt.result();
+        }
+        if (keys.size() == 1 || retriesLeft < 2) {
+            throw attempt.error();
+        }
+        R result = resolve(keys, attempt);
+        if (!anyLoaded) {
+            throw attempt.error();
+        }
+        return result;
+    }
+
+    private R resolve(List<K> keys, Attempt<R> attempt) {
+        if (attempt.error() == null) {
+            anyLoaded = true;
+            return attempt.result();
+        }
+        if (keys.size() == 1 || retriesLeft < 2) {
+            return failedResult.apply(keys, attempt.error());
+        }
+        retriesLeft -= 2;
+        int middle = keys.size() / 2;
+        List<K> leftKeys = keys.subList(0, middle);
+        List<K> rightKeys = keys.subList(middle, keys.size());
+        return merge.apply(resolve(leftKeys, attempt(leftKeys)), resolve(rightKeys, attempt(rightKeys)));
+    }
+
+    private Attempt<R> attempt(List<K> keys) {
+        try {
+            return new Attempt<>(batchLoad.apply(keys), null);
+        } catch (RuntimeException e) {
+            return new Attempt<>(null, e);
+        }
+    }
+}
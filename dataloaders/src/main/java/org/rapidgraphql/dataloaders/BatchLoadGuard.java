@@ -0,0 +1,139 @@
+package org.rapidgraphql.dataloaders;
+
+import org.rapidgraphql.dataloaders.BatchLoaderMetrics.CircuitState;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Timeout and circuit breaker around batch loads of single data loader.
+ * Timed out batch load fails its keys immediately, while the synchronous load keeps running on the executor
+ * and its own future completes only when it's done.
+ * After failureThreshold consecutive failed (or timed out) batch loads the circuit opens and batch loads fail
+ * with {@link CircuitBreakerOpenException} without calling the backend. Once openDuration passes
+ * single probe batch is let through (half open): its success closes the circuit, failure opens it again.
+ * Batches skipped because of passed {@link Deadline} aren't counted as failures.
+ * Does nothing until configured
+ */
+final class BatchLoadGuard {
+    private final String dataLoaderName;
+    private final LongSupplier nanoTime;
+    private volatile long timeoutNanos;
+    private volatile int failureThreshold;
+    private volatile long openDurationNanos;
+    private volatile CircuitState state = CircuitState.CLOSED;
+    // guarded by this
+    private int consecutiveFailures;
+    private long openedAtNanos;
+
+    BatchLoadGuard(String dataLoaderName) {
+        this(dataLoaderName, System::nanoTime);
+    }
+
+    BatchLoadGuard(String dataLoaderName, LongSupplier nanoTime) {
+        this.dataLoaderName = dataLoaderName;
+        this.nanoTime = nanoTime;
+    }
+
+    void setTimeout(Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("timeout should be positive");
+        }
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    void useCircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0 || openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("failureThreshold and openDuration should be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    boolean hasCircuitBreaker() {
+        return failureThreshold > 0;
+    }
+
+    CircuitState getState() {
+        return state;
+    }
+
+    /**
+     * @param batchLoad - starts batch load
+     * @return future of the batch load result, failed if the circuit is open or the batch load timed out
+     */
+    <R> CompletableFuture<R> run(Supplier<CompletableFuture<R>> batchLoad) {
+        boolean breaker = hasCircuitBreaker();
+        if (breaker && !tryAcquire()) {
+            return CompletableFuture.failedFuture(new CircuitBreakerOpenException(dataLoaderName));
+        }
+        CompletableFuture<R> result;
+        try {
+            result = batchLoad.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        long timeout = timeoutNanos;
+        if (timeout > 0) {
+            result = result.copy().orTimeout(timeout, TimeUnit.NANOSECONDS);
+        }
+        if (breaker) {
+            // state is updated before callers of the batch see the result
+            result = result.whenComplete((value, error) -> {
+                if (error == null) {
+                    onSuccess();
+                } else if (unwrap(error) instanceof DeadlineExceededException) {
+                    // skipped batch says nothing about the backend
+                    onSkipped();
+                } else {
+                    onFailure();
+                }
+            });
+        }
+        return result;
+    }
+
+    private boolean tryAcquire() {
+        CircuitState current = state;
+        if (current == CircuitState.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == CircuitState.OPEN && nanoTime.getAsLong() - openedAtNanos >= openDurationNanos) {
+                state = CircuitState.HALF_OPEN;
+                return true;
+            }
+            return state == CircuitState.CLOSED;
+        }
+    }
+
+    private synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state == CircuitState.HALF_OPEN) {
+            state = CircuitState.CLOSED;
+        }
+    }
+
+    private synchronized void onSkipped() {
+        if (state == CircuitState.HALF_OPEN) {
+            // next batch load becomes the probe
+            state = CircuitState.OPEN;
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == CircuitState.HALF_OPEN || (state == CircuitState.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = CircuitState.OPEN;
+            openedAtNanos = nanoTime.getAsLong();
+        }
+    }
+}
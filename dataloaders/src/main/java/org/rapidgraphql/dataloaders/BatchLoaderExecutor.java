@@ -0,0 +1,300 @@
+package org.rapidgraphql.dataloaders;
+
+import org.slf4j.Logger;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Executor used to run synchronous batch loads (syncLoad and {@link org.rapidgraphql.annotations.DataLoaderMethod} methods)
+ * Can be shared by all data loaders (see {@link DataLoaderRegistryFactory}) or defined per loader
+ * (see {@link AbstractGraphQLBatchLoader#useExecutor(Executor)})
+ * <code>
+ *     BatchLoaderExecutor executor = BatchLoaderExecutor.fixed("products", 16, 1000, RejectionPolicy.CALLER_RUNS);
+ * </code>
+ */
+public class BatchLoaderExecutor implements Executor, AutoCloseable {
+    private static final Logger LOGGER = getLogger(BatchLoaderExecutor.class);
+    private static final BatchLoaderExecutor COMMON_POOL = new BatchLoaderExecutor("common", ForkJoinPool.commonPool(), null, new AtomicLong());
+
+    public enum Kind {
+        /**
+         * Use ForkJoinPool.commonPool()
+         */
+        COMMON,
+        /**
+         * Use dedicated fixed size thread pool with bounded queue
+         */
+        FIXED,
+        /**
+         * Run every batch load on its own virtual thread (requires Java 21+, FIXED is used on older Java)
+         */
+        VIRTUAL;
+
+        public static Kind parse(String value) {
+            return Kind.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    public enum RejectionPolicy {
+        /**
+         * Batch load fails with RejectedExecutionException
+         */
+        ABORT,
+        /**
+         * Batch load runs in the thread which dispatched the data loader
+         */
+        CALLER_RUNS;
+
+        public static RejectionPolicy parse(String value) {
+            return RejectionPolicy.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private final String name;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final ThreadPoolExecutor threadPool;
+    private final AtomicLong rejectedCount;
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+
+    private BatchLoaderExecutor(String name, Executor executor, ThreadPoolExecutor threadPool, AtomicLong rejectedCount) {
+        this(name, executor, threadPool, threadPool, rejectedCount);
+    }
+
+    private BatchLoaderExecutor(String name, Executor executor, ExecutorService ownedExecutor,
+                                ThreadPoolExecutor threadPool, AtomicLong rejectedCount) {
+        this.name = name;
+        this.executor = executor;
+        this.ownedExecutor = ownedExecutor;
+        this.threadPool = threadPool;
+        this.rejectedCount = rejectedCount;
+    }
+
+    /**
+     * @return executor running batch loads in ForkJoinPool.commonPool()
+     */
+    public static BatchLoaderExecutor commonPool() {
+        return COMMON_POOL;
+    }
+
+    /**
+     * Wraps existing executor, the executor is not closed by {@link #close()}
+     * @param name - name used in logs and metrics
+     * @param executor - executor to run batch loads
+     * @return batch loader executor
+     */
+    public static BatchLoaderExecutor of(String name, Executor executor) {
+        if (executor instanceof BatchLoaderExecutor) {
+            return (BatchLoaderExecutor) executor;
+        }
+        return new BatchLoaderExecutor(name, executor, null, new AtomicLong());
+    }
+
+    /**
+     * Creates dedicated thread pool for batch loads
+     * @param name - name used for thread names, logs and metrics
+     * @param poolSize - number of threads
+     * @param queueCapacity - maximum number of batch loads waiting for a free thread
+     * @param rejectionPolicy - what to do with batch load when queue is full
+     * @return batch loader executor, should be closed when not needed anymore
+     */
+    public static BatchLoaderExecutor fixed(String name, int poolSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+        if (poolSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("poolSize and queueCapacity should be positive");
+        }
+        AtomicLong rejectedCount = new AtomicLong();
+        RejectedExecutionHandler delegate = rejectionPolicy == RejectionPolicy.CALLER_RUNS ?
+                new ThreadPoolExecutor.CallerRunsPolicy() : new ThreadPoolExecutor.AbortPolicy();
+        RejectedExecutionHandler countingHandler = (runnable, pool) -> {
+            rejectedCount.incrementAndGet();
+            delegate.rejectedExecution(runnable, pool);
+        };
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(poolSize, poolSize,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new NamedThreadFactory("rapidgraphql-" + name + "-"),
+                countingHandler);
+        threadPool.allowCoreThreadTimeOut(true);
+        LOGGER.info("Created batch loader executor {} with {} threads and queue capacity {}, rejection policy {}",
+                name, poolSize, queueCapacity, rejectionPolicy);
+        return new BatchLoaderExecutor(name, threadPool, threadPool, rejectedCount);
+    }
+
+    /**
+     * Creates executor which starts new virtual thread for every batch load.
+     * Suitable for loaders blocking on I/O: number of batch loads in flight isn't limited by the pool size.
+     * @param name - name used for logs and metrics
+     * @return batch loader executor, should be closed when not needed anymore
+     * @throws IllegalStateException if the Java version doesn't support virtual threads
+     */
+    public static BatchLoaderExecutor virtual(String name) {
+        ExecutorService executorService = newVirtualThreadPerTaskExecutor();
+        if (executorService == null) {
+            throw new IllegalStateException("Virtual threads are not supported by Java " + Runtime.version().feature());
+        }
+        return virtual(name, executorService);
+    }
+
+    private static BatchLoaderExecutor virtual(String name, ExecutorService executorService) {
+        LOGGER.info("Created batch loader executor {} using virtual threads", name);
+        return new BatchLoaderExecutor(name, executorService, executorService, null, new AtomicLong());
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            MethodHandle factory = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            return (ExecutorService) factory.invokeExact();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (Throwable e) {
+            LOGGER.warn("Failed to create virtual thread executor", e);
+            return null;
+        }
+    }
+
+    public static BatchLoaderExecutor create(Kind kind, String name, int poolSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+        switch (kind) {
+            case COMMON:
+                return commonPool();
+            case FIXED:
+                return fixed(name, poolSize, queueCapacity, rejectionPolicy);
+            case VIRTUAL:
+                ExecutorService executorService = newVirtualThreadPerTaskExecutor();
+                if (executorService == null) {
+                    // thread per batch load without virtual threads would be unbounded
+                    LOGGER.warn("Virtual threads are not supported by Java {}, batch loader executor {} will use fixed thread pool",
+                            Runtime.version().feature(), name);
+                    return fixed(name, poolSize, queueCapacity, rejectionPolicy);
+                }
+                return virtual(name, executorService);
+            default:
+                throw new IllegalArgumentException("Unsupported executor kind " + kind);
+        }
+    }
+
+    /**
+     * Runs supplier asynchronously
+     * @param supplier - synchronous batch load
+     * @return future completed with supplier result.
+     * If the executor rejects the task the future is completed exceptionally with RejectedExecutionException
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        try {
+            if (threadPool != null) {
+                return CompletableFuture.supplyAsync(supplier, executor);
+            }
+            return CompletableFuture.supplyAsync(() -> {
+                inFlightCount.incrementAndGet();
+                try {
+                    return supplier.get();
+                } finally {
+                    inFlightCount.decrementAndGet();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            if (threadPool == null) {
+                // rejections of own thread pool are counted by the rejection handler
+                rejectedCount.incrementAndGet();
+            }
+            LOGGER.warn("Batch load rejected by executor {}", name);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return approximate number of batch loads being executed
+     */
+    public int getActiveCount() {
+        return threadPool != null ? threadPool.getActiveCount() : inFlightCount.get();
+    }
+
+    /**
+     * @return number of batch loads waiting for a free thread, -1 if unknown
+     */
+    public int getQueueSize() {
+        return threadPool != null ? threadPool.getQueue().size() : -1;
+    }
+
+    /**
+     * @return approximate number of completed batch loads, -1 if unknown
+     */
+    public long getCompletedCount() {
+        return threadPool != null ? threadPool.getCompletedTaskCount() : -1;
+    }
+
+    /**
+     * @return number of batch loads rejected because the queue was full
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Shuts down executor created by this class, wrapped executors are left intact
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null && !ownedExecutor.isShutdown()) {
+            ownedExecutor.shutdown();
+            try {
+                if (!ownedExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    ownedExecutor.shutdownNow();
+                }
+            } catch (InterruptedException ex) {
+                LOGGER.warn("Batch loader executor {} shutdown was interrupted", name);
+                ownedExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BatchLoaderExecutor{" + name + "}";
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+        private final String prefix;
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.rapidgraphql.dataloaders;
+
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Instrumentation SPI for data loaders.
+ * All data loaders created by {@link DataLoaderRegistryFactory} report to the metrics passed to the factory.
+ * Methods are called on the hot path, implementations should be cheap and thread safe.
+ * All methods have empty default implementation, so implementations can pick only what they need.
+ */
+public interface BatchLoaderMetrics {
+    BatchLoaderMetrics NOOP = new BatchLoaderMetrics() {};
+
+    enum CacheType {
+        /**
+         * Cache of futures (DataLoader CacheMap, e.g. {@link GuavaFutureCache})
+         */
+        FUTURE,
+        /**
+         * Cache of values (DataLoader ValueCache, e.g. {@link GuavaValueCache})
+         */
+        VALUE,
+        /**
+         * Shared cache checked before the request DataLoader, see {@link AbstractGraphQLBatchLoader#useTwoLevelCache}
+         */
+        SHARED,
+        /**
+         * Keys known to be absent, see {@link AbstractGraphQLBatchLoader#useNegativeCache}
+         */
+        NEGATIVE
+    }
+
+    enum CircuitState {
+        /**
+         * Batch loads are executed
+         */
+        CLOSED,
+        /**
+         * Single probe batch load is executed, other batch loads are rejected until it completes
+         */
+        HALF_OPEN,
+        /**
+         * Batch loads are rejected without calling the backend
+         */
+        OPEN
+    }
+
+    /**
+     * Called once for every data loader when the factory is created
+     * @param dataLoaderName - name of the data loader
+     * @param pendingKeys - number of keys requested from the data loader and waiting for the dispatch
+     */
+    default void registerDataLoader(String dataLoaderName, LongSupplier pendingKeys) {}
+
+    /**
+     * Called once for every data loader using adaptive batch size
+     * @param dataLoaderName - name of the data loader
+     * @param maxBatchSize - current maximum batch size
+     */
+    default void registerMaxBatchSize(String dataLoaderName, IntSupplier maxBatchSize) {}
+
+    /**
+     * Called once for every data loader using circuit breaker
+     * @param dataLoaderName - name of the data loader
+     * @param state - current state of the circuit breaker
+     */
+    default void registerCircuitBreaker(String dataLoaderName, Supplier<CircuitState> state) {}
+
+    /**
+     * Called once for every executor used by data loaders
+     * @param executor - executor running batch loads
+     */
+    default void registerExecutor(BatchLoaderExecutor executor) {}
+
+    /**
+     * Called when DataLoader dispatches keys
+     * @param dataLoaderName - name of the data loader
+     * @param delayNanos - time passed from the first load() call, which wasn't dispatched yet, until the dispatch
+     */
+    default void recordDispatchDelay(String dataLoaderName, long delayNanos) {}
+
+    /**
+     * Called when synchronous batch load completes
+     * @param dataLoaderName - name of the data loader
+     * @param batchSize - number of keys passed to the batch load
+     * @param durationNanos - duration of the batch load
+     * @param error - exception thrown by the batch load, null if succeeded
+     */
+    default void recordBatchLoad(String dataLoaderName, int batchSize, long durationNanos, Throwable error) {}
+
+    /**
+     * Called when batch load is skipped, because deadlines of all its keys passed, see {@link Deadline}
+     * @param dataLoaderName - name of the data loader
+     * @param batchSize - number of keys of the skipped batch
+     */
+    default void recordBatchSkipped(String dataLoaderName, int batchSize) {}
+
+    /**
+     * Called on every cache lookup
+     * @param dataLoaderName - name of the data loader
+     * @param cacheType - type of the cache
+     * @param hits - number of keys found in cache
+     * @param misses - number of keys not found in cache
+     */
+    default void recordCacheAccess(String dataLoaderName, CacheType cacheType, int hits, int misses) {}
+}
@@ -0,0 +1,38 @@
+package org.rapidgraphql.dataloaders;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Value cache accessed by whole batches, suitable for remote stores (e.g. Redis MGET / pipelined SET),
+ * where every call is a network round trip.
+ * DataLoader reads all keys of a dispatched batch with a single {@link #getAll(List)}
+ * and stores all loaded values with a single {@link #putAll(Map)}.
+ * Register it with {@link AbstractGraphQLBatchLoader#useBatchValueCache(BatchValueCache)}
+ */
+public interface BatchValueCache<K, V> {
+    /**
+     * @param keys - keys to look up
+     * @return future of the entries found in cache, missing keys are omitted
+     */
+    CompletableFuture<Map<K, V>> getAll(List<K> keys);
+
+    /**
+     * @param values - entries to store, never contains null values
+     * @return future completed when the entries are stored
+     */
+    CompletableFuture<Void> putAll(Map<K, V> values);
+
+    /**
+     * @param keys - keys to remove from cache
+     * @return future completed when the entries are removed
+     */
+    CompletableFuture<Void> deleteAll(Collection<K> keys);
+
+    /**
+     * @return future completed when all entries are removed
+     */
+    CompletableFuture<Void> clear();
+}
@@ -0,0 +1,74 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.Try;
+import org.dataloader.ValueCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Exposes {@link BatchValueCache} as DataLoader ValueCache: batch operations are mapped to single calls of the cache
+ */
+public class BatchValueCacheAdapter<K, V> implements ValueCache<K, V> {
+    private final BatchValueCache<K, V> cache;
+
+    public BatchValueCacheAdapter(BatchValueCache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key) {
+        return cache.getAll(List.of(key)).thenCompose(values -> {
+            V value = values.get(key);
+            return value == null ? GuavaValueCache.missingValue() : CompletableFuture.completedFuture(value);
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Try<V>>> getValues(List<K> keys) {
+        return cache.getAll(keys).thenApply(found -> {
+            List<Try<V>> values = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                V value = found.get(key);
+                values.add(value == null ? GuavaValueCache.missingTry() : Try.succeeded(value));
+            }
+            return values;
+        });
+    }
+
+    @Override
+    public CompletableFuture<V> set(K key, V value) {
+        if (value == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return cache.putAll(Map.of(key, value)).thenApply(ignored -> value);
+    }
+
+    @Override
+    public CompletableFuture<List<V>> setValues(List<K> keys, List<V> values) {
+        Map<K, V> entries = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            V value = values.get(i);
+            if (value != null) {
+                entries.put(keys.get(i), value);
+            }
+        }
+        if (entries.isEmpty()) {
+            return CompletableFuture.completedFuture(values);
+        }
+        return cache.putAll(entries).thenApply(ignored -> values);
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(K key) {
+        return cache.deleteAll(List.of(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> clear() {
+        return cache.clear();
+    }
+}
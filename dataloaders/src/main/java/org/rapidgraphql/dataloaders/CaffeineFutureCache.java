@@ -0,0 +1,53 @@
+package org.rapidgraphql.dataloaders;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.dataloader.CacheMap;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * CacheMap backed by Caffeine AsyncCache.
+ * Futures completed exceptionally are removed from the cache by Caffeine, so failed loads are retried.
+ */
+public class CaffeineFutureCache<K, V> implements CacheMap<K, V> {
+    private final AsyncCache<K, V> cache;
+
+    public CaffeineFutureCache(AsyncCache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return cache.getIfPresent(key) != null;
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public Collection<CompletableFuture<V>> getAll() {
+        return List.copyOf(cache.asMap().values());
+    }
+
+    @Override
+    public CacheMap<K, V> set(K key, CompletableFuture<V> value) {
+        cache.put(key, value);
+        return this;
+    }
+
+    @Override
+    public CacheMap<K, V> delete(K key) {
+        cache.synchronous().invalidate(key);
+        return this;
+    }
+
+    @Override
+    public CacheMap<K, V> clear() {
+        cache.synchronous().invalidateAll();
+        return this;
+    }
+}
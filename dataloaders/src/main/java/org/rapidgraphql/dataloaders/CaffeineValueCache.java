@@ -0,0 +1,97 @@
+package org.rapidgraphql.dataloaders;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.dataloader.Try;
+import org.dataloader.ValueCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ValueCache backed by Caffeine AsyncCache.
+ * When the cache is AsyncLoadingCache with refreshAfterWrite, stale values are returned while being reloaded.
+ */
+public class CaffeineValueCache<K, V> implements ValueCache<K, V> {
+    private final AsyncCache<K, V> cache;
+
+    public CaffeineValueCache(AsyncCache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key) {
+        CompletableFuture<V> value = cache.getIfPresent(key);
+        return value == null ? GuavaValueCache.missingValue() : value;
+    }
+
+    /**
+     * Looks up all keys at once, DataLoader calls it on dispatch instead of get() per key.
+     * Completed entries are returned immediately, only entries being loaded are waited for
+     */
+    @Override
+    public CompletableFuture<List<Try<V>>> getValues(List<K> keys) {
+        List<Try<V>> values = new ArrayList<>(keys.size());
+        List<CompletableFuture<Void>> pending = null;
+        for (K key : keys) {
+            CompletableFuture<V> value = cache.getIfPresent(key);
+            if (value == null || value.isCompletedExceptionally()) {
+                values.add(GuavaValueCache.missingTry());
+            } else if (value.isDone()) {
+                V loaded = value.join();
+                values.add(loaded == null ? GuavaValueCache.missingTry() : Try.succeeded(loaded));
+            } else {
+                if (pending == null) {
+                    pending = new ArrayList<>();
+                }
+                int index = values.size();
+                values.add(GuavaValueCache.missingTry());
+                pending.add(value.handle((loaded, error) -> {
+                    if (error == null && loaded != null) {
+                        values.set(index, Try.succeeded(loaded));
+                    }
+                    return null;
+                }));
+            }
+        }
+        if (pending == null) {
+            return CompletableFuture.completedFuture(values);
+        }
+        return CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).thenApply(ignored -> values);
+    }
+
+    @Override
+    public CompletableFuture<V> set(K key, V value) {
+        CompletableFuture<V> future = CompletableFuture.completedFuture(value);
+        if (value != null) {
+            cache.put(key, future);
+        }
+        return future;
+    }
+
+    /**
+     * Stores all loaded values at once, null values aren't cached
+     */
+    @Override
+    public CompletableFuture<List<V>> setValues(List<K> keys, List<V> values) {
+        for (int i = 0; i < keys.size(); i++) {
+            V value = values.get(i);
+            if (value != null) {
+                cache.put(keys.get(i), CompletableFuture.completedFuture(value));
+            }
+        }
+        return CompletableFuture.completedFuture(values);
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(K key) {
+        cache.synchronous().invalidate(key);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> clear() {
+        cache.synchronous().invalidateAll();
+        return CompletableFuture.completedFuture(null);
+    }
+}
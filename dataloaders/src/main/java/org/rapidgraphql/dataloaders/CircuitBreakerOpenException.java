@@ -0,0 +1,11 @@
+package org.rapidgraphql.dataloaders;
+
+/**
+ * Batch load was rejected without calling the backend, because circuit breaker of the data loader is open
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+    public CircuitBreakerOpenException(String dataLoaderName) {
+        // thrown for every rejected batch, stack trace isn't useful
+        super("Circuit breaker of data loader " + dataLoaderName + " is open", null, false, false);
+    }
+}
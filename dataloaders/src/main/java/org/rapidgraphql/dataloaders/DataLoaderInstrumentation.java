@@ -0,0 +1,296 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.Try;
+import org.dataloader.ValueCache;
+import org.dataloader.stats.Statistics;
+import org.dataloader.stats.StatisticsCollector;
+import org.dataloader.stats.context.IncrementBatchLoadCountByStatisticsContext;
+import org.dataloader.stats.context.IncrementBatchLoadExceptionCountStatisticsContext;
+import org.dataloader.stats.context.IncrementCacheHitCountStatisticsContext;
+import org.dataloader.stats.context.IncrementLoadCountStatisticsContext;
+import org.dataloader.stats.context.IncrementLoadErrorCountStatisticsContext;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Reports events of single data loader (all DataLoader instances created for it) to {@link BatchLoaderMetrics}
+ */
+final class DataLoaderInstrumentation {
+
+    private final String dataLoaderName;
+    // DataLoaders created for the loader, per request DataLoaders are dropped once they are garbage collected,
+    // so keys of requests which never dispatched them don't stay pending forever
+    private final Set<DataLoader<?, ?>> dataLoaders = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private final LongAdder[] cacheHits = newCounters();
+    private final LongAdder[] cacheMisses = newCounters();
+    private volatile BatchLoaderMetrics metrics = BatchLoaderMetrics.NOOP;
+    private volatile AdaptiveBatchSize adaptiveBatchSize;
+    private volatile BatchLoadGuard batchLoadGuard;
+
+    DataLoaderInstrumentation(String dataLoaderName) {
+        this.dataLoaderName = dataLoaderName;
+    }
+
+    void setMetrics(BatchLoaderMetrics metrics) {
+        this.metrics = metrics;
+        metrics.registerDataLoader(dataLoaderName, this::getPendingKeys);
+        AdaptiveBatchSize batchSize = adaptiveBatchSize;
+        if (batchSize != null) {
+            metrics.registerMaxBatchSize(dataLoaderName, batchSize::getCurrent);
+        }
+        BatchLoadGuard guard = batchLoadGuard;
+        if (guard != null && guard.hasCircuitBreaker()) {
+            metrics.registerCircuitBreaker(dataLoaderName, guard::getState);
+        }
+    }
+
+    void register(DataLoader<?, ?> dataLoader) {
+        dataLoaders.add(dataLoader);
+    }
+
+    /**
+     * @return number of keys waiting for the dispatch in all live DataLoaders of the loader
+     */
+    long getPendingKeys() {
+        long pendingKeys = 0;
+        synchronized (dataLoaders) {
+            for (DataLoader<?, ?> dataLoader : dataLoaders) {
+                pendingKeys += dataLoader.dispatchDepth();
+            }
+        }
+        return pendingKeys;
+    }
+
+    void setAdaptiveBatchSize(AdaptiveBatchSize adaptiveBatchSize) {
+        this.adaptiveBatchSize = adaptiveBatchSize;
+    }
+
+    void setBatchLoadGuard(BatchLoadGuard batchLoadGuard) {
+        this.batchLoadGuard = batchLoadGuard;
+    }
+
+    void recordBatchSkipped(int batchSize) {
+        metrics.recordBatchSkipped(dataLoaderName, batchSize);
+    }
+
+    BatchLoaderMetrics getMetrics() {
+        return metrics;
+    }
+
+    void recordCacheAccess(BatchLoaderMetrics.CacheType cacheType, int hits, int misses) {
+        if (hits > 0) {
+            cacheHits[cacheType.ordinal()].add(hits);
+        }
+        if (misses > 0) {
+            cacheMisses[cacheType.ordinal()].add(misses);
+        }
+        metrics.recordCacheAccess(dataLoaderName, cacheType, hits, misses);
+    }
+
+    long getCacheHitCount(BatchLoaderMetrics.CacheType cacheType) {
+        return cacheHits[cacheType.ordinal()].sum();
+    }
+
+    long getCacheMissCount(BatchLoaderMetrics.CacheType cacheType) {
+        return cacheMisses[cacheType.ordinal()].sum();
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[BatchLoaderMetrics.CacheType.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * Installs statistics collector reporting dispatch delays and future cache hits into the options.
+     * Statistics collected by DataLoader itself are kept by the collector, which was configured before.
+     * Called before every DataLoader creation, so collector configured after the previous call is instrumented too,
+     * collector which is already instrumented is kept.
+     * Dispatched keys are reported as future cache misses only while caching of the options is enabled
+     */
+    synchronized void instrument(DataLoaderOptions options) {
+        if (options.getStatisticsCollector() instanceof InstrumentedStatisticsCollector) {
+            return;
+        }
+        DataLoaderOptions delegateOptions = new DataLoaderOptions(options);
+        options.setStatisticsCollector(() -> new InstrumentedStatisticsCollector(delegateOptions.getStatisticsCollector(), options));
+    }
+
+    <K, V> ValueCache<K, V> instrument(ValueCache<K, V> valueCache) {
+        return new InstrumentedValueCache<>(valueCache);
+    }
+
+    /**
+     * Runs synchronous batch load and reports its duration
+     */
+    <R> R recordBatchLoad(int batchSize, Supplier<R> batchLoad) {
+        long start = System.nanoTime();
+        try {
+            R result = batchLoad.get();
+            onBatchLoad(batchSize, System.nanoTime() - start, null);
+            return result;
+        } catch (RuntimeException | Error e) {
+            onBatchLoad(batchSize, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    private void onBatchLoad(int batchSize, long durationNanos, Throwable error) {
+        metrics.recordBatchLoad(dataLoaderName, batchSize, durationNanos, error);
+        AdaptiveBatchSize adaptive = adaptiveBatchSize;
+        if (adaptive != null) {
+            adaptive.onBatchLoad(batchSize, durationNanos, error != null);
+        }
+    }
+
+    private class InstrumentedStatisticsCollector implements StatisticsCollector {
+        private final StatisticsCollector delegate;
+        private final DataLoaderOptions options;
+        private final AtomicLong firstPendingLoadNanos = new AtomicLong();
+
+        InstrumentedStatisticsCollector(StatisticsCollector delegate, DataLoaderOptions options) {
+            this.delegate = delegate;
+            this.options = options;
+        }
+
+        @Override
+        public <K> long incrementLoadCount(IncrementLoadCountStatisticsContext<K> context) {
+            onLoad();
+            return delegate.incrementLoadCount(context);
+        }
+
+        @Override
+        public long incrementLoadCount() {
+            onLoad();
+            return delegate.incrementLoadCount();
+        }
+
+        @Override
+        public <K> long incrementLoadErrorCount(IncrementLoadErrorCountStatisticsContext<K> context) {
+            return delegate.incrementLoadErrorCount(context);
+        }
+
+        @Override
+        public long incrementLoadErrorCount() {
+            return delegate.incrementLoadErrorCount();
+        }
+
+        @Override
+        public <K> long incrementBatchLoadCountBy(long delta, IncrementBatchLoadCountByStatisticsContext<K> context) {
+            onDispatch(delta);
+            return delegate.incrementBatchLoadCountBy(delta, context);
+        }
+
+        @Override
+        public long incrementBatchLoadCountBy(long delta) {
+            onDispatch(delta);
+            return delegate.incrementBatchLoadCountBy(delta);
+        }
+
+        @Override
+        public <K> long incrementBatchLoadExceptionCount(IncrementBatchLoadExceptionCountStatisticsContext<K> context) {
+            return delegate.incrementBatchLoadExceptionCount(context);
+        }
+
+        @Override
+        public long incrementBatchLoadExceptionCount() {
+            return delegate.incrementBatchLoadExceptionCount();
+        }
+
+        @Override
+        public <K> long incrementCacheHitCount(IncrementCacheHitCountStatisticsContext<K> context) {
+            onCacheHit();
+            return delegate.incrementCacheHitCount(context);
+        }
+
+        @Override
+        public long incrementCacheHitCount() {
+            onCacheHit();
+            return delegate.incrementCacheHitCount();
+        }
+
+        @Override
+        public Statistics getStatistics() {
+            return delegate.getStatistics();
+        }
+
+        private void onLoad() {
+            if (firstPendingLoadNanos.get() == 0) {
+                firstPendingLoadNanos.compareAndSet(0, System.nanoTime());
+            }
+        }
+
+        private void onCacheHit() {
+            recordCacheAccess(BatchLoaderMetrics.CacheType.FUTURE, 1, 0);
+        }
+
+        private void onDispatch(long keys) {
+            long firstPendingLoad = firstPendingLoadNanos.getAndSet(0);
+            if (firstPendingLoad != 0) {
+                metrics.recordDispatchDelay(dataLoaderName, System.nanoTime() - firstPendingLoad);
+            }
+            // without caching every key is dispatched, there is no future cache to miss
+            if (options.cachingEnabled()) {
+                recordCacheAccess(BatchLoaderMetrics.CacheType.FUTURE, 0, (int) keys);
+            }
+        }
+    }
+
+    private class InstrumentedValueCache<K, V> implements ValueCache<K, V> {
+        private final ValueCache<K, V> delegate;
+
+        InstrumentedValueCache(ValueCache<K, V> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletableFuture<V> get(K key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        public CompletableFuture<List<Try<V>>> getValues(List<K> keys) throws ValueCachingNotSupported {
+            return delegate.getValues(keys).thenApply(values -> {
+                int hits = 0;
+                for (Try<V> value : values) {
+                    if (value.isSuccess()) {
+                        hits++;
+                    }
+                }
+                recordCacheAccess(BatchLoaderMetrics.CacheType.VALUE, hits, values.size() - hits);
+                return values;
+            });
+        }
+
+        @Override
+        public CompletableFuture<V> set(K key, V value) {
+            return delegate.set(key, value);
+        }
+
+        @Override
+        public CompletableFuture<List<V>> setValues(List<K> keys, List<V> values) throws ValueCachingNotSupported {
+            return delegate.setValues(keys, values);
+        }
+
+        @Override
+        public CompletableFuture<Void> delete(K key) {
+            return delegate.delete(key);
+        }
+
+        @Override
+        public CompletableFuture<Void> clear() {
+            return delegate.clear();
+        }
+    }
+}
@@ -36,4 +36,12 @@ public interface DataLoaderRegistrar<K, T> {
     default boolean isScheduled() {
         return false;
     }
+
+    /**
+     * Called once by {@link DataLoaderRegistryFactory} when it is created.
+     * Allows registrar to pick up factory wide defaults, e.g. the executor used for batch loads
+     * @param factory - factory which the registrar belongs to
+     */
+    default void configure(DataLoaderRegistryFactory factory) {
+    }
 }
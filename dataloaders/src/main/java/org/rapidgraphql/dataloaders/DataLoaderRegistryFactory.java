@@ -10,6 +10,7 @@ import java.lang.reflect.Method;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -28,12 +29,44 @@ public class DataLoaderRegistryFactory implements AutoCloseable {
     private boolean closed = false;
     private final Set<String> scheduledDataLoaders;
     private final DispatchPredicate dispatchPredicate;
+    private final BatchLoaderExecutor defaultExecutor;
+    private final BatchLoaderMetrics metrics;
 
     public DataLoaderRegistryFactory(List<? extends GraphQLDataLoader> dataLoaders) {
         this(dataLoaders, DEFAULT_RESCHEDULE_INTERVAL_IN_MILLIS, DEFAULT_SCHEDULER_POOL_SIZE);
     }
     public DataLoaderRegistryFactory(List<? extends GraphQLDataLoader> dataLoaders,
                                      long rescheduleIntervalInMillis, int schedulerPoolSize) {
+        this(dataLoaders, rescheduleIntervalInMillis, schedulerPoolSize, BatchLoaderExecutor.commonPool());
+    }
+
+    /**
+     * @param dataLoaders - data loaders to register
+     * @param rescheduleIntervalInMillis - how often scheduled data loaders check dispatch conditions
+     * @param schedulerPoolSize - number of threads checking dispatch conditions of scheduled data loaders
+     * @param defaultExecutor - executor running batch loads of data loaders which didn't define own executor.
+     *                        The executor isn't closed by the factory
+     */
+    public DataLoaderRegistryFactory(List<? extends GraphQLDataLoader> dataLoaders,
+                                     long rescheduleIntervalInMillis, int schedulerPoolSize,
+                                     BatchLoaderExecutor defaultExecutor) {
+        this(dataLoaders, rescheduleIntervalInMillis, schedulerPoolSize, defaultExecutor, BatchLoaderMetrics.NOOP);
+    }
+
+    /**
+     * @param dataLoaders - data loaders to register
+     * @param rescheduleIntervalInMillis - how often scheduled data loaders check dispatch conditions
+     * @param schedulerPoolSize - number of threads checking dispatch conditions of scheduled data loaders
+     * @param defaultExecutor - executor running batch loads of data loaders which didn't define own executor.
+     *                        The executor isn't closed by the factory
+     * @param metrics - metrics all data loaders report to
+     */
+    public DataLoaderRegistryFactory(List<? extends GraphQLDataLoader> dataLoaders,
+                                     long rescheduleIntervalInMillis, int schedulerPoolSize,
+                                     BatchLoaderExecutor defaultExecutor, BatchLoaderMetrics metrics) {
+        this.defaultExecutor = defaultExecutor;
+        this.metrics = metrics;
+        metrics.registerExecutor(defaultExecutor);
         for(GraphQLDataLoader graphQLDataLoader: dataLoaders) {
             if (graphQLDataLoader instanceof DataLoaderRegistrar) {
                 registrars.add((DataLoaderRegistrar)graphQLDataLoader);
@@ -44,6 +77,7 @@ public class DataLoaderRegistryFactory implements AutoCloseable {
                         .forEach(registrars::add);
             }
         }
+        registrars.forEach(registrar -> registrar.configure(this));
         createScheduledLoader = registrars.stream().anyMatch(DataLoaderRegistrar::isScheduled);
         scheduleDuration = Duration.ofMillis(rescheduleIntervalInMillis);
         if (createScheduledLoader) {
@@ -79,6 +113,20 @@ public class DataLoaderRegistryFactory implements AutoCloseable {
         return dataLoaderRegistry;
     }
 
+    /**
+     * @return executor running batch loads of data loaders which didn't define own executor
+     */
+    public BatchLoaderExecutor getDefaultExecutor() {
+        return defaultExecutor;
+    }
+
+    /**
+     * @return metrics all data loaders report to
+     */
+    public BatchLoaderMetrics getMetrics() {
+        return metrics;
+    }
+
     private String getDataLoaderName(Method method) {
         return method.getAnnotation(DataLoaderMethod.class).value();
     }
@@ -86,9 +134,9 @@ public class DataLoaderRegistryFactory implements AutoCloseable {
     private DataLoaderRegistrar createRegistrar(Method method, GraphQLDataLoader dataLoader) {
         String dataLoaderName = getDataLoaderName(method);
         if (method.getReturnType().equals(List.class)) {
-            return new BatchLoaderMethod(dataLoaderName, dataLoader, method);
+            return new BatchLoaderMethod(dataLoaderName, dataLoader, method, defaultExecutor);
         } else if (method.getReturnType().equals(Map.class)) {
-            return new MappedBatchLoaderMethod(dataLoaderName, dataLoader, method);
+            return new MappedBatchLoaderMethod(dataLoaderName, dataLoader, method, defaultExecutor);
         }
         LOGGER.error("Cannot create dataloader {} from method {}.{}, invalid return type {}",
                 dataLoaderName, method.getDeclaringClass().getSimpleName(), method.getName(), method.getReturnType().getSimpleName());
@@ -131,38 +179,91 @@ public class DataLoaderRegistryFactory implements AutoCloseable {
         return method.isAnnotationPresent(DataLoaderMethod.class);
     }
 
+    private static BatchLoadGuard createGuard(String name, Method method) {
+        BatchLoadGuard guard = new BatchLoadGuard(name);
+        DataLoaderMethod annotation = method.getAnnotation(DataLoaderMethod.class);
+        if (annotation != null) {
+            if (annotation.timeoutMillis() > 0) {
+                guard.setTimeout(Duration.ofMillis(annotation.timeoutMillis()));
+            }
+            if (annotation.circuitBreakerThreshold() > 0) {
+                guard.useCircuitBreaker(annotation.circuitBreakerThreshold(),
+                        Duration.ofMillis(annotation.circuitBreakerOpenMillis()));
+            }
+        }
+        return guard;
+    }
+
+    private static int getBisectRetries(Method method) {
+        DataLoaderMethod annotation = method.getAnnotation(DataLoaderMethod.class);
+        return annotation != null ? annotation.bisectRetries() : 0;
+    }
+
+    private static void logFailure(Throwable error) {
+        if (error == null) {
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CircuitBreakerOpenException) {
+            LOGGER.debug(cause.getMessage());
+        } else {
+            LOGGER.error("Method invocation error", cause);
+        }
+    }
+
     public static class BatchLoaderMethod implements BatchLoader<Object, Object>, DataLoaderRegistrar<Object, Object> {
-        private final GraphQLDataLoader graphQLDataLoader;
-        private final Method method;
+        private final Function<List<Object>, List<Object>> invoker;
         private final String name;
+        private final BatchLoaderExecutor executor;
+        private final DataLoaderInstrumentation instrumentation;
+        private final BatchLoadGuard guard;
+        private final int bisectRetries;
+        private final DataLoaderOptions options = DataLoaderOptions.newOptions();
 
         public BatchLoaderMethod(String name, GraphQLDataLoader graphQLDataLoader, Method method) {
+            this(name, graphQLDataLoader, method, BatchLoaderExecutor.commonPool());
+        }
+
+        public BatchLoaderMethod(String name, GraphQLDataLoader graphQLDataLoader, Method method, BatchLoaderExecutor executor) {
             LOGGER.info("Registered batch dataloader {} for method {}.{}",
                     name, method.getDeclaringClass().getSimpleName(), method.getName());
             this.name = name;
-            this.graphQLDataLoader = graphQLDataLoader;
-            this.method = method;
+            this.invoker = MethodInvokers.bind(graphQLDataLoader, method);
+            this.executor = executor;
+            this.instrumentation = new DataLoaderInstrumentation(name);
+            instrumentation.instrument(options);
+            this.guard = createGuard(name, method);
+            instrumentation.setBatchLoadGuard(guard);
+            this.bisectRetries = getBisectRetries(method);
+        }
+
+        @Override
+        public void configure(DataLoaderRegistryFactory factory) {
+            instrumentation.setMetrics(factory.getMetrics());
         }
 
         @Override
         public CompletionStage<List<Object>> load(List<Object> keys) {
-            return CompletableFuture.supplyAsync(() -> invoke(keys));
+            return guard.run(() -> executor.supplyAsync(() -> invoke(keys)))
+                    .whenComplete((values, error) -> logFailure(error));
         }
 
         private List<Object> invoke(List<Object> keys) {
-            try {
-                return (List<Object>)method.invoke(graphQLDataLoader, keys);
-            } catch (Exception e) {
-                LOGGER.error("Method invocation error", e);
-                Object[] arr = new Object[keys.size()];
-                Arrays.fill(arr, null);
-                return Arrays.asList(arr);
-            }
+            return new BatchBisector<Object, List<Object>>(
+                    batch -> instrumentation.recordBatchLoad(batch.size(), () -> invoker.apply(batch)),
+                    (batch, error) -> Collections.nCopies(batch.size(), Try.failed(error)),
+                    (left, right) -> {
+                        List<Object> values = new ArrayList<>(left.size() + right.size());
+                        values.addAll(left);
+                        values.addAll(right);
+                        return values;
+                    },
+                    bisectRetries).load(keys);
         }
 
         @Override
         public DataLoader<Object, Object> registerIn(DataLoaderRegistry dataLoaderRegistry) {
-            DataLoader<Object, Object> dataLoader = DataLoaderFactory.newDataLoader(this);
+            DataLoader<Object, Object> dataLoader = DataLoaderFactory.newDataLoader(this, options);
             dataLoaderRegistry.register(name, dataLoader);
             return dataLoader;
         }
@@ -174,34 +275,62 @@ public class DataLoaderRegistryFactory implements AutoCloseable {
     }
     public static class MappedBatchLoaderMethod implements MappedBatchLoader<Object, Object>, DataLoaderRegistrar<Object, Object> {
         private final String name;
-        private final GraphQLDataLoader graphQLDataLoader;
-        private final Method method;
+        private final Function<Set<Object>, Map<Object, Object>> invoker;
+        private final BatchLoaderExecutor executor;
+        private final DataLoaderInstrumentation instrumentation;
+        private final BatchLoadGuard guard;
+        private final int bisectRetries;
+        private final DataLoaderOptions options = DataLoaderOptions.newOptions();
 
         public MappedBatchLoaderMethod(String name, GraphQLDataLoader graphQLDataLoader, Method method) {
+            this(name, graphQLDataLoader, method, BatchLoaderExecutor.commonPool());
+        }
+
+        public MappedBatchLoaderMethod(String name, GraphQLDataLoader graphQLDataLoader, Method method, BatchLoaderExecutor executor) {
             LOGGER.info("Registered mapped batch dataloader {} for method {}.{}",
                     name, method.getDeclaringClass().getSimpleName(), method.getName());
             this.name = name;
-            this.graphQLDataLoader = graphQLDataLoader;
-            this.method = method;
+            this.invoker = MethodInvokers.bind(graphQLDataLoader, method);
+            this.executor = executor;
+            this.instrumentation = new DataLoaderInstrumentation(name);
+            instrumentation.instrument(options);
+            this.guard = createGuard(name, method);
+            instrumentation.setBatchLoadGuard(guard);
+            this.bisectRetries = getBisectRetries(method);
+        }
+
+        @Override
+        public void configure(DataLoaderRegistryFactory factory) {
+            instrumentation.setMetrics(factory.getMetrics());
         }
 
         @Override
         public CompletionStage<Map<Object,Object>> load(Set<Object> keys) {
-            return CompletableFuture.supplyAsync(() -> invoke(keys));
+            return guard.run(() -> executor.supplyAsync(() -> invoke(keys)))
+                    .whenComplete((values, error) -> logFailure(error));
         }
 
-        private Map<Object,Object> invoke(Set<Object> keys) {
-            try {
-                return (Map<Object, Object>)method.invoke(graphQLDataLoader, keys);
-            } catch (Exception e) {
-                LOGGER.error("Method invocation error", e);
-                return Map.of();
-            }
+        private Map<Object, Object> invoke(Set<Object> keys) {
+            return new BatchBisector<Object, Map<Object, Object>>(
+                    batch -> instrumentation.recordBatchLoad(batch.size(),
+                            () -> invoker.apply(batch.size() == keys.size() ? keys : new HashSet<>(batch))),
+                    (batch, error) -> {
+                        Try<Object> failed = Try.failed(error);
+                        Map<Object, Object> values = new HashMap<>();
+                        batch.forEach(key -> values.put(key, failed));
+                        return values;
+                    },
+                    (left, right) -> {
+                        Map<Object, Object> values = new HashMap<>(left);
+                        values.putAll(right);
+                        return values;
+                    },
+                    bisectRetries).load(new ArrayList<>(keys));
         }
 
         @Override
         public DataLoader<Object, Object> registerIn(DataLoaderRegistry dataLoaderRegistry) {
-            DataLoader<Object, Object> dataLoader = DataLoaderFactory.newMappedDataLoader(this);
+            DataLoader<Object, Object> dataLoader = DataLoaderFactory.newMappedDataLoader(this, options);
             dataLoaderRegistry.register(name, dataLoader);
             return dataLoader;
         }
@@ -0,0 +1,122 @@
+package org.rapidgraphql.dataloaders;
+
+import graphql.GraphQLContext;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Point in time by which the GraphQL request needs its values.
+ * Put into GraphQLContext under Deadline.class key (see {@link #from}) it is passed by
+ * {@link AbstractGraphQLBatchLoader#get} to DataLoader as key context of the requested keys.
+ * Batch deadline is the latest deadline of its keys, batch having key without deadline has no deadline.
+ * Batch whose deadline passed before the batch load started is skipped: its keys fail with
+ * {@link DeadlineExceededException}. Synchronous batch load can read remaining budget by {@link #current()}
+ * <code>
+ *     public List&lt;Product&gt; syncLoad(List&lt;Long&gt; keys) {
+ *         Deadline deadline = Deadline.current();
+ *         return productClient.getProducts(keys, deadline == null ? DEFAULT_TIMEOUT : deadline.remaining());
+ *     }
+ * </code>
+ */
+public final class Deadline {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long nanoTime;
+
+    private Deadline(long nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @param timeout - time left from now
+     * @return deadline which passes after the timeout
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * @param env - DataFetchingEnvironment of the request
+     * @return deadline of the request, null if the request has no deadline
+     */
+    public static Deadline from(DataFetchingEnvironment env) {
+        GraphQLContext context = env.getGraphQlContext();
+        return context == null ? null : context.get(Deadline.class);
+    }
+
+    /**
+     * @return deadline of the batch load running on the current thread, null if the batch has no deadline
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return time left until the deadline, zero if the deadline passed
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, remainingNanos()));
+    }
+
+    /**
+     * @return nanoseconds left until the deadline, negative if the deadline passed
+     */
+    public long remainingNanos() {
+        return nanoTime - System.nanoTime();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * @param keyContexts - key contexts of the batch
+     * @return the latest deadline of the keys, null if any of the keys has no deadline
+     */
+    static Deadline latest(List<Object> keyContexts) {
+        if (keyContexts == null || keyContexts.isEmpty()) {
+            return null;
+        }
+        Deadline latest = null;
+        for (Object keyContext : keyContexts) {
+            Deadline deadline = of(keyContext);
+            if (deadline == null) {
+                return null;
+            }
+            if (latest == null || deadline.nanoTime - latest.nanoTime > 0) {
+                latest = deadline;
+            }
+        }
+        return latest;
+    }
+
+    private static Deadline of(Object keyContext) {
+        if (keyContext instanceof Deadline deadline) {
+            return deadline;
+        }
+        if (keyContext instanceof KeyContext context) {
+            return context.deadline();
+        }
+        return null;
+    }
+
+    /**
+     * Runs batch load making the deadline available by {@link #current()}
+     */
+    static <R> R runWith(Deadline deadline, Supplier<R> batchLoad) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            return batchLoad.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.rapidgraphql.dataloaders;
+
+/**
+ * Batch load was skipped, because deadlines of all its keys passed before it started, see {@link Deadline}
+ */
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String dataLoaderName) {
+        // thrown for every skipped batch, stack trace isn't useful
+        super("Deadline of batch load of data loader " + dataLoaderName + " exceeded", null, false, false);
+    }
+}
@@ -0,0 +1,150 @@
+package org.rapidgraphql.dataloaders;
+
+import org.slf4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Single thread hashed timer wheel driving dispatch windows of all data loaders.
+ * The thread wakes up once per tick only while there are scheduled tasks, when the wheel is empty it parks
+ * until the next task is scheduled, so idle data loaders cost no CPU.
+ * Tasks are executed in the ticker thread and should be short (e.g. DataLoader dispatch which hands keys to the executor)
+ */
+final class DispatchTicker {
+    private static final Logger LOGGER = getLogger(DispatchTicker.class);
+    private static final long DEFAULT_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static volatile DispatchTicker defaultTicker;
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Timeout>[] wheel;
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean idle = new AtomicBoolean();
+    private final Thread thread;
+    private int scheduledTimeouts;
+    private long startNanos;
+    private long tick;
+
+    private static final class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long remainingRounds;
+
+        Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    DispatchTicker(String name, long tickNanos, int wheelSize) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize should be power of 2");
+        }
+        this.tickNanos = tickNanos;
+        this.mask = wheelSize - 1;
+        this.wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return ticker shared by all data loaders, started on first use
+     */
+    static DispatchTicker getDefault() {
+        DispatchTicker ticker = defaultTicker;
+        if (ticker == null) {
+            synchronized (DispatchTicker.class) {
+                ticker = defaultTicker;
+                if (ticker == null) {
+                    ticker = new DispatchTicker("rapidgraphql-dispatch-ticker", DEFAULT_TICK_NANOS, DEFAULT_WHEEL_SIZE);
+                    defaultTicker = ticker;
+                }
+            }
+        }
+        return ticker;
+    }
+
+    /**
+     * Runs the task in the ticker thread after the delay, rounded up to the tick
+     * @param task - task to run
+     * @param delayNanos - delay
+     */
+    void schedule(Runnable task, long delayNanos) {
+        newTimeouts.add(new Timeout(task, System.nanoTime() + Math.max(delayNanos, 0)));
+        if (idle.get()) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        startNanos = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            if (scheduledTimeouts == 0 && newTimeouts.isEmpty()) {
+                parkUntilScheduled();
+            }
+            long tickDeadline = startNanos + (tick + 1) * tickNanos;
+            long sleepNanos = tickDeadline - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+                continue;
+            }
+            transferNewTimeouts();
+            expireTimeouts(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void parkUntilScheduled() {
+        idle.set(true);
+        while (newTimeouts.isEmpty() && !Thread.currentThread().isInterrupted()) {
+            LockSupport.park(this);
+        }
+        idle.set(false);
+        // restart ticks from now, idle period isn't replayed
+        startNanos = System.nanoTime();
+        tick = 0;
+    }
+
+    private void transferNewTimeouts() {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            long deadlineTick = Math.max((timeout.deadlineNanos - startNanos + tickNanos - 1) / tickNanos - 1, tick);
+            timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+            wheel[(int) (deadlineTick & mask)].add(timeout);
+            scheduledTimeouts++;
+        }
+    }
+
+    private void expireTimeouts(Queue<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                continue;
+            }
+            iterator.remove();
+            scheduledTimeouts--;
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                LOGGER.error("Dispatch task failed", e);
+            }
+        }
+    }
+}
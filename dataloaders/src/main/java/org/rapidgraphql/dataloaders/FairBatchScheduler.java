@@ -0,0 +1,113 @@
+package org.rapidgraphql.dataloaders;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Limits number of concurrently running batch loads of a data loader.
+ * Excess batches are queued per source (DataLoader which dispatched them, i.e. request)
+ * and started round-robin across sources, so one request with many batches can't monopolise the loader.
+ * Queued batches are started by a loop of the thread which freed the slot, batch completing synchronously
+ * (e.g. executor running it in the caller thread) doesn't start the next one recursively.
+ * {@link BatchLoadGuard} is applied when the batch starts, time spent in the queue doesn't count towards its timeout.
+ * Batch completed while queued (e.g. cancelled by its caller) is dropped without starting.
+ */
+final class FairBatchScheduler {
+    private final int maxConcurrentBatches;
+    // guarded by this, sources in round-robin order
+    private final Map<Object, ArrayDeque<Runnable>> queues = new LinkedHashMap<>();
+    private int running;
+    // a thread is starting queued batches
+    private boolean starting;
+
+    FairBatchScheduler(int maxConcurrentBatches) {
+        if (maxConcurrentBatches <= 0) {
+            throw new IllegalArgumentException("maxConcurrentBatches should be positive");
+        }
+        this.maxConcurrentBatches = maxConcurrentBatches;
+    }
+
+    /**
+     * @param source - source of the batch, batches of different sources are started round-robin
+     * @param guard - timeout and circuit breaker applied to the batch load once it starts
+     * @param batch - starts batch load
+     * @return future completed with the batch load result
+     */
+    <R> CompletableFuture<R> submit(Object source, BatchLoadGuard guard, Supplier<CompletableFuture<R>> batch) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            if (result.isDone()) {
+                release();
+                return;
+            }
+            AtomicReference<CompletableFuture<R>> load = new AtomicReference<>();
+            CompletableFuture<R> guarded = guard.run(() -> {
+                load.set(batch.get());
+                return load.get();
+            });
+            // the slot is kept until the load completes, also when the guard timed it out;
+            // batch which the guard didn't let through (or failed to start) frees it right away
+            CompletableFuture<R> started = load.get();
+            (started != null ? started : guarded).whenComplete((value, error) -> release());
+            guarded.whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        };
+        synchronized (this) {
+            queues.computeIfAbsent(source, key -> new ArrayDeque<>()).add(start);
+            if (starting) {
+                return result;
+            }
+            starting = true;
+        }
+        startQueued();
+        return result;
+    }
+
+    synchronized int getQueuedCount() {
+        return queues.values().stream().mapToInt(ArrayDeque::size).sum();
+    }
+
+    private void release() {
+        synchronized (this) {
+            running--;
+            if (starting) {
+                // the starting thread sees the free slot
+                return;
+            }
+            starting = true;
+        }
+        startQueued();
+    }
+
+    private void startQueued() {
+        while (true) {
+            Runnable next;
+            synchronized (this) {
+                Iterator<Map.Entry<Object, ArrayDeque<Runnable>>> iterator = queues.entrySet().iterator();
+                if (running >= maxConcurrentBatches || !iterator.hasNext()) {
+                    starting = false;
+                    return;
+                }
+                running++;
+                Map.Entry<Object, ArrayDeque<Runnable>> first = iterator.next();
+                next = first.getValue().poll();
+                iterator.remove();
+                if (!first.getValue().isEmpty()) {
+                    // move the source to the end of the round
+                    queues.put(first.getKey(), first.getValue());
+                }
+            }
+            next.run();
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package org.rapidgraphql.dataloaders;
 
 import org.dataloader.BatchLoader;
+import org.dataloader.BatchLoaderEnvironment;
+import org.dataloader.BatchLoaderWithContext;
 import org.dataloader.DataLoader;
 import org.dataloader.DataLoaderFactory;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletionStage;
 
 public abstract class GraphQLBatchLoader<K, T> extends AbstractGraphQLBatchLoader<K, T> implements BatchLoader<K, T> {
@@ -23,13 +28,37 @@ public abstract class GraphQLBatchLoader<K, T> extends AbstractGraphQLBatchLoade
      */
     @Override
     public CompletionStage<List<T>> load(List<K> keys) {
-        return CompletableFuture.supplyAsync(() -> syncLoad(keys));
+        BatchLoaderEnvironment environment = getBatchEnvironment();
+        InFlightTable<K, T> inFlightTable = getInFlightTable();
+        if (inFlightTable == null) {
+            return supplyBatchAsync(environment, keys.size(), () -> syncLoad(keys));
+        }
+        return inFlightTable.load(keys, ownKeys -> supplyBatchAsync(environment, ownKeys.size(),
+                        () -> toMap(ownKeys, syncLoad(ownKeys))))
+                .thenApply(values -> keys.stream().map(values::get).toList());
     }
 
     abstract public List<T> syncLoad(List<K> keys);
 
+    @Override
+    protected Map<K, T> loadForCache(Set<K> keys) {
+        List<K> keyList = List.copyOf(keys);
+        Map<K, T> result = toMap(keyList, syncLoad(keyList));
+        result.values().removeIf(Objects::isNull);
+        return result;
+    }
+
+    private static <K, T> Map<K, T> toMap(List<K> keys, List<T> values) {
+        Map<K, T> result = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            result.put(keys.get(i), values.get(i));
+        }
+        return result;
+    }
+
     @Override
     protected DataLoader<K, T> createNewDataLoader() {
-        return DataLoaderFactory.newDataLoader(this, getDataLoaderOptions());
+        BatchLoaderWithContext<K, T> batchLoader = (keys, environment) -> loadWithEnvironment(environment, () -> load(keys));
+        return DataLoaderFactory.newDataLoader(batchLoader, getDataLoaderOptions());
     }
 }
@@ -1,12 +1,14 @@
 package org.rapidgraphql.dataloaders;
 
+import org.dataloader.BatchLoaderEnvironment;
 import org.dataloader.DataLoader;
 import org.dataloader.DataLoaderFactory;
 import org.dataloader.MappedBatchLoader;
+import org.dataloader.MappedBatchLoaderWithContext;
 
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 public abstract class GraphQLMappedBatchLoader<K, T> extends AbstractGraphQLBatchLoader<K, T>  implements MappedBatchLoader<K, T> {
@@ -24,6 +26,11 @@ public abstract class GraphQLMappedBatchLoader<K, T> extends AbstractGraphQLBatc
      */
     abstract public Map<K,T> syncLoad(Set<K> keys);
 
+    @Override
+    protected Map<K, T> loadForCache(Set<K> keys) {
+        return syncLoad(keys);
+    }
+
     /**
      * This method is called by DataLoader framework to load batch of entities
      * We recommend to implement synchronous variant of this: loadSync
@@ -33,11 +40,18 @@ public abstract class GraphQLMappedBatchLoader<K, T> extends AbstractGraphQLBatc
      */
     @Override
     public CompletionStage<Map<K,T>> load(Set<K> keys) {
-        return CompletableFuture.supplyAsync(() -> syncLoad(keys));
+        BatchLoaderEnvironment environment = getBatchEnvironment();
+        InFlightTable<K, T> inFlightTable = getInFlightTable();
+        if (inFlightTable == null) {
+            return supplyBatchAsync(environment, keys.size(), () -> syncLoad(keys));
+        }
+        return inFlightTable.load(keys, ownKeys -> supplyBatchAsync(environment, ownKeys.size(),
+                () -> syncLoad(new HashSet<>(ownKeys))));
     }
 
     @Override
     protected DataLoader<K, T> createNewDataLoader() {
-        return DataLoaderFactory.newMappedDataLoader(this, getDataLoaderOptions());
+        MappedBatchLoaderWithContext<K, T> batchLoader = (keys, environment) -> loadWithEnvironment(environment, () -> load(keys));
+        return DataLoaderFactory.newMappedDataLoader(batchLoader, getDataLoaderOptions());
     }
 }
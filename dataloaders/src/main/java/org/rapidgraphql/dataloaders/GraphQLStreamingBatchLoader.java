@@ -0,0 +1,127 @@
+package org.rapidgraphql.dataloaders;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.dataloader.BatchLoaderEnvironment;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.MappedBatchLoaderWithContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Batch loader emitting values one by one, e.g. while iterating over DB cursor or pages of remote API.
+ * Future of every key requested by {@link #get} completes as soon as its value is emitted,
+ * without waiting for the whole batch, so resolvers depending on fast keys can proceed early.
+ * Keys which weren't emitted are resolved to null when the batch load completes.
+ * Key requested again from the same DataLoader while it's being loaded gets the same early future.
+ * <code>
+ *     public void syncLoad(Set&lt;String&gt; keys, BiConsumer&lt;String, Product&gt; emitter) {
+ *         productRepository.streamByIds(keys).forEach(product -&gt; emitter.accept(product.getId(), product));
+ *     }
+ * </code>
+ */
+public abstract class GraphQLStreamingBatchLoader<K, T> extends AbstractGraphQLBatchLoader<K, T>
+        implements MappedBatchLoaderWithContext<K, T> {
+    // futures of keys being loaded by DataLoader, entries of DataLoaders of finished requests are collected with them
+    private final Cache<DataLoader<?, ?>, Map<K, CompletableFuture<T>>> earlyValues = Caffeine.newBuilder()
+            .weakKeys()
+            .build();
+
+    public GraphQLStreamingBatchLoader() {}
+    public GraphQLStreamingBatchLoader(String dataLoaderName) {
+        super(dataLoaderName);
+    }
+
+    /**
+     * Synchronous batch load emitting loaded values
+     * @param keys - Set of keys to load
+     * @param emitter - accepts key and its value, can be called from multiple threads
+     */
+    abstract public void syncLoad(Set<K> keys, BiConsumer<K, T> emitter);
+
+    /**
+     * This method is called by DataLoader framework to load batch of entities
+     * @param keys the set of keys to load
+     * @param environment batch loader environment with DataLoaders (and deadlines) of keys as key contexts
+     *
+     * @return CompletionStage with Map of results
+     */
+    @Override
+    public CompletionStage<Map<K, T>> load(Set<K> keys, BatchLoaderEnvironment environment) {
+        Map<Object, Object> keyContexts = environment.getKeyContexts();
+        return supplyBatchAsync(environment, keys.size(), () -> {
+            Map<K, T> values = new ConcurrentHashMap<>();
+            syncLoad(keys, (key, value) -> {
+                if (value != null) {
+                    values.put(key, value);
+                }
+                completeEarly(keyContexts.get(key), key, value);
+            });
+            return values;
+        });
+    }
+
+    @Override
+    protected Map<K, T> loadForCache(Set<K> keys) {
+        Map<K, T> values = new ConcurrentHashMap<>();
+        syncLoad(keys, (key, value) -> {
+            if (value != null) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+
+    @Override
+    protected CompletableFuture<T> loadKey(DataLoader<K, T> dataLoader, K key, Deadline deadline) {
+        Map<K, CompletableFuture<T>> loading = earlyValues.get(dataLoader, ignored -> new ConcurrentHashMap<>());
+        CompletableFuture<T> early = new CompletableFuture<>();
+        CompletableFuture<T> requested = loading.putIfAbsent(key, early);
+        if (requested != null) {
+            return requested;
+        }
+        dataLoader.load(key, new KeyContext(dataLoader, deadline)).whenComplete((value, error) -> {
+            loading.remove(key, early);
+            // keys which weren't emitted and failed batches
+            if (error != null) {
+                early.completeExceptionally(error);
+            } else {
+                early.complete(value);
+            }
+        });
+        return early;
+    }
+
+    @Override
+    protected CompletableFuture<List<T>> loadKeys(DataLoader<K, T> dataLoader, List<K> keys, Deadline deadline) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            futures.add(loadKey(dataLoader, key, deadline));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private void completeEarly(Object keyContext, K key, T value) {
+        if (keyContext instanceof KeyContext context) {
+            Map<K, CompletableFuture<T>> loading = earlyValues.getIfPresent(context.dataLoader());
+            CompletableFuture<T> early = loading == null ? null : loading.get(key);
+            if (early != null) {
+                early.complete(value);
+            }
+        }
+    }
+
+    @Override
+    protected DataLoader<K, T> createNewDataLoader() {
+        return DataLoaderFactory.newMappedDataLoader(this, getDataLoaderOptions());
+    }
+}
@@ -1,33 +1,82 @@
 package org.rapidgraphql.dataloaders;
 
 import com.google.common.cache.Cache;
+import org.dataloader.Try;
 import org.dataloader.ValueCache;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public class GuavaValueCache<K,V> implements ValueCache<K,V> {
     public static class EntityNotFoundException extends RuntimeException {
+        public EntityNotFoundException() {
+            super("Entity not found in cache", null, false, false);
+        }
     }
+    // cache misses share the same completed future, nothing is allocated per miss
+    private static final CompletableFuture<?> MISSING_VALUE = CompletableFuture.failedFuture(new EntityNotFoundException());
+    private static final Try<?> MISSING_TRY = Try.alwaysFailed();
+
     private final Cache<K,V> cache;
-    private final EntityNotFoundException defaultException = new EntityNotFoundException();
     public GuavaValueCache(Cache<K, V> cache) {
         this.cache = cache;
     }
 
+    @SuppressWarnings("unchecked")
+    static <V> CompletableFuture<V> missingValue() {
+        return (CompletableFuture<V>) MISSING_VALUE;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> Try<V> missingTry() {
+        return (Try<V>) MISSING_TRY;
+    }
+
     @Override
     public CompletableFuture<V> get(K key) {
         V value = cache.getIfPresent(key);
         return value==null ?
-                CompletableFuture.failedFuture(defaultException)
+                missingValue()
                 : CompletableFuture.completedFuture(value);
     }
 
+    /**
+     * Looks up all keys at once, DataLoader calls it on dispatch instead of get() per key.
+     * Misses are reported with shared failed Try, so no futures, Trys or exceptions are created per miss
+     */
+    @Override
+    public CompletableFuture<List<Try<V>>> getValues(List<K> keys) {
+        List<Try<V>> values = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            V value = cache.getIfPresent(key);
+            values.add(value == null ? missingTry() : Try.succeeded(value));
+        }
+        return CompletableFuture.completedFuture(values);
+    }
+
     @Override
     public CompletableFuture<V> set(K key, V value) {
-        cache.put(key, value);
+        if (value != null) {
+            cache.put(key, value);
+        }
         return CompletableFuture.completedFuture(value);
     }
 
+    /**
+     * Stores all loaded values at once, null values aren't cached
+     */
+    @Override
+    public CompletableFuture<List<V>> setValues(List<K> keys, List<V> values) {
+        for (int i = 0; i < keys.size(); i++) {
+            V value = values.get(i);
+            if (value != null) {
+                cache.put(keys.get(i), value);
+            }
+        }
+        return CompletableFuture.completedFuture(values);
+    }
+
     @Override
     public CompletableFuture<Void> delete(K key) {
         cache.invalidate(key);
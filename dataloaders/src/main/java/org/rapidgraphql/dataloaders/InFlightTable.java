@@ -0,0 +1,123 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.Try;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keys being fetched by running batch loads of a data loader.
+ * Batch requesting key which is already being fetched attaches to the running fetch instead of fetching it again.
+ * Keys are removed from the table as soon as their batch completes, so the table never serves stale values.
+ * Failure of the running fetch fails only the attached keys, each one separately, and never the keys
+ * loaded by the attaching batch itself. Keys whose fetch was skipped because the deadline of its request
+ * expired are fetched again by the attaching batch, which has its own deadline.
+ */
+final class InFlightTable<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param keys - keys of the batch, can contain duplicates
+     * @param loader - loads keys which aren't in flight, returns loaded values by key, missing keys are treated as null
+     * @return future of values of all the keys, null values are included, attached keys whose fetch failed
+     * have failed {@link Try} as value, which DataLoader completes as failure of the key
+     */
+    CompletableFuture<Map<K, V>> load(Collection<K> keys, Function<List<K>, CompletableFuture<Map<K, V>>> loader) {
+        Map<K, CompletableFuture<V>> futures = new HashMap<>();
+        Map<K, CompletableFuture<V>> owned = null;
+        for (K key : keys) {
+            if (futures.containsKey(key)) {
+                continue;
+            }
+            CompletableFuture<V> future = inFlight.get(key);
+            if (future == null) {
+                CompletableFuture<V> ownFuture = new CompletableFuture<>();
+                future = inFlight.putIfAbsent(key, ownFuture);
+                if (future == null) {
+                    future = ownFuture;
+                    if (owned == null) {
+                        owned = new HashMap<>();
+                    }
+                    owned.put(key, ownFuture);
+                }
+            }
+            futures.put(key, future);
+        }
+        if (owned != null) {
+            fetch(owned, loader);
+        }
+        Map<K, CompletableFuture<V>> ownFutures = owned == null ? Map.of() : owned;
+        return CompletableFuture.allOf(futures.values().stream()
+                        .map(future -> future.exceptionally(error -> null))
+                        .toArray(CompletableFuture[]::new))
+                .thenCompose(ignored -> {
+                    Map<K, V> values = new HashMap<>();
+                    List<K> skipped = new ArrayList<>();
+                    futures.forEach((key, future) -> {
+                        if (!future.isCompletedExceptionally()) {
+                            values.put(key, future.join());
+                        } else if (ownFutures.containsKey(key)) {
+                            // failure of own fetch fails the batch as without deduplication
+                            future.join();
+                        } else {
+                            Throwable cause = cause(future);
+                            if (cause instanceof DeadlineExceededException) {
+                                skipped.add(key);
+                            } else {
+                                values.put(key, failed(cause));
+                            }
+                        }
+                    });
+                    if (skipped.isEmpty()) {
+                        return CompletableFuture.completedFuture(values);
+                    }
+                    return loader.apply(skipped).thenApply(refetched -> {
+                        skipped.forEach(key -> values.put(key, refetched.get(key)));
+                        return values;
+                    });
+                });
+    }
+
+    int size() {
+        return inFlight.size();
+    }
+
+    private void fetch(Map<K, CompletableFuture<V>> owned, Function<List<K>, CompletableFuture<Map<K, V>>> loader) {
+        CompletableFuture<Map<K, V>> loaded;
+        try {
+            loaded = loader.apply(new ArrayList<>(owned.keySet()));
+        } catch (RuntimeException e) {
+            loaded = CompletableFuture.failedFuture(e);
+        }
+        loaded.whenComplete((values, error) -> owned.forEach((key, future) -> {
+            inFlight.remove(key, future);
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(values.get(key));
+            }
+        }));
+    }
+
+    private static Throwable cause(CompletableFuture<?> future) {
+        try {
+            future.join();
+            throw new IllegalStateException("future didn't fail");
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            return cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V failed(Throwable error) {
+        return (V) Try.failed(error);
+    }
+}
@@ -0,0 +1,11 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.DataLoader;
+
+/**
+ * Key context of keys requested by {@link AbstractGraphQLBatchLoader#get} and {@link AbstractGraphQLBatchLoader#getMany}
+ * when the batch load needs to know where its keys came from
+ * @param dataLoader - DataLoader the key was requested from
+ * @param deadline - deadline of the request, null if the request has no deadline
+ */
+record KeyContext(DataLoader<?, ?> dataLoader, Deadline deadline) {}
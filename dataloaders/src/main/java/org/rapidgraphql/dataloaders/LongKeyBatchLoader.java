@@ -0,0 +1,71 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.BatchLoader;
+import org.dataloader.BatchLoaderEnvironment;
+import org.dataloader.BatchLoaderWithContext;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Batch loader of entities identified by long ids.
+ * Batch keys are passed to {@link #syncLoad(long[])} as primitive array
+ */
+public abstract class LongKeyBatchLoader<T> extends AbstractGraphQLBatchLoader<Long, T> implements BatchLoader<Long, T> {
+
+    public LongKeyBatchLoader() {}
+    public LongKeyBatchLoader(String dataLoaderName) {
+        super(dataLoaderName);
+    }
+
+    /**
+     * Synchronous batch load
+     * @param keys - keys to load
+     * @return entities in the order of the keys, null for entities which weren't found
+     */
+    abstract public List<T> syncLoad(long[] keys);
+
+    @Override
+    public CompletionStage<List<T>> load(List<Long> keys) {
+        BatchLoaderEnvironment environment = getBatchEnvironment();
+        InFlightTable<Long, T> inFlightTable = getInFlightTable();
+        if (inFlightTable == null) {
+            return supplyBatchAsync(environment, keys.size(), () -> syncLoad(LongObjectHashMap.toArray(keys)));
+        }
+        return inFlightTable.load(keys, ownKeys -> supplyBatchAsync(environment, ownKeys.size(), () -> loadMap(ownKeys).asMap()))
+                .thenApply(values -> keys.stream().map(values::get).toList());
+    }
+
+    @Override
+    protected Map<Long, T> loadForCache(Set<Long> keys) {
+        Map<Long, T> result = new HashMap<>();
+        loadMap(keys).forEach((key, value) -> {
+            if (value != null) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    private LongObjectHashMap<T> loadMap(Collection<Long> keys) {
+        long[] keyArray = LongObjectHashMap.toArray(keys);
+        List<T> values = syncLoad(keyArray);
+        LongObjectHashMap<T> result = new LongObjectHashMap<>(keyArray.length);
+        for (int i = 0; i < keyArray.length; i++) {
+            result.put(keyArray[i], values.get(i));
+        }
+        return result;
+    }
+
+    @Override
+    protected DataLoader<Long, T> createNewDataLoader() {
+        BatchLoaderWithContext<Long, T> batchLoader = (keys, environment) -> loadWithEnvironment(environment, () -> load(keys));
+        return DataLoaderFactory.newDataLoader(batchLoader, getDataLoaderOptions());
+    }
+}
@@ -0,0 +1,60 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.BatchLoaderEnvironment;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.MappedBatchLoader;
+import org.dataloader.MappedBatchLoaderWithContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Mapped batch loader of entities identified by long ids.
+ * Batch keys are passed to {@link #syncLoad(long[])} as primitive array and loaded entities are returned
+ * in {@link LongObjectHashMap}, which is handed to DataLoader without copying
+ */
+public abstract class LongKeyMappedBatchLoader<T> extends AbstractGraphQLBatchLoader<Long, T> implements MappedBatchLoader<Long, T> {
+
+    public LongKeyMappedBatchLoader() {}
+    public LongKeyMappedBatchLoader(String dataLoaderName) {
+        super(dataLoaderName);
+    }
+
+    /**
+     * Synchronous batch load
+     * @param keys - distinct keys to load
+     * @return entities successfully loaded, keys that are missing in the map will be treated as null entries
+     */
+    abstract public LongObjectHashMap<T> syncLoad(long[] keys);
+
+    @Override
+    protected Map<Long, T> loadForCache(Set<Long> keys) {
+        Map<Long, T> result = new HashMap<>();
+        syncLoad(LongObjectHashMap.toArray(keys)).forEach((key, value) -> {
+            if (value != null) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public CompletionStage<Map<Long, T>> load(Set<Long> keys) {
+        BatchLoaderEnvironment environment = getBatchEnvironment();
+        InFlightTable<Long, T> inFlightTable = getInFlightTable();
+        if (inFlightTable == null) {
+            return supplyBatchAsync(environment, keys.size(), () -> syncLoad(LongObjectHashMap.toArray(keys)).asMap());
+        }
+        return inFlightTable.load(keys, ownKeys -> supplyBatchAsync(environment, ownKeys.size(),
+                () -> syncLoad(LongObjectHashMap.toArray(ownKeys)).asMap()));
+    }
+
+    @Override
+    protected DataLoader<Long, T> createNewDataLoader() {
+        MappedBatchLoaderWithContext<Long, T> batchLoader = (keys, environment) -> loadWithEnvironment(environment, () -> load(keys));
+        return DataLoaderFactory.newMappedDataLoader(batchLoader, getDataLoaderOptions());
+    }
+}
@@ -0,0 +1,197 @@
+package org.rapidgraphql.dataloaders;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Open addressing (linear probing) hash map with primitive long keys, used by long key batch loaders
+ * to return loaded entities without boxing keys and allocating map entries.
+ * Null values are allowed. Entries can't be removed, map is expected to live for a single batch
+ */
+public final class LongObjectHashMap<V> {
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    // marks slots with null value, empty slot is null
+    private static final Object NULL_VALUE = new Object();
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    public LongObjectHashMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * @param expectedSize - number of entries to hold without resizing, e.g. size of the batch
+     */
+    public LongObjectHashMap(int expectedSize) {
+        allocate(capacityFor(Math.max(expectedSize, 1)));
+    }
+
+    /**
+     * @return previous value of the key, or null
+     */
+    public V put(long key, V value) {
+        int index = indexOf(key);
+        Object previous = values[index];
+        values[index] = value == null ? NULL_VALUE : value;
+        if (previous != null) {
+            return unmask(previous);
+        }
+        keys[index] = key;
+        if (++size * 2 > values.length) {
+            rehash(values.length * 2);
+        }
+        return null;
+    }
+
+    public V get(long key) {
+        Object value = values[indexOf(key)];
+        return value == null ? null : unmask(value);
+    }
+
+    public boolean containsKey(long key) {
+        return values[indexOf(key)] != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value != null) {
+                consumer.accept(keys[i], unmask(value));
+            }
+        }
+    }
+
+    /**
+     * @return Map view backed by this map, lookups unbox the key without allocation
+     */
+    public Map<Long, V> asMap() {
+        return new MapView();
+    }
+
+    static long[] toArray(Collection<Long> keys) {
+        long[] result = new long[keys.size()];
+        int i = 0;
+        for (Long key : keys) {
+            result[i++] = key;
+        }
+        return result;
+    }
+
+    private int indexOf(long key) {
+        int index = hash(key) & mask;
+        while (values[index] != null && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        return Integer.highestOneBit(expectedSize * 2 - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V unmask(Object value) {
+        return value == NULL_VALUE ? null : (V) value;
+    }
+
+    private class MapView extends AbstractMap<Long, V> {
+        @Override
+        public V get(Object key) {
+            return key instanceof Long longKey ? LongObjectHashMap.this.get(longKey) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Long longKey && LongObjectHashMap.this.containsKey(longKey);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<Long, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Long, V>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < values.length;
+                        }
+
+                        @Override
+                        public Entry<Long, V> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<Long, V> entry = new SimpleImmutableEntry<>(keys[next], unmask(values[next]));
+                            next = advance(next + 1);
+                            return entry;
+                        }
+
+                        private int advance(int index) {
+                            while (index < values.length && values[index] == null) {
+                                index++;
+                            }
+                            return index;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.rapidgraphql.dataloaders;
+
+import org.slf4j.Logger;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Binds single argument methods (like {@link org.rapidgraphql.annotations.DataLoaderMethod} methods) to
+ * {@link Function} instances once, so that they can be called on the hot path without reflection.
+ * Binding is tried in the following order:
+ * <ol>
+ *     <li>LambdaMetafactory - generates class implementing Function which calls the method directly</li>
+ *     <li>MethodHandle bound to the target instance</li>
+ *     <li>Method.invoke - only when method cannot be accessed with method handles</li>
+ * </ol>
+ */
+public final class MethodInvokers {
+    private static final Logger LOGGER = getLogger(MethodInvokers.class);
+    private static final MethodType FUNCTION_APPLY_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private MethodInvokers() {}
+
+    /**
+     * Creates function invoking single argument method on the target instance
+     * Exceptions thrown by the method are propagated as is (they are not wrapped in InvocationTargetException)
+     * @param target - instance to invoke method on
+     * @param method - method with exactly one parameter
+     * @return function calling the method
+     */
+    public static <A, R> Function<A, R> bind(Object target, Method method) {
+        if (method.getParameterCount() != 1) {
+            throw new IllegalArgumentException("Method " + method.getDeclaringClass().getSimpleName() + "."
+                    + method.getName() + " should have exactly one parameter");
+        }
+        MethodHandles.Lookup lookup;
+        MethodHandle methodHandle;
+        try {
+            lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            methodHandle = lookup.unreflect(method);
+        } catch (IllegalAccessException | RuntimeException e) {
+            LOGGER.warn("Falling back to reflective invocation of {}.{}: {}",
+                    method.getDeclaringClass().getSimpleName(), method.getName(), e.toString());
+            return reflectiveInvoker(target, method);
+        }
+        try {
+            return lambdaInvoker(lookup, methodHandle, target, method);
+        } catch (Throwable e) {
+            LOGGER.debug("Cannot create lambda for {}.{}, using method handle: {}",
+                    method.getDeclaringClass().getSimpleName(), method.getName(), e.toString());
+            return methodHandleInvoker(methodHandle, target);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A, R> Function<A, R> lambdaInvoker(MethodHandles.Lookup lookup, MethodHandle methodHandle,
+                                                       Object target, Method method) throws Throwable {
+        CallSite callSite = LambdaMetafactory.metafactory(lookup,
+                "apply",
+                MethodType.methodType(Function.class, method.getDeclaringClass()),
+                FUNCTION_APPLY_TYPE,
+                methodHandle,
+                MethodType.methodType(method.getReturnType(), method.getParameterTypes()[0]));
+        return (Function<A, R>) callSite.getTarget().invoke(target);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A, R> Function<A, R> methodHandleInvoker(MethodHandle methodHandle, Object target) {
+        MethodHandle bound = methodHandle.bindTo(target).asType(FUNCTION_APPLY_TYPE);
+        return argument -> {
+            try {
+                return (R) bound.invokeExact((Object) argument);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A, R> Function<A, R> reflectiveInvoker(Object target, Method method) {
+        return argument -> {
+            try {
+                return (R) method.invoke(target, argument);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
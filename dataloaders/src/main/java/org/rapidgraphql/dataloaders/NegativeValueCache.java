@@ -0,0 +1,122 @@
+package org.rapidgraphql.dataloaders;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.dataloader.Try;
+import org.dataloader.ValueCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ValueCache remembering keys which were loaded as null (entity doesn't exist), see
+ * {@link AbstractGraphQLBatchLoader#useNegativeCache}.
+ * Absent keys are kept in separate cache with its own expiration and size, so they can't evict loaded values.
+ * Absent keys are resolved to null without going to the delegate cache or the batch loader,
+ * all other keys are passed to the delegate
+ */
+class NegativeValueCache<K, V> implements ValueCache<K, V> {
+    private final ValueCache<K, V> delegate;
+    private final Cache<K, Boolean> absentKeys;
+    private final DataLoaderInstrumentation instrumentation;
+
+    NegativeValueCache(ValueCache<K, V> delegate, Cache<K, Boolean> absentKeys, DataLoaderInstrumentation instrumentation) {
+        this.delegate = delegate;
+        this.absentKeys = absentKeys;
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key) {
+        if (absentKeys.getIfPresent(key) != null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return delegate.get(key);
+    }
+
+    @Override
+    public CompletableFuture<List<Try<V>>> getValues(List<K> keys) throws ValueCachingNotSupported {
+        boolean[] absent = null;
+        List<K> presentKeys = null;
+        for (int i = 0; i < keys.size(); i++) {
+            K key = keys.get(i);
+            if (absentKeys.getIfPresent(key) != null) {
+                if (absent == null) {
+                    absent = new boolean[keys.size()];
+                    presentKeys = new ArrayList<>(keys.subList(0, i));
+                }
+                absent[i] = true;
+            } else if (presentKeys != null) {
+                presentKeys.add(key);
+            }
+        }
+        if (absent == null) {
+            instrumentation.recordCacheAccess(BatchLoaderMetrics.CacheType.NEGATIVE, 0, keys.size());
+            return delegate.getValues(keys);
+        }
+        instrumentation.recordCacheAccess(BatchLoaderMetrics.CacheType.NEGATIVE,
+                keys.size() - presentKeys.size(), presentKeys.size());
+        boolean[] absentMask = absent;
+        return getPresentValues(presentKeys).thenApply(presentValues -> {
+            List<Try<V>> values = new ArrayList<>(keys.size());
+            int present = 0;
+            for (boolean isAbsent : absentMask) {
+                values.add(isAbsent ? Try.succeeded(null) : presentValues.get(present++));
+            }
+            return values;
+        });
+    }
+
+    private CompletableFuture<List<Try<V>>> getPresentValues(List<K> presentKeys) {
+        if (presentKeys.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        try {
+            return delegate.getValues(presentKeys);
+        } catch (ValueCachingNotSupported e) {
+            List<Try<V>> missing = new ArrayList<>(presentKeys.size());
+            for (int i = 0; i < presentKeys.size(); i++) {
+                missing.add(GuavaValueCache.missingTry());
+            }
+            return CompletableFuture.completedFuture(missing);
+        }
+    }
+
+    @Override
+    public CompletableFuture<V> set(K key, V value) {
+        if (value == null) {
+            absentKeys.put(key, Boolean.TRUE);
+            return CompletableFuture.completedFuture(null);
+        }
+        absentKeys.invalidate(key);
+        return delegate.set(key, value);
+    }
+
+    @Override
+    public CompletableFuture<List<V>> setValues(List<K> keys, List<V> values) {
+        for (int i = 0; i < keys.size(); i++) {
+            if (values.get(i) == null) {
+                absentKeys.put(keys.get(i), Boolean.TRUE);
+            } else {
+                absentKeys.invalidate(keys.get(i));
+            }
+        }
+        try {
+            return delegate.setValues(keys, values);
+        } catch (ValueCachingNotSupported e) {
+            return CompletableFuture.completedFuture(values);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(K key) {
+        absentKeys.invalidate(key);
+        return delegate.delete(key);
+    }
+
+    @Override
+    public CompletableFuture<Void> clear() {
+        absentKeys.invalidateAll();
+        return delegate.clear();
+    }
+}
@@ -0,0 +1,154 @@
+package org.rapidgraphql.dataloaders;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.dataloader.CacheMap;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Guava based FutureCache serving stale values while they are refreshed in background (stale-while-revalidate),
+ * see {@link AbstractGraphQLBatchLoader#useRefreshingFutureCache}.
+ * Value older than the refresh interval is returned as is and its key is queued for refresh,
+ * keys queued within one tick of {@link DispatchTicker} are refreshed by single batch load.
+ * Values older than max staleness are expired and loaded by DataLoader as usual
+ */
+class RefreshingFutureCache<K, V> implements CacheMap<K, V> {
+    private final Cache<K, Entry<V>> cache;
+    private final long refreshAfterNanos;
+    private final Ticker ticker;
+    private final DispatchTicker dispatchTicker;
+    private final Function<Set<K>, CompletableFuture<Map<K, V>>> refresher;
+    private final Set<K> pendingRefresh = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final Runnable refresh = this::refresh;
+
+    private static final class Entry<V> {
+        private final CompletableFuture<V> future;
+        private final long writeNanos;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(CompletableFuture<V> future, long writeNanos) {
+            this.future = future;
+            this.writeNanos = writeNanos;
+        }
+    }
+
+    /**
+     * @param cacheBuilder - builder with size limits, expiration is set to maxStaleness
+     * @param refreshInterval - age of the value after which it is refreshed on access
+     * @param maxStaleness - age of the value after which it is expired
+     * @param ticker - time source
+     * @param dispatchTicker - timer running batched refreshes
+     * @param refresher - loads values of the keys, keys missing in the result are removed from the cache
+     */
+    RefreshingFutureCache(CacheBuilder<Object, Object> cacheBuilder, Duration refreshInterval, Duration maxStaleness,
+                          Ticker ticker, DispatchTicker dispatchTicker,
+                          Function<Set<K>, CompletableFuture<Map<K, V>>> refresher) {
+        if (refreshInterval.isNegative() || refreshInterval.isZero() || maxStaleness.compareTo(refreshInterval) <= 0) {
+            throw new IllegalArgumentException("refreshInterval should be positive and shorter than maxStaleness");
+        }
+        this.cache = cacheBuilder.ticker(ticker).expireAfterWrite(maxStaleness).build();
+        this.refreshAfterNanos = refreshInterval.toNanos();
+        this.ticker = ticker;
+        this.dispatchTicker = dispatchTicker;
+        this.refresher = refresher;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return cache.getIfPresent(key) != null;
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key) {
+        Entry<V> entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isStale(entry) && entry.refreshing.compareAndSet(false, true)) {
+            pendingRefresh.add(key);
+            if (refreshScheduled.compareAndSet(false, true)) {
+                dispatchTicker.schedule(refresh, 0);
+            }
+        }
+        return entry.future;
+    }
+
+    private boolean isStale(Entry<V> entry) {
+        // pending and failed loads aren't refreshed
+        return entry.future.isDone() && !entry.future.isCompletedExceptionally()
+                && ticker.read() - entry.writeNanos >= refreshAfterNanos;
+    }
+
+    private void refresh() {
+        refreshScheduled.set(false);
+        Set<K> keys = new HashSet<>();
+        for (Iterator<K> iterator = pendingRefresh.iterator(); iterator.hasNext(); ) {
+            keys.add(iterator.next());
+            iterator.remove();
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        CompletableFuture<Map<K, V>> refreshed;
+        try {
+            refreshed = refresher.apply(keys);
+        } catch (RuntimeException e) {
+            refreshed = CompletableFuture.failedFuture(e);
+        }
+        refreshed.whenComplete((values, error) -> {
+            for (K key : keys) {
+                Entry<V> current = cache.getIfPresent(key);
+                // entry was deleted or loaded again meanwhile
+                if (current == null || !current.refreshing.get()) {
+                    continue;
+                }
+                if (error != null) {
+                    // keep serving the stale value, next access retries
+                    current.refreshing.set(false);
+                    continue;
+                }
+                V value = values.get(key);
+                if (value == null) {
+                    cache.asMap().remove(key, current);
+                } else {
+                    cache.asMap().replace(key, current, new Entry<>(CompletableFuture.completedFuture(value), ticker.read()));
+                }
+            }
+        });
+    }
+
+    @Override
+    public Collection<CompletableFuture<V>> getAll() {
+        return cache.asMap().values().stream().map(entry -> entry.future).toList();
+    }
+
+    @Override
+    public CacheMap<K, V> set(K key, CompletableFuture<V> value) {
+        cache.put(key, new Entry<>(value, ticker.read()));
+        return this;
+    }
+
+    @Override
+    public CacheMap<K, V> delete(K key) {
+        cache.invalidate(key);
+        return this;
+    }
+
+    @Override
+    public CacheMap<K, V> clear() {
+        cache.invalidateAll();
+        return this;
+    }
+}
@@ -0,0 +1,93 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.DataLoader;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Dispatches shared DataLoader by its dispatch window, see {@link AbstractGraphQLBatchLoader#useDispatchWindow}
+ * Timer is armed only when keys are added to the idle data loader.
+ * The dispatch is handed off to the dispatch executor: the batch loader can run the load in the dispatching thread
+ * (e.g. executor rejecting with CALLER_RUNS policy), which mustn't be the ticker thread shared by all windowed loaders.
+ * Dispatch rejected by the dispatch executor is retried after the window
+ */
+final class WindowedDispatcher {
+    private static final Logger LOGGER = getLogger(WindowedDispatcher.class);
+    private static final int DISPATCH_QUEUE_CAPACITY = 1000;
+    private final DataLoader<?, ?> dataLoader;
+    private final long windowNanos;
+    private final long maxLatencyNanos;
+    private final int minDispatchSize;
+    private final DispatchTicker ticker;
+    private final Executor dispatchExecutor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Runnable check = this::check;
+    private volatile long windowStartNanos;
+
+    WindowedDispatcher(DataLoader<?, ?> dataLoader, Duration window, Duration maxLatency, int minDispatchSize,
+                       DispatchTicker ticker, Executor dispatchExecutor) {
+        if (window.isNegative() || window.isZero() || maxLatency.compareTo(window) < 0) {
+            throw new IllegalArgumentException("window should be positive and not longer than maxLatency");
+        }
+        this.dataLoader = dataLoader;
+        this.windowNanos = window.toNanos();
+        this.maxLatencyNanos = maxLatency.toNanos();
+        this.minDispatchSize = minDispatchSize;
+        this.ticker = ticker;
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    /**
+     * @return executor shared by windowed loaders to dispatch their DataLoaders, created on first use
+     */
+    static Executor defaultDispatchExecutor() {
+        return DefaultDispatchExecutor.INSTANCE;
+    }
+
+    private static final class DefaultDispatchExecutor {
+        // dispatch is short unless the load runs in the dispatching thread, rejected dispatch is retried by the timer
+        static final BatchLoaderExecutor INSTANCE = BatchLoaderExecutor.fixed("window-dispatch",
+                Math.max(2, Runtime.getRuntime().availableProcessors()), DISPATCH_QUEUE_CAPACITY,
+                BatchLoaderExecutor.RejectionPolicy.ABORT);
+    }
+
+    /**
+     * Should be called after keys are queued in the data loader
+     */
+    void keysAdded() {
+        if (!scheduled.get() && scheduled.compareAndSet(false, true)) {
+            windowStartNanos = System.nanoTime();
+            ticker.schedule(check, windowNanos);
+        }
+    }
+
+    private void check() {
+        int depth = dataLoader.dispatchDepth();
+        if (depth > 0) {
+            long waitedNanos = System.nanoTime() - windowStartNanos;
+            long remainingNanos = maxLatencyNanos - waitedNanos;
+            if (depth < minDispatchSize && remainingNanos > 0) {
+                ticker.schedule(check, Math.min(windowNanos, remainingNanos));
+                return;
+            }
+            try {
+                dispatchExecutor.execute(dataLoader::dispatch);
+            } catch (RejectedExecutionException e) {
+                LOGGER.warn("Dispatch of {} keys was rejected, retrying after the window", depth);
+            }
+        }
+        scheduled.set(false);
+        // keys queued after the depth was read saw the timer armed, arm it for them
+        // (keys of the dispatch handed off can still be queued, the timer finds them dispatched)
+        if (dataLoader.dispatchDepth() > 0) {
+            keysAdded();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.DataLoader;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBatchSizeTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    public static class AdaptiveLoader extends GraphQLBatchLoader<Integer, Integer> {
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        public AdaptiveLoader() {
+            useExecutor(Runnable::run);
+            useAdaptiveBatchSize(2, 8, Duration.ofSeconds(1));
+        }
+
+        @Override
+        public List<Integer> syncLoad(List<Integer> keys) {
+            batchSizes.add(keys.size());
+            return keys;
+        }
+    }
+
+    @Test
+    public void increasesAdditivelyAndDecreasesMultiplicatively() {
+        List<Integer> limits = new CopyOnWriteArrayList<>();
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(10, 100, Duration.ofMillis(50), limits::add);
+
+        batchSize.onBatchLoad(10, FAST, false);
+        batchSize.onBatchLoad(20, FAST, false);
+        batchSize.onBatchLoad(5, FAST, false);
+        assertThat(batchSize.getCurrent()).isEqualTo(30);
+        batchSize.onBatchLoad(30, SLOW, false);
+        assertThat(batchSize.getCurrent()).isEqualTo(15);
+        batchSize.onBatchLoad(1, FAST, true);
+        batchSize.onBatchLoad(1, FAST, true);
+        assertThat(batchSize.getCurrent()).isEqualTo(10);
+
+        assertThat(limits).containsExactly(10, 20, 30, 15, 10);
+    }
+
+    @Test
+    public void limitStaysBelowCeiling() {
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(10, 25, Duration.ofMillis(50), limit -> {});
+        IntStream.range(0, 10).forEach(i -> batchSize.onBatchLoad(batchSize.getCurrent(), FAST, false));
+        assertThat(batchSize.getCurrent()).isEqualTo(25);
+    }
+
+    @Test
+    public void dataLoaderSplitsBatchesByCurrentLimit() {
+        AdaptiveLoader loader = new AdaptiveLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoader<Integer, Integer> dataLoader = loader.registerIn(factory.build());
+        List<Integer> keys = IntStream.range(0, 20).boxed().toList();
+
+        dataLoader.loadMany(keys);
+        dataLoader.dispatchAndJoin();
+        assertThat(loader.batchSizes).containsOnly(2).hasSize(10);
+        // batches of one dispatch are split at once, only the first one filled the limit
+        assertThat(loader.getMaxBatchSize()).isEqualTo(4);
+
+        loader.batchSizes.clear();
+        dataLoader = loader.registerIn(factory.build());
+        dataLoader.loadMany(keys);
+        assertThat(dataLoader.dispatchAndJoin()).isEqualTo(keys);
+        assertThat(loader.batchSizes).containsExactly(4, 4, 4, 4, 4);
+        assertThat(loader.getMaxBatchSize()).isEqualTo(6);
+        factory.close();
+    }
+}
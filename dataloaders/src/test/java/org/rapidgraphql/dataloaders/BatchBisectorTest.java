@@ -0,0 +1,165 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.DataLoader;
+import org.dataloader.Try;
+import org.junit.jupiter.api.Test;
+import org.rapidgraphql.annotations.DataLoaderMethod;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchBisectorTest {
+    private static final int POISONED = 13;
+
+    public static class ProductLoaders implements GraphQLDataLoader {
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        @DataLoaderMethod(value = "products", bisectRetries = 8)
+        public List<String> products(List<Integer> ids) {
+            batchSizes.add(ids.size());
+            if (ids.contains(POISONED)) {
+                throw new IllegalArgumentException("poisoned id");
+            }
+            return ids.stream().map(id -> "product" + id).toList();
+        }
+
+        @DataLoaderMethod(value = "mappedProducts", bisectRetries = 8)
+        public Map<Integer, String> mappedProducts(Set<Integer> ids) {
+            batchSizes.add(ids.size());
+            if (ids.contains(POISONED)) {
+                throw new IllegalArgumentException("poisoned id");
+            }
+            return ids.stream().collect(Collectors.toMap(id -> id, id -> "product" + id));
+        }
+
+        @DataLoaderMethod("tryProducts")
+        public List<Try<String>> tryProducts(List<Integer> ids) {
+            return ids.stream()
+                    .map(id -> id == POISONED ? Try.<String>failed(new IllegalArgumentException("poisoned id")) : Try.succeeded("product" + id))
+                    .toList();
+        }
+
+        @DataLoaderMethod(value = "down", bisectRetries = 8)
+        public List<String> down(List<Integer> ids) {
+            batchSizes.add(ids.size());
+            throw new IllegalStateException("backend is down");
+        }
+    }
+
+    @Test
+    public void poisonedKeyIsIsolatedByBisecting() {
+        ProductLoaders loaders = new ProductLoaders();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loaders));
+        DataLoader<Integer, String> dataLoader = factory.build().getDataLoader("products");
+
+        List<CompletableFuture<String>> values = IntStream.range(0, 16).mapToObj(dataLoader::load).toList();
+        dataLoader.dispatch();
+
+        assertThat(values.get(POISONED)).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(values.get(0)).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("product0");
+        assertThat(values.get(15)).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("product15");
+        assertThat(values.stream().filter(CompletableFuture::isCompletedExceptionally)).hasSize(1);
+        // 16 -> 8 + 8 -> 4 + 4 -> 2 + 2 -> 1 + 1
+        assertThat(loaders.batchSizes).containsExactlyInAnyOrder(16, 8, 8, 4, 4, 2, 2, 1, 1);
+        factory.close();
+    }
+
+    @Test
+    public void poisonedKeyOfMappedLoaderIsIsolatedByBisecting() {
+        ProductLoaders loaders = new ProductLoaders();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loaders));
+        DataLoader<Integer, String> dataLoader = factory.build().getDataLoader("mappedProducts");
+
+        CompletableFuture<String> healthy = dataLoader.load(1);
+        CompletableFuture<String> poisoned = dataLoader.load(POISONED);
+        dataLoader.dispatch();
+
+        assertThat(healthy).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("product1");
+        assertThat(poisoned).failsWithin(Duration.ofSeconds(5));
+        factory.close();
+    }
+
+    @Test
+    public void tryResultsFailOnlyTheirKeys() {
+        ProductLoaders loaders = new ProductLoaders();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loaders));
+        DataLoader<Integer, String> dataLoader = factory.build().getDataLoader("tryProducts");
+
+        CompletableFuture<String> healthy = dataLoader.load(1);
+        CompletableFuture<String> poisoned = dataLoader.load(POISONED);
+        dataLoader.dispatch();
+
+        assertThat(healthy).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("product1");
+        assertThat(poisoned).failsWithin(Duration.ofSeconds(5));
+        factory.close();
+    }
+
+    @Test
+    public void batchFailingInAllPartsFailsAsWhole() {
+        ProductLoaders loaders = new ProductLoaders();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loaders));
+        DataLoader<Integer, String> dataLoader = factory.build().getDataLoader("down");
+
+        CompletableFuture<List<String>> values = dataLoader.loadMany(IntStream.range(0, 16).boxed().toList());
+        dataLoader.dispatch();
+
+        assertThat(values).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IllegalStateException.class);
+        // failing halves are bisected until the retries are exhausted
+        assertThat(loaders.batchSizes).containsExactly(16, 8, 4, 2, 1, 1, 2, 4, 8);
+        factory.close();
+    }
+
+    @Test
+    public void poisonedKeysInBothHalvesAreIsolated() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        BatchBisector<Integer, List<Object>> bisector = new BatchBisector<>(keys -> {
+            batchSizes.add(keys.size());
+            if (keys.contains(1) || keys.contains(6)) {
+                throw new IllegalArgumentException("poisoned");
+            }
+            return List.copyOf(keys);
+        }, (keys, error) -> List.copyOf(Collections.nCopies(keys.size(), "failed")), (left, right) -> {
+            List<Object> values = new ArrayList<>(left);
+            values.addAll(right);
+            return values;
+        }, 16);
+
+        assertThat(bisector.load(List.of(0, 1, 2, 3, 4, 5, 6, 7)))
+                .containsExactly(0, "failed", 2, 3, 4, 5, "failed", 7);
+        assertThat(batchSizes).containsExactly(8, 4, 2, 1, 1, 2, 4, 2, 2, 1, 1);
+    }
+
+    @Test
+    public void retriesAreLimited() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        BatchBisector<Integer, List<Object>> bisector = new BatchBisector<>(keys -> {
+            batchSizes.add(keys.size());
+            if (keys.contains(0) || keys.contains(1)) {
+                throw new IllegalArgumentException("poisoned");
+            }
+            return List.copyOf(keys);
+        }, (keys, error) -> List.copyOf(Collections.nCopies(keys.size(), "failed")), (left, right) -> {
+            List<Object> values = new ArrayList<>(left);
+            values.addAll(right);
+            return values;
+        }, 2);
+
+        assertThat(bisector.load(List.of(0, 1, 2, 3))).containsExactly("failed", "failed", 2, 3);
+        assertThat(batchSizes).containsExactly(4, 2, 2);
+    }
+}
@@ -0,0 +1,120 @@
+package org.rapidgraphql.dataloaders;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchLoaderExecutorTest {
+
+    public static class ThreadNameLoader extends GraphQLBatchLoader<Integer, String> {
+        @Override
+        public List<String> syncLoad(List<Integer> keys) {
+            return keys.stream().map(key -> Thread.currentThread().getName()).toList();
+        }
+    }
+
+    public static class OwnExecutorLoader extends ThreadNameLoader {
+        public OwnExecutorLoader(BatchLoaderExecutor executor) {
+            useExecutor(executor);
+        }
+    }
+
+    @Test
+    public void abortPolicyFailsBatchWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        try (BatchLoaderExecutor executor = BatchLoaderExecutor.fixed("test", 1, 1, BatchLoaderExecutor.RejectionPolicy.ABORT)) {
+            CompletableFuture<Boolean> running = executor.supplyAsync(() -> await(latch));
+            CompletableFuture<Boolean> queued = executor.supplyAsync(() -> await(latch));
+            CompletableFuture<Boolean> rejected = executor.supplyAsync(() -> await(latch));
+            assertThat(rejected).failsWithin(Duration.ZERO)
+                    .withThrowableOfType(ExecutionException.class)
+                    .withCauseInstanceOf(RejectedExecutionException.class);
+            assertThat(executor.getRejectedCount()).isEqualTo(1);
+            assertThat(executor.getQueueSize()).isEqualTo(1);
+            latch.countDown();
+            assertThat(running.join()).isTrue();
+            assertThat(queued.join()).isTrue();
+        }
+    }
+
+    @Test
+    public void callerRunsPolicyRunsBatchInCallingThread() {
+        CountDownLatch latch = new CountDownLatch(1);
+        try (BatchLoaderExecutor executor = BatchLoaderExecutor.fixed("test", 1, 1, BatchLoaderExecutor.RejectionPolicy.CALLER_RUNS)) {
+            executor.supplyAsync(() -> await(latch));
+            executor.supplyAsync(() -> await(latch));
+            CompletableFuture<String> callerRuns = executor.supplyAsync(() -> Thread.currentThread().getName());
+            assertThat(callerRuns).isCompletedWithValue(Thread.currentThread().getName());
+            assertThat(executor.getRejectedCount()).isEqualTo(1);
+            latch.countDown();
+        }
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    public void virtualExecutorRunsAllBatchesConcurrently() {
+        int batches = 64;
+        CountDownLatch allStarted = new CountDownLatch(batches);
+        try (BatchLoaderExecutor executor = BatchLoaderExecutor.create(BatchLoaderExecutor.Kind.parse("virtual"), "test",
+                1, 1, BatchLoaderExecutor.RejectionPolicy.ABORT)) {
+            List<CompletableFuture<Boolean>> futures = IntStream.range(0, batches)
+                    .mapToObj(i -> executor.supplyAsync(() -> {
+                        allStarted.countDown();
+                        return await(allStarted);
+                    }))
+                    .toList();
+            futures.forEach(future -> assertThat(future.join()).isTrue());
+            assertThat(executor.getRejectedCount()).isZero();
+        }
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    public void virtualExecutorFallsBackToFixedPool() {
+        try (BatchLoaderExecutor executor = BatchLoaderExecutor.create(BatchLoaderExecutor.Kind.VIRTUAL, "test",
+                2, 10, BatchLoaderExecutor.RejectionPolicy.ABORT)) {
+            assertThat(executor.getQueueSize()).isZero();
+            assertThat(executor.supplyAsync(() -> Thread.currentThread().getName()).join()).startsWith("rapidgraphql-test-");
+        }
+        assertThatThrownBy(() -> BatchLoaderExecutor.virtual("test")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void loadersUseFactoryExecutorByDefault() {
+        try (BatchLoaderExecutor factoryExecutor = BatchLoaderExecutor.fixed("factory", 1, 10, BatchLoaderExecutor.RejectionPolicy.ABORT);
+             BatchLoaderExecutor loaderExecutor = BatchLoaderExecutor.fixed("loader", 1, 10, BatchLoaderExecutor.RejectionPolicy.ABORT)) {
+            ThreadNameLoader defaultLoader = new ThreadNameLoader();
+            OwnExecutorLoader ownExecutorLoader = new OwnExecutorLoader(loaderExecutor);
+            DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(defaultLoader, ownExecutorLoader),
+                    10, 1, factoryExecutor);
+            assertThat(defaultLoader.getExecutor()).isSameAs(factoryExecutor);
+            assertThat(ownExecutorLoader.getExecutor()).isSameAs(loaderExecutor);
+            assertThat(defaultLoader.load(List.of(1)).toCompletableFuture().join())
+                    .containsExactly("rapidgraphql-factory-1");
+            assertThat(ownExecutorLoader.load(List.of(1)).toCompletableFuture().join())
+                    .containsExactly("rapidgraphql-loader-1");
+            factory.close();
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.DataLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchValueCacheTest {
+
+    /**
+     * In-process stand-in for remote store, every call counts as a round trip
+     */
+    static class InMemoryStore implements BatchValueCache<Integer, String> {
+        final Map<Integer, String> entries = new ConcurrentHashMap<>();
+        final AtomicInteger roundTrips = new AtomicInteger();
+
+        @Override
+        public CompletableFuture<Map<Integer, String>> getAll(List<Integer> keys) {
+            roundTrips.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> keys.stream()
+                    .filter(entries::containsKey)
+                    .collect(Collectors.toMap(key -> key, entries::get)));
+        }
+
+        @Override
+        public CompletableFuture<Void> putAll(Map<Integer, String> values) {
+            roundTrips.incrementAndGet();
+            return CompletableFuture.runAsync(() -> entries.putAll(values));
+        }
+
+        @Override
+        public CompletableFuture<Void> deleteAll(Collection<Integer> keys) {
+            roundTrips.incrementAndGet();
+            keys.forEach(entries::remove);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> clear() {
+            roundTrips.incrementAndGet();
+            entries.clear();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    public static class StoreBackedLoader extends GraphQLBatchLoader<Integer, String> {
+        final AtomicInteger loadedKeys = new AtomicInteger();
+
+        public StoreBackedLoader(BatchValueCache<Integer, String> store) {
+            useBatchValueCache(store);
+        }
+
+        @Override
+        public List<String> syncLoad(List<Integer> keys) {
+            loadedKeys.addAndGet(keys.size());
+            return keys.stream().map(key -> key % 10 == 0 ? null : "value" + key).toList();
+        }
+    }
+
+    @Test
+    public void batchIsReadAndWrittenWithSingleRoundTrip() {
+        InMemoryStore store = new InMemoryStore();
+        StoreBackedLoader loader = new StoreBackedLoader(store);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        List<Integer> keys = IntStream.range(1, 501).boxed().toList();
+
+        DataLoader<Integer, String> first = loader.registerIn(factory.build());
+        first.loadMany(keys);
+        List<String> firstValues = first.dispatchAndJoin();
+        assertThat(store.roundTrips).hasValue(2);
+        assertThat(store.entries).hasSize(450);
+
+        DataLoader<Integer, String> second = loader.registerIn(factory.build());
+        second.loadMany(keys);
+        assertThat(second.dispatchAndJoin()).isEqualTo(firstValues);
+        // cached values are read with one call, 50 null values are loaded again and aren't stored
+        assertThat(store.roundTrips).hasValue(3);
+        assertThat(loader.loadedKeys).hasValue(550);
+        factory.close();
+    }
+}
@@ -0,0 +1,161 @@
+package org.rapidgraphql.dataloaders;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.Try;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CaffeineCacheTest {
+
+    public static class VersionedLoader extends GraphQLBatchLoader<Integer, String> {
+        final AtomicInteger loadedKeys = new AtomicInteger();
+        final AtomicInteger version = new AtomicInteger(1);
+
+        public VersionedLoader(Caffeine<Object, Object> cacheBuilder, Executor executor) {
+            useExecutor(executor);
+            useCaffeineValueCache(cacheBuilder);
+        }
+
+        @Override
+        public List<String> syncLoad(List<Integer> keys) {
+            loadedKeys.addAndGet(keys.size());
+            return keys.stream().map(key -> key + ":v" + version.get()).toList();
+        }
+    }
+
+    public static class SharedFutureCacheLoader extends GraphQLMappedBatchLoader<Integer, Integer> {
+        final AtomicInteger loadedKeys = new AtomicInteger();
+
+        public SharedFutureCacheLoader() {
+            useCaffeineFutureCache(Caffeine.newBuilder().maximumSize(100));
+        }
+
+        @Override
+        public Map<Integer, Integer> syncLoad(Set<Integer> keys) {
+            loadedKeys.addAndGet(keys.size());
+            return keys.stream().collect(Collectors.toMap(key -> key, key -> key * 2));
+        }
+    }
+
+    public static class DirectLoader extends AbstractGraphQLBatchLoader<Integer, Integer> {
+        public DirectLoader() {
+            useCaffeineValueCache(Caffeine.newBuilder().maximumSize(100));
+        }
+
+        @Override
+        protected DataLoader<Integer, Integer> createNewDataLoader() {
+            return DataLoaderFactory.newDataLoader(keys -> CompletableFuture.completedFuture(keys));
+        }
+    }
+
+    @Test
+    public void loaderWithoutLoadForCacheCannotUseCaffeineCache() {
+        assertThatThrownBy(DirectLoader::new)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("loadForCache");
+    }
+
+    @Test
+    public void valueCacheIsSharedByDataLoaders() {
+        VersionedLoader loader = new VersionedLoader(Caffeine.newBuilder().maximumSize(100), Runnable::run);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+
+        DataLoader<Integer, String> first = loader.registerIn(factory.build());
+        first.loadMany(List.of(1, 2));
+        assertThat(first.dispatchAndJoin()).containsExactly("1:v1", "2:v1");
+        DataLoader<Integer, String> second = loader.registerIn(factory.build());
+        second.loadMany(List.of(1, 2, 3));
+        assertThat(second.dispatchAndJoin()).containsExactly("1:v1", "2:v1", "3:v1");
+
+        assertThat(loader.loadedKeys).hasValue(3);
+        factory.close();
+    }
+
+    @Test
+    public void refreshAfterWriteServesStaleValueAndReloads() {
+        AtomicLong nanos = new AtomicLong();
+        AtomicBoolean deferLoads = new AtomicBoolean();
+        List<Runnable> deferredLoads = new ArrayList<>();
+        Executor executor = task -> {
+            if (deferLoads.get()) {
+                deferredLoads.add(task);
+            } else {
+                task.run();
+            }
+        };
+        VersionedLoader loader = new VersionedLoader(Caffeine.newBuilder()
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .refreshAfterWrite(Duration.ofMinutes(1)), executor);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+
+        DataLoader<Integer, String> first = loader.registerIn(factory.build());
+        first.load(1);
+        assertThat(first.dispatchAndJoin()).containsExactly("1:v1");
+        loader.version.set(2);
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        deferLoads.set(true);
+
+        DataLoader<Integer, String> second = loader.registerIn(factory.build());
+        second.load(1);
+        assertThat(second.dispatchAndJoin()).containsExactly("1:v1");
+        assertThat(deferredLoads).hasSize(1);
+        deferLoads.set(false);
+        deferredLoads.forEach(Runnable::run);
+        DataLoader<Integer, String> third = loader.registerIn(factory.build());
+        third.load(1);
+        assertThat(third.dispatchAndJoin()).containsExactly("1:v2");
+
+        assertThat(loader.loadedKeys).hasValue(2);
+        factory.close();
+    }
+
+    @Test
+    public void getValuesWaitsOnlyForEntriesBeingLoaded() {
+        AsyncCache<Integer, String> asyncCache = Caffeine.newBuilder().buildAsync();
+        CaffeineValueCache<Integer, String> cache = new CaffeineValueCache<>(asyncCache);
+        cache.set(1, "one");
+        CompletableFuture<String> loading = new CompletableFuture<>();
+        asyncCache.put(2, loading);
+
+        CompletableFuture<List<Try<String>>> values = cache.getValues(List.of(1, 2, 3));
+        assertThat(values).isNotDone();
+        loading.complete("two");
+
+        assertThat(values.join()).extracting(Try::isSuccess).containsExactly(true, true, false);
+        assertThat(values.join().get(1).get()).isEqualTo("two");
+    }
+
+    @Test
+    public void futureCacheIsUsedBySharedDataLoader() {
+        SharedFutureCacheLoader loader = new SharedFutureCacheLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+
+        DataLoader<Integer, Integer> first = loader.registerIn(factory.build());
+        first.loadMany(List.of(1, 2));
+        assertThat(first.dispatchAndJoin()).containsExactly(2, 4);
+        DataLoader<Integer, Integer> second = loader.registerIn(factory.build());
+        assertThat(second).isSameAs(first);
+        assertThat(second.load(1).join()).isEqualTo(2);
+
+        assertThat(loader.loadedKeys).hasValue(2);
+        factory.close();
+    }
+}
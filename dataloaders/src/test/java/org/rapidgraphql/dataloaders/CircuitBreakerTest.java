@@ -0,0 +1,126 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.DataLoader;
+import org.junit.jupiter.api.Test;
+import org.rapidgraphql.annotations.DataLoaderMethod;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.rapidgraphql.dataloaders.BatchLoaderMetrics.CircuitState.CLOSED;
+import static org.rapidgraphql.dataloaders.BatchLoaderMetrics.CircuitState.HALF_OPEN;
+import static org.rapidgraphql.dataloaders.BatchLoaderMetrics.CircuitState.OPEN;
+
+class CircuitBreakerTest {
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    public void circuitOpensAfterConsecutiveFailuresAndProbesAfterOpenDuration() {
+        BatchLoadGuard guard = new BatchLoadGuard("test", nanos::get);
+        guard.useCircuitBreaker(2, Duration.ofSeconds(10));
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> failed = CompletableFuture.failedFuture(new IllegalStateException("down"));
+
+        guard.run(() -> { calls.incrementAndGet(); return failed; });
+        assertThat(guard.getState()).isEqualTo(CLOSED);
+        guard.run(() -> { calls.incrementAndGet(); return failed; });
+        assertThat(guard.getState()).isEqualTo(OPEN);
+
+        assertThat(guard.run(() -> { calls.incrementAndGet(); return failed; }))
+                .failsWithin(Duration.ZERO)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(CircuitBreakerOpenException.class);
+        assertThat(calls).hasValue(2);
+
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+        CompletableFuture<String> probe = new CompletableFuture<>();
+        guard.run(() -> probe);
+        assertThat(guard.getState()).isEqualTo(HALF_OPEN);
+        assertThat(guard.run(() -> { calls.incrementAndGet(); return failed; })).isCompletedExceptionally();
+        assertThat(calls).hasValue(2);
+        probe.completeExceptionally(new IllegalStateException("still down"));
+        assertThat(guard.getState()).isEqualTo(OPEN);
+
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(guard.run(() -> CompletableFuture.completedFuture("ok"))).isCompletedWithValue("ok");
+        assertThat(guard.getState()).isEqualTo(CLOSED);
+    }
+
+    public static class SlowLoader extends GraphQLBatchLoader<Integer, String> {
+        final CountDownLatch backend = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+
+        public SlowLoader() {
+            setBatchTimeout(Duration.ofMillis(50));
+            useCircuitBreaker(1, Duration.ofMinutes(1));
+        }
+
+        @Override
+        public List<String> syncLoad(List<Integer> keys) {
+            calls.incrementAndGet();
+            try {
+                backend.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return keys.stream().map(String::valueOf).toList();
+        }
+    }
+
+    @Test
+    public void slowBatchTimesOutAndOpensCircuit() {
+        SlowLoader loader = new SlowLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+
+        DataLoader<Integer, String> first = loader.registerIn(factory.build());
+        CompletableFuture<String> timedOut = first.load(1);
+        first.dispatch();
+        assertThat(timedOut).failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(TimeoutException.class);
+        assertThat(loader.getCircuitState()).isEqualTo(OPEN);
+
+        DataLoader<Integer, String> second = loader.registerIn(factory.build());
+        CompletableFuture<String> rejected = second.load(2);
+        second.dispatch();
+        assertThat(rejected).isCompletedExceptionally();
+        assertThat(loader.calls).hasValue(1);
+        loader.backend.countDown();
+        factory.close();
+    }
+
+    public static class FailingMethods implements GraphQLDataLoader {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @DataLoaderMethod(value = "failing", circuitBreakerThreshold = 1, bisectRetries = 0)
+        public List<String> load(List<Integer> keys) {
+            calls.incrementAndGet();
+            throw new IllegalStateException("backend is down");
+        }
+    }
+
+    @Test
+    public void openCircuitOfMethodLoaderFailsKeysWithoutInvocation() {
+        FailingMethods methods = new FailingMethods();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(methods));
+
+        for (int i = 0; i < 3; i++) {
+            DataLoader<Integer, String> dataLoader = factory.build().getDataLoader("failing");
+            CompletableFuture<List<String>> values = dataLoader.loadMany(List.of(1, 2));
+            dataLoader.dispatch();
+            assertThat(values).failsWithin(Duration.ofSeconds(5))
+                    .withThrowableOfType(ExecutionException.class)
+                    .withCauseInstanceOf(i == 0 ? IllegalStateException.class : CircuitBreakerOpenException.class);
+        }
+        assertThat(methods.calls).hasValue(1);
+        factory.close();
+    }
+}
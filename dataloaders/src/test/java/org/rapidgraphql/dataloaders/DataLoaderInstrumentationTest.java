@@ -0,0 +1,210 @@
+package org.rapidgraphql.dataloaders;
+
+import com.google.common.cache.CacheBuilder;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.dataloader.stats.SimpleStatisticsCollector;
+import org.junit.jupiter.api.Test;
+import org.rapidgraphql.annotations.DataLoaderMethod;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataLoaderInstrumentationTest {
+
+    public static class DoublingLoader extends GraphQLBatchLoader<Integer, Integer> {
+        public DoublingLoader() {
+            super("doubling");
+        }
+
+        @Override
+        public List<Integer> syncLoad(List<Integer> keys) {
+            return keys.stream().map(key -> key * 2).toList();
+        }
+    }
+
+    public static class ValueCacheLoader extends GraphQLMappedBatchLoader<Integer, Integer> {
+        public ValueCacheLoader() {
+            super("value-cache");
+            useValueCache(CacheBuilder.newBuilder().maximumSize(100).build());
+        }
+
+        @Override
+        public Map<Integer, Integer> syncLoad(Set<Integer> keys) {
+            return keys.stream().collect(Collectors.toMap(key -> key, key -> key * 2));
+        }
+    }
+
+    public static class FailingMethodLoader implements GraphQLDataLoader {
+        @DataLoaderMethod("failing")
+        public List<Integer> failing(List<Integer> keys) {
+            throw new IllegalStateException("failure");
+        }
+    }
+
+    static class RecordingMetrics implements BatchLoaderMetrics {
+        final Map<String, LongSupplier> pendingKeys = new ConcurrentHashMap<>();
+        final List<String> batchLoads = new CopyOnWriteArrayList<>();
+        final List<String> cacheAccesses = new CopyOnWriteArrayList<>();
+        final List<Long> dispatchDelays = new CopyOnWriteArrayList<>();
+        final List<BatchLoaderExecutor> executors = new ArrayList<>();
+
+        @Override
+        public void registerDataLoader(String dataLoaderName, LongSupplier pendingKeys) {
+            this.pendingKeys.put(dataLoaderName, pendingKeys);
+        }
+
+        @Override
+        public void registerExecutor(BatchLoaderExecutor executor) {
+            executors.add(executor);
+        }
+
+        @Override
+        public void recordDispatchDelay(String dataLoaderName, long delayNanos) {
+            dispatchDelays.add(delayNanos);
+        }
+
+        @Override
+        public void recordBatchLoad(String dataLoaderName, int batchSize, long durationNanos, Throwable error) {
+            batchLoads.add(dataLoaderName + ":" + batchSize + ":" + (error == null ? "success" : "error"));
+        }
+
+        @Override
+        public void recordCacheAccess(String dataLoaderName, CacheType cacheType, int hits, int misses) {
+            cacheAccesses.add(dataLoaderName + ":" + cacheType + ":" + hits + "/" + misses);
+        }
+    }
+
+    @Test
+    public void reportsBatchLoadsAndFutureCacheHits() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        DoublingLoader loader = new DoublingLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader), 10, 1,
+                BatchLoaderExecutor.commonPool(), metrics);
+        DataLoaderRegistry registry = factory.build();
+        DataLoader<Integer, Integer> dataLoader = loader.registerIn(registry);
+
+        dataLoader.load(1);
+        dataLoader.load(2);
+        dataLoader.load(1);
+        assertThat(metrics.pendingKeys.get("doubling").getAsLong()).isEqualTo(2);
+        assertThat(dataLoader.dispatchAndJoin()).containsExactly(2, 4);
+
+        assertThat(metrics.pendingKeys.get("doubling").getAsLong()).isZero();
+        assertThat(metrics.batchLoads).containsExactly("doubling:2:success");
+        assertThat(metrics.cacheAccesses).containsExactly("doubling:FUTURE:1/0", "doubling:FUTURE:0/2");
+        assertThat(metrics.dispatchDelays).hasSize(1);
+        assertThat(metrics.executors).containsExactly(BatchLoaderExecutor.commonPool());
+        factory.close();
+    }
+
+    @Test
+    public void keysOfAbandonedDataLoadersAreNotPending() throws InterruptedException {
+        RecordingMetrics metrics = new RecordingMetrics();
+        DoublingLoader loader = new DoublingLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader), 10, 1,
+                BatchLoaderExecutor.commonPool(), metrics);
+        LongSupplier pendingKeys = metrics.pendingKeys.get("doubling");
+
+        // request failed before dispatching its DataLoader
+        loader.registerIn(factory.build()).loadMany(List.of(1, 2, 3));
+        DataLoader<Integer, Integer> dataLoader = loader.registerIn(factory.build());
+        dataLoader.load(4);
+        assertThat(pendingKeys.getAsLong()).isEqualTo(4);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (pendingKeys.getAsLong() != 1 && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(pendingKeys.getAsLong()).isEqualTo(1);
+        dataLoader.dispatchAndJoin();
+        assertThat(pendingKeys.getAsLong()).isZero();
+        factory.close();
+    }
+
+    @Test
+    public void statisticsCollectorConfiguredAfterConstructionIsInstrumented() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        DoublingLoader loader = new DoublingLoader();
+        loader.getDataLoaderOptions().setStatisticsCollector(SimpleStatisticsCollector::new);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader), 10, 1,
+                BatchLoaderExecutor.commonPool(), metrics);
+        DataLoader<Integer, Integer> dataLoader = loader.registerIn(factory.build());
+
+        dataLoader.load(1);
+        dataLoader.load(1);
+        assertThat(dataLoader.dispatchAndJoin()).containsExactly(2);
+
+        assertThat(metrics.cacheAccesses).containsExactly("doubling:FUTURE:1/0", "doubling:FUTURE:0/1");
+        assertThat(metrics.dispatchDelays).hasSize(1);
+        // statistics of the configured collector are still collected
+        assertThat(dataLoader.getStatistics().getLoadCount()).isEqualTo(2);
+        assertThat(dataLoader.getStatistics().getCacheHitCount()).isEqualTo(1);
+        factory.close();
+    }
+
+    @Test
+    public void doesNotReportFutureCacheMissesWithoutCaching() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        DoublingLoader loader = new DoublingLoader();
+        loader.getDataLoaderOptions().setCachingEnabled(false);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader), 10, 1,
+                BatchLoaderExecutor.commonPool(), metrics);
+        DataLoader<Integer, Integer> dataLoader = loader.registerIn(factory.build());
+
+        dataLoader.load(1);
+        dataLoader.load(2);
+        assertThat(dataLoader.dispatchAndJoin()).containsExactly(2, 4);
+
+        assertThat(metrics.batchLoads).containsExactly("doubling:2:success");
+        assertThat(metrics.cacheAccesses).isEmpty();
+        assertThat(loader.getCacheMissCount(BatchLoaderMetrics.CacheType.FUTURE)).isZero();
+        factory.close();
+    }
+
+    @Test
+    public void reportsValueCacheHits() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        ValueCacheLoader loader = new ValueCacheLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader), 10, 1,
+                BatchLoaderExecutor.commonPool(), metrics);
+
+        DataLoader<Integer, Integer> first = loader.registerIn(factory.build());
+        first.load(1);
+        first.dispatchAndJoin();
+        DataLoader<Integer, Integer> second = loader.registerIn(factory.build());
+        second.load(1);
+        second.load(2);
+        second.dispatchAndJoin();
+
+        assertThat(metrics.cacheAccesses).contains("value-cache:VALUE:0/1", "value-cache:VALUE:1/1");
+        assertThat(metrics.batchLoads).containsExactly("value-cache:1:success", "value-cache:1:success");
+        factory.close();
+    }
+
+    @Test
+    public void reportsFailedMethodLoads() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(new FailingMethodLoader()), 10, 1,
+                BatchLoaderExecutor.commonPool(), metrics);
+        DataLoader<Integer, Integer> dataLoader = factory.build().getDataLoader("failing");
+
+        CompletableFuture<Integer> value = dataLoader.load(1);
+        dataLoader.dispatch();
+        assertThat(value).failsWithin(Duration.ofSeconds(5));
+        assertThat(metrics.batchLoads).containsExactly("failing:1:error");
+        assertThat(metrics.pendingKeys).containsKey("failing");
+        factory.close();
+    }
+}
@@ -7,13 +7,21 @@ import org.dataloader.DataLoader;
 import org.dataloader.DataLoaderRegistry;
 import org.dataloader.registries.ScheduledDataLoaderRegistry;
 import org.junit.jupiter.api.Test;
+import org.rapidgraphql.annotations.DataLoaderMethod;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -54,6 +62,73 @@ class DataLoaderRegistryFactoryTest {
         }
     }
 
+    public static class MethodLoaders implements GraphQLDataLoader {
+        @DataLoaderMethod("triple")
+        public List<Integer> triple(List<Integer> keys) {
+            return keys.stream().map(key -> key*3).toList();
+        }
+
+        @DataLoaderMethod("square")
+        public Map<Integer, Integer> square(Set<Integer> keys) {
+            return keys.stream().collect(Collectors.toMap(key -> key, key -> key*key));
+        }
+    }
+
+    public static class CountingLoader extends MultiplicationMappedLoader {
+        private final AtomicInteger createdDataLoaders = new AtomicInteger();
+
+        @Override
+        protected DataLoader<Integer, Integer> createNewDataLoader() {
+            createdDataLoaders.incrementAndGet();
+            return super.createNewDataLoader();
+        }
+    }
+
+    @Test
+    public void concurrentLazyRegistrationCreatesSingleDataLoader() throws Exception {
+        int THREADS = 16;
+        int REGISTRIES = 50;
+        CountingLoader loader = new CountingLoader();
+        DataLoaderRegistryFactory dataLoaderRegistryFactory = new DataLoaderRegistryFactory(List.of(loader));
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        for (int r = 0; r < REGISTRIES; r++) {
+            DataLoaderRegistry registry = dataLoaderRegistryFactory.build();
+            DataFetchingEnvironment env = mock(DataFetchingEnvironment.class);
+            when(env.getDataLoaderRegistry()).thenReturn(registry);
+            CyclicBarrier barrier = new CyclicBarrier(THREADS);
+            List<Callable<DataLoader<Integer, Integer>>> registrations = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                registrations.add(() -> {
+                    barrier.await();
+                    return loader.registerIn(env.getDataLoaderRegistry());
+                });
+            }
+            Set<DataLoader<Integer, Integer>> dataLoaders = new HashSet<>();
+            for (Future<DataLoader<Integer, Integer>> future : executorService.invokeAll(registrations)) {
+                dataLoaders.add(future.get());
+            }
+            assertThat(dataLoaders).hasSize(1);
+            assertThat(registry.getDataLoaders()).containsExactlyElementsOf(dataLoaders);
+        }
+        assertThat(loader.createdDataLoaders.get()).isEqualTo(REGISTRIES);
+        executorService.shutdown();
+        dataLoaderRegistryFactory.close();
+    }
+
+    @Test
+    public void dataLoaderMethods() {
+        DataLoaderRegistryFactory dataLoaderRegistryFactory = new DataLoaderRegistryFactory(List.of(new MethodLoaders()));
+        DataLoaderRegistry registry = dataLoaderRegistryFactory.build();
+        DataLoader<Integer, Integer> triple = registry.getDataLoader("triple");
+        DataLoader<Integer, Integer> square = registry.getDataLoader("square");
+        CompletableFuture<List<Integer>> triples = triple.loadMany(List.of(1, 2, 3));
+        CompletableFuture<List<Integer>> squares = square.loadMany(List.of(1, 2, 3));
+        registry.dispatchAll();
+        assertThat(triples.join()).containsExactly(3, 6, 9);
+        assertThat(squares.join()).containsExactly(1, 4, 9);
+        dataLoaderRegistryFactory.close();
+    }
+
     @Test
     public void dispatchImmediately() throws InterruptedException {
         int MIN_DISPATCH_SIZE = 5;
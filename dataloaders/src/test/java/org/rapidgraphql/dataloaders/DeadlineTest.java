@@ -0,0 +1,271 @@
+package org.rapidgraphql.dataloaders;
+
+import graphql.GraphQLContext;
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeadlineTest {
+
+    public static class BudgetLoader extends GraphQLBatchLoader<Integer, String> {
+        final BlockingQueue<Object> deadlines = new LinkedBlockingQueue<>();
+        final AtomicInteger calls = new AtomicInteger();
+
+        public BudgetLoader() {
+            useCircuitBreaker(1, Duration.ofMinutes(1));
+        }
+
+        @Override
+        public List<String> syncLoad(List<Integer> keys) {
+            calls.incrementAndGet();
+            Deadline deadline = Deadline.current();
+            deadlines.add(deadline == null ? "none" : deadline);
+            return keys.stream().map(String::valueOf).toList();
+        }
+    }
+
+    private static DataFetchingEnvironment env(DataLoaderRegistry registry, Deadline deadline) {
+        DataFetchingEnvironment env = mock(DataFetchingEnvironment.class);
+        when(env.getDataLoaderRegistry()).thenReturn(registry);
+        when(env.getGraphQlContext()).thenReturn(deadline == null
+                ? GraphQLContext.newContext().build()
+                : GraphQLContext.of(Map.of(Deadline.class, deadline)));
+        return env;
+    }
+
+    @Test
+    public void batchLoadSeesDeadlineOfTheRequest() throws InterruptedException {
+        BudgetLoader loader = new BudgetLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoaderRegistry registry = factory.build();
+        Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+
+        CompletableFuture<List<String>> values = loader.getMany(List.of(1, 2), env(registry, deadline));
+        registry.dispatchAll();
+
+        assertThat(values).succeedsWithin(Duration.ofSeconds(5)).asList().containsExactly("1", "2");
+        assertThat(loader.deadlines.take()).isSameAs(deadline);
+        assertThat(deadline.remaining()).isPositive();
+        assertThat(Deadline.current()).isNull();
+        factory.close();
+    }
+
+    public static class OverridingLoader extends BudgetLoader {
+        final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletionStage<List<String>> load(List<Integer> keys) {
+            batches.add(keys);
+            return super.load(keys);
+        }
+    }
+
+    @Test
+    public void overriddenLoadIsCalledByDataLoaderWithDeadlineOfTheBatch() throws InterruptedException {
+        OverridingLoader loader = new OverridingLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoaderRegistry registry = factory.build();
+        Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+
+        CompletableFuture<List<String>> values = loader.getMany(List.of(1, 2), env(registry, deadline));
+        registry.dispatchAll();
+
+        assertThat(values).succeedsWithin(Duration.ofSeconds(5)).asList().containsExactly("1", "2");
+        assertThat(loader.batches).containsExactly(List.of(1, 2));
+        assertThat(loader.deadlines.take()).isSameAs(deadline);
+
+        // outside of DataLoader the batch has no deadline
+        assertThat(loader.load(List.of(3)).toCompletableFuture().join()).containsExactly("3");
+        assertThat(loader.deadlines.take()).isEqualTo("none");
+        factory.close();
+    }
+
+    @Test
+    public void batchOfExpiredRequestsIsSkipped() {
+        BudgetLoader loader = new BudgetLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoaderRegistry registry = factory.build();
+        DataFetchingEnvironment env = env(registry, Deadline.after(Duration.ZERO));
+
+        CompletableFuture<String> value = loader.get(1, env);
+        registry.dispatchAll();
+
+        assertThat(value).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(DeadlineExceededException.class);
+        assertThat(loader.calls).hasValue(0);
+        // skipped batch doesn't open the circuit
+        assertThat(loader.getCircuitState()).isEqualTo(BatchLoaderMetrics.CircuitState.CLOSED);
+        factory.close();
+    }
+
+    @Test
+    public void batchIsLoadedWhileAnyOfItsCallersWaits() throws InterruptedException {
+        BudgetLoader loader = new BudgetLoader();
+        loader.useScheduledDispatch(Duration.ZERO, 2);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoaderRegistry expiredRequest = factory.build();
+        DataLoaderRegistry requestWithoutDeadline = factory.build();
+
+        CompletableFuture<String> expired = loader.get(1, env(expiredRequest, Deadline.after(Duration.ZERO)));
+        CompletableFuture<String> waiting = loader.get(2, env(requestWithoutDeadline, null));
+        // keys of both requests are dispatched by the shared DataLoader in one batch
+        expiredRequest.dispatchAll();
+
+        assertThat(expired).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("1");
+        assertThat(waiting).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("2");
+        assertThat(loader.deadlines.take()).isEqualTo("none");
+        factory.close();
+    }
+
+    public static class DeduplicatingLoader extends BudgetLoader {
+        // batch loads wait here until the test runs them
+        final ConcurrentLinkedQueue<Runnable> queued = new ConcurrentLinkedQueue<>();
+
+        public DeduplicatingLoader() {
+            useInFlightDeduplication();
+            useExecutor(queued::add);
+        }
+
+        void runQueued() {
+            for (Runnable task = queued.poll(); task != null; task = queued.poll()) {
+                task.run();
+            }
+        }
+    }
+
+    @Test
+    public void keySkippedByExpiredRequestIsFetchedByAttachedRequest() throws InterruptedException {
+        DeduplicatingLoader loader = new DeduplicatingLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoaderRegistry expiringRequest = factory.build();
+        DataLoaderRegistry waitingRequest = factory.build();
+        Deadline shortDeadline = Deadline.after(Duration.ofMillis(50));
+        Deadline longDeadline = Deadline.after(Duration.ofMinutes(1));
+
+        CompletableFuture<String> expired = loader.get(1, env(expiringRequest, shortDeadline));
+        expiringRequest.dispatchAll();
+        // key 1 is in flight, the waiting request attaches to it and loads only key 2
+        CompletableFuture<List<String>> waiting = loader.getMany(List.of(1, 2), env(waitingRequest, longDeadline));
+        waitingRequest.dispatchAll();
+        while (!shortDeadline.isExpired()) {
+            Thread.sleep(10);
+        }
+        loader.runQueued();
+
+        assertThat(expired).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(DeadlineExceededException.class);
+        assertThat(waiting).succeedsWithin(Duration.ofSeconds(5)).asList().containsExactly("1", "2");
+        assertThat(loader.deadlines).containsOnly(longDeadline).hasSize(2);
+        assertThat(loader.getInFlightTable().size()).isZero();
+        factory.close();
+    }
+
+    // remote cache answering on its own threads
+    static class AsyncBatchValueCache implements BatchValueCache<Integer, String> {
+        final Map<Integer, String> values = new ConcurrentHashMap<>();
+
+        @Override
+        public CompletableFuture<Map<Integer, String>> getAll(List<Integer> keys) {
+            return CompletableFuture.supplyAsync(() -> {
+                Map<Integer, String> found = new HashMap<>();
+                keys.forEach(key -> {
+                    if (values.containsKey(key)) {
+                        found.put(key, values.get(key));
+                    }
+                });
+                return found;
+            }, CompletableFuture.delayedExecutor(10, TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public CompletableFuture<Void> putAll(Map<Integer, String> entries) {
+            values.putAll(entries);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> deleteAll(Collection<Integer> keys) {
+            keys.forEach(values::remove);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> clear() {
+            values.clear();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    @Test
+    public void deadlineReachesLoadAfterAsynchronousValueCache() throws InterruptedException {
+        BudgetLoader loader = new BudgetLoader();
+        AsyncBatchValueCache cache = new AsyncBatchValueCache();
+        cache.values.put(1, "1");
+        loader.useBatchValueCache(cache);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+
+        // all keys are in the cache, the loader isn't called
+        DataLoaderRegistry cachedRequest = factory.build();
+        CompletableFuture<String> cached = loader.get(1, env(cachedRequest, Deadline.after(Duration.ZERO)));
+        cachedRequest.dispatchAll();
+        assertThat(cached).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("1");
+
+        DataLoaderRegistry registry = factory.build();
+        CompletableFuture<List<String>> values = loader.getMany(List.of(1, 2), env(registry, deadline));
+        registry.dispatchAll();
+
+        assertThat(values).succeedsWithin(Duration.ofSeconds(5)).asList().containsExactly("1", "2");
+        assertThat(loader.deadlines.take()).isSameAs(deadline);
+        factory.close();
+    }
+
+    public static class StreamingLoader extends GraphQLStreamingBatchLoader<String, String> {
+        volatile Deadline deadline;
+
+        @Override
+        public void syncLoad(Set<String> keys, BiConsumer<String, String> emitter) {
+            deadline = Deadline.current();
+            keys.forEach(key -> emitter.accept(key, key + "-row"));
+        }
+    }
+
+    @Test
+    public void streamingLoaderPassesDeadlineWithEarlyFutures() {
+        StreamingLoader loader = new StreamingLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoaderRegistry registry = factory.build();
+        Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+
+        CompletableFuture<String> value = loader.get("a", env(registry, deadline));
+        registry.dispatchAll();
+
+        assertThat(value).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("a-row");
+        assertThat(loader.deadline).isSameAs(deadline);
+        factory.close();
+    }
+}
@@ -0,0 +1,129 @@
+package org.rapidgraphql.dataloaders;
+
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DispatchWindowTest {
+
+    public static class WindowedLoader extends GraphQLMappedBatchLoader<Integer, Integer> {
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        public WindowedLoader(Duration window, Duration maxLatency, int minDispatchSize) {
+            useDispatchWindow(window, maxLatency, minDispatchSize);
+        }
+
+        @Override
+        public Map<Integer, Integer> syncLoad(Set<Integer> keys) {
+            batchSizes.add(keys.size());
+            return keys.stream().collect(Collectors.toMap(key -> key, key -> key * 2));
+        }
+    }
+
+    @Test
+    public void keysOfDifferentRequestsAreBatchedWithinWindow() {
+        WindowedLoader loader = new WindowedLoader(Duration.ofMillis(50), Duration.ofMillis(200), 1);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+
+        List<DataLoaderRegistry> registries = IntStream.range(0, 10).mapToObj(i -> factory.build()).toList();
+        List<DataFetchingEnvironment> environments = registries.stream().map(DispatchWindowTest::environment).toList();
+
+        List<CompletableFuture<Integer>> values = IntStream.range(0, 10)
+                .mapToObj(key -> {
+                    CompletableFuture<Integer> value = loader.get(key, environments.get(key));
+                    registries.get(key).dispatchAll();
+                    return value;
+                })
+                .toList();
+
+        assertThat(values.stream().map(CompletableFuture::join).toList())
+                .containsExactly(0, 2, 4, 6, 8, 10, 12, 14, 16, 18);
+        assertThat(loader.batchSizes).containsExactly(10);
+        assertThat(registries).allSatisfy(registry -> assertThat(registry.getKeys()).isEmpty());
+        factory.close();
+    }
+
+    @Test
+    public void smallBatchIsDispatchedAfterMaxLatency() {
+        WindowedLoader loader = new WindowedLoader(Duration.ofMillis(10), Duration.ofMillis(100), 1000);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataFetchingEnvironment env = environment(factory.build());
+
+        long start = System.nanoTime();
+        CompletableFuture<List<Integer>> values = loader.getMany(List.of(1, 2, 3), env);
+
+        assertThat(values.join()).containsExactly(2, 4, 6);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(loader.batchSizes).containsExactly(3);
+        factory.close();
+    }
+
+    public static class CallerRunsLoader extends WindowedLoader {
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        public CallerRunsLoader() {
+            super(Duration.ofMillis(5), Duration.ofMillis(10), 1);
+            // load runs in the dispatching thread
+            useExecutor(Runnable::run);
+        }
+
+        @Override
+        public Map<Integer, Integer> syncLoad(Set<Integer> keys) {
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.syncLoad(keys);
+        }
+    }
+
+    @Test
+    public void loadRunningInDispatchingThreadDoesNotDelayOtherWindows() {
+        CallerRunsLoader blockingLoader = new CallerRunsLoader();
+        WindowedLoader loader = new WindowedLoader(Duration.ofMillis(5), Duration.ofMillis(10), 1);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(blockingLoader, loader));
+        DataFetchingEnvironment env = environment(factory.build());
+
+        CompletableFuture<Integer> blocked = blockingLoader.get(1, env);
+        assertThat(loader.get(2, env)).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(4);
+        assertThat(blocked).isNotDone();
+        blockingLoader.gate.countDown();
+        assertThat(blocked).succeedsWithin(Duration.ofSeconds(5)).isEqualTo(2);
+        factory.close();
+    }
+
+    @Test
+    public void tickerRunsTasksInDeadlineOrder() throws InterruptedException {
+        DispatchTicker ticker = new DispatchTicker("test-ticker", TimeUnit.MILLISECONDS.toNanos(1), 8);
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        ticker.schedule(() -> { executed.add(30); latch.countDown(); }, TimeUnit.MILLISECONDS.toNanos(30));
+        ticker.schedule(() -> { executed.add(1); latch.countDown(); }, TimeUnit.MILLISECONDS.toNanos(1));
+        ticker.schedule(() -> { executed.add(12); latch.countDown(); }, TimeUnit.MILLISECONDS.toNanos(12));
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executed).containsExactly(1, 12, 30);
+    }
+
+    private static DataFetchingEnvironment environment(DataLoaderRegistry registry) {
+        DataFetchingEnvironment env = mock(DataFetchingEnvironment.class);
+        when(env.getDataLoaderRegistry()).thenReturn(registry);
+        return env;
+    }
+}
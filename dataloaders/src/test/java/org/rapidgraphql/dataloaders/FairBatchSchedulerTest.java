@@ -0,0 +1,164 @@
+package org.rapidgraphql.dataloaders;
+
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FairBatchSchedulerTest {
+    private static final BatchLoadGuard GUARD = new BatchLoadGuard("test");
+
+    public static class LimitedLoader extends GraphQLBatchLoader<String, String> {
+        final List<String> started = new CopyOnWriteArrayList<>();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch firstBatchGate = new CountDownLatch(1);
+
+        public LimitedLoader(int maxConcurrentBatches) {
+            setMaxBatchSize(1);
+            setMaxConcurrentBatches(maxConcurrentBatches);
+        }
+
+        @Override
+        public List<String> syncLoad(List<String> keys) {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.addAll(keys);
+            try {
+                if (keys.contains("a1")) {
+                    firstBatchGate.await(5, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return keys;
+        }
+    }
+
+    @Test
+    public void queuedBatchesAreStartedRoundRobinAcrossRequests() {
+        LimitedLoader loader = new LimitedLoader(1);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoaderRegistry heavyRegistry = factory.build();
+        DataLoaderRegistry lightRegistry = factory.build();
+
+        CompletableFuture<List<String>> heavy = loader.getMany(List.of("a1", "a2", "a3", "a4"), environment(heavyRegistry));
+        loader.registerIn(heavyRegistry).dispatch();
+        CompletableFuture<List<String>> light = loader.getMany(List.of("b1", "b2"), environment(lightRegistry));
+        loader.registerIn(lightRegistry).dispatch();
+        loader.firstBatchGate.countDown();
+
+        assertThat(heavy.join()).containsExactly("a1", "a2", "a3", "a4");
+        assertThat(light.join()).containsExactly("b1", "b2");
+        assertThat(loader.started).containsExactly("a1", "a2", "b1", "a3", "b2", "a4");
+        factory.close();
+    }
+
+    @Test
+    public void concurrentBatchesAreLimited() {
+        LimitedLoader loader = new LimitedLoader(3);
+        loader.firstBatchGate.countDown();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoaderRegistry registry = factory.build();
+        DataLoader<String, String> dataLoader = loader.registerIn(registry);
+
+        List<String> keys = IntStream.range(0, 50).mapToObj(i -> "k" + i).toList();
+        dataLoader.loadMany(keys);
+
+        assertThat(dataLoader.dispatchAndJoin()).isEqualTo(keys);
+        assertThat(loader.maxRunning.get()).isLessThanOrEqualTo(3);
+        assertThat(loader.started).hasSize(50);
+        factory.close();
+    }
+
+    @Test
+    public void batchesCompletingSynchronouslyAreStartedWithoutRecursion() {
+        FairBatchScheduler scheduler = new FairBatchScheduler(1);
+        Object source = new Object();
+        CompletableFuture<Integer> firstBatch = new CompletableFuture<>();
+        scheduler.submit(source, GUARD, () -> firstBatch);
+        List<CompletableFuture<Integer>> queued = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            int value = i;
+            queued.add(scheduler.submit(source, GUARD, () -> CompletableFuture.completedFuture(value)));
+        }
+        assertThat(scheduler.getQueuedCount()).isEqualTo(100_000);
+
+        firstBatch.complete(-1);
+
+        assertThat(queued).allMatch(batch -> batch.isDone() && !batch.isCompletedExceptionally());
+        assertThat(scheduler.getQueuedCount()).isZero();
+    }
+
+    public static class SlowLoader extends GraphQLBatchLoader<Integer, Integer> {
+        public SlowLoader() {
+            setMaxBatchSize(1);
+            setMaxConcurrentBatches(1);
+            setBatchTimeout(Duration.ofMillis(300));
+        }
+
+        @Override
+        public List<Integer> syncLoad(List<Integer> keys) {
+            try {
+                Thread.sleep(150);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return keys;
+        }
+    }
+
+    @Test
+    public void timeWaitingInQueueDoesNotCountTowardsTimeout() {
+        SlowLoader loader = new SlowLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoader<Integer, Integer> dataLoader = loader.registerIn(factory.build());
+
+        dataLoader.loadMany(List.of(1, 2, 3, 4));
+
+        // the last batch waits for three batches of 150ms, longer than the timeout
+        assertThat(dataLoader.dispatchAndJoin()).containsExactly(1, 2, 3, 4);
+        factory.close();
+    }
+
+    @Test
+    public void batchCompletedWhileQueuedIsNotStarted() {
+        FairBatchScheduler scheduler = new FairBatchScheduler(1);
+        Object source = new Object();
+        CompletableFuture<Integer> firstBatch = new CompletableFuture<>();
+        scheduler.submit(source, GUARD, () -> firstBatch);
+        AtomicInteger started = new AtomicInteger();
+        CompletableFuture<Integer> cancelled = scheduler.submit(source, GUARD, () -> {
+            started.incrementAndGet();
+            return CompletableFuture.completedFuture(2);
+        });
+        CompletableFuture<Integer> next = scheduler.submit(source, GUARD, () -> CompletableFuture.completedFuture(3));
+
+        cancelled.cancel(false);
+        firstBatch.complete(1);
+
+        assertThat(started).hasValue(0);
+        assertThat(next).isCompletedWithValue(3);
+        assertThat(scheduler.getQueuedCount()).isZero();
+    }
+
+    private static DataFetchingEnvironment environment(DataLoaderRegistry registry) {
+        DataFetchingEnvironment env = mock(DataFetchingEnvironment.class);
+        when(env.getDataLoaderRegistry()).thenReturn(registry);
+        return env;
+    }
+}
@@ -0,0 +1,102 @@
+package org.rapidgraphql.dataloaders;
+
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GraphQLStreamingBatchLoaderTest {
+
+    public static class CursorLoader extends GraphQLStreamingBatchLoader<String, String> {
+        final CountDownLatch slowRowGate = new CountDownLatch(1);
+
+        @Override
+        public void syncLoad(Set<String> keys, BiConsumer<String, String> emitter) {
+            if (keys.contains("fast")) {
+                emitter.accept("fast", "fast-row");
+            }
+            try {
+                slowRowGate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (keys.contains("slow")) {
+                emitter.accept("slow", "slow-row");
+            }
+        }
+    }
+
+    @Test
+    public void keysCompleteAsSoonAsTheirValuesAreEmitted() {
+        CursorLoader loader = new CursorLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoaderRegistry registry = factory.build();
+        DataFetchingEnvironment env = mock(DataFetchingEnvironment.class);
+        when(env.getDataLoaderRegistry()).thenReturn(registry);
+
+        CompletableFuture<String> fast = loader.get("fast", env);
+        CompletableFuture<String> slow = loader.get("slow", env);
+        CompletableFuture<String> missing = loader.get("missing", env);
+        CompletableFuture<String> duplicate = loader.get("fast", env);
+        registry.dispatchAll();
+
+        assertThat(fast).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("fast-row");
+        assertThat(slow).isNotDone();
+        assertThat(missing).isNotDone();
+        loader.slowRowGate.countDown();
+        assertThat(slow).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("slow-row");
+        assertThat(missing).succeedsWithin(Duration.ofSeconds(5)).isNull();
+        assertThat(duplicate).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("fast-row");
+        factory.close();
+    }
+
+    @Test
+    public void duplicateKeysCompleteEarlyWithoutCaching() {
+        CursorLoader loader = new CursorLoader();
+        loader.getDataLoaderOptions().setCachingEnabled(false);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoaderRegistry registry = factory.build();
+        DataFetchingEnvironment env = mock(DataFetchingEnvironment.class);
+        when(env.getDataLoaderRegistry()).thenReturn(registry);
+
+        CompletableFuture<String> fast = loader.get("fast", env);
+        CompletableFuture<String> duplicate = loader.get("fast", env);
+        CompletableFuture<String> slow = loader.get("slow", env);
+        registry.dispatchAll();
+
+        assertThat(fast).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("fast-row");
+        assertThat(duplicate).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("fast-row");
+        assertThat(slow).isNotDone();
+        loader.slowRowGate.countDown();
+        assertThat(slow).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("slow-row");
+        factory.close();
+    }
+
+    @Test
+    public void getManyCombinesStreamedValues() {
+        CursorLoader loader = new CursorLoader();
+        loader.slowRowGate.countDown();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoaderRegistry registry = factory.build();
+        DataFetchingEnvironment env = mock(DataFetchingEnvironment.class);
+        when(env.getDataLoaderRegistry()).thenReturn(registry);
+
+        CompletableFuture<List<String>> values = loader.getMany(List.of("slow", "missing", "fast"), env);
+        registry.dispatchAll();
+
+        assertThat(values).succeedsWithin(Duration.ofSeconds(5)).asList()
+                .containsExactly("slow-row", null, "fast-row");
+        factory.close();
+    }
+}
@@ -0,0 +1,37 @@
+package org.rapidgraphql.dataloaders;
+
+import com.google.common.cache.CacheBuilder;
+import org.dataloader.Try;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GuavaValueCacheTest {
+
+    @Test
+    public void getValuesReturnsHitsAndMissesInOneCall() {
+        GuavaValueCache<Integer, String> cache = new GuavaValueCache<>(CacheBuilder.newBuilder().build());
+        cache.set(1, "one");
+        cache.set(3, "three");
+
+        List<Try<String>> values = cache.getValues(List.of(1, 2, 3, 4)).join();
+
+        assertThat(values).extracting(Try::isSuccess).containsExactly(true, false, true, false);
+        assertThat(values.get(0).get()).isEqualTo("one");
+        assertThat(values.get(2).get()).isEqualTo("three");
+        assertThat(values.get(1)).isSameAs(values.get(3));
+    }
+
+    @Test
+    public void missesShareFailedFuture() {
+        GuavaValueCache<Integer, String> cache = new GuavaValueCache<>(CacheBuilder.newBuilder().build());
+
+        CompletableFuture<String> miss = cache.get(1);
+
+        assertThat(miss).isCompletedExceptionally();
+        assertThat(cache.get(2)).isSameAs(miss);
+    }
+}
@@ -0,0 +1,158 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.DataLoader;
+import org.dataloader.Try;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InFlightDeduplicationTest {
+
+    public static class SlowLoader extends GraphQLBatchLoader<String, String> {
+        final List<String> loaded = new CopyOnWriteArrayList<>();
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        public SlowLoader() {
+            useInFlightDeduplication();
+        }
+
+        @Override
+        public List<String> syncLoad(List<String> keys) {
+            loaded.addAll(keys);
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return keys.stream().map(key -> key.equals("missing") ? null : key.toUpperCase()).toList();
+        }
+    }
+
+    public static class SlowMappedLoader extends GraphQLMappedBatchLoader<String, String> {
+        final List<String> loaded = new CopyOnWriteArrayList<>();
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        public SlowMappedLoader() {
+            useInFlightDeduplication();
+        }
+
+        @Override
+        public Map<String, String> syncLoad(Set<String> keys) {
+            loaded.addAll(keys);
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return keys.stream().collect(Collectors.toMap(key -> key, String::toUpperCase));
+        }
+    }
+
+    @Test
+    public void keyInFlightIsNotFetchedAgain() {
+        SlowLoader loader = new SlowLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoader<String, String> first = loader.registerIn(factory.build());
+        DataLoader<String, String> second = loader.registerIn(factory.build());
+
+        first.loadMany(List.of("a", "missing"));
+        CompletableFuture<List<String>> firstValues = first.dispatch();
+        second.loadMany(List.of("b", "a", "missing"));
+        CompletableFuture<List<String>> secondValues = second.dispatch();
+        loader.gate.countDown();
+
+        assertThat(firstValues.join()).containsExactly("A", null);
+        assertThat(secondValues.join()).containsExactly("B", "A", null);
+        assertThat(loader.loaded).containsExactlyInAnyOrder("a", "missing", "b");
+        assertThat(loader.getInFlightTable().size()).isZero();
+        factory.close();
+    }
+
+    @Test
+    public void mappedLoaderKeyInFlightIsNotFetchedAgain() {
+        SlowMappedLoader loader = new SlowMappedLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoader<String, String> first = loader.registerIn(factory.build());
+        DataLoader<String, String> second = loader.registerIn(factory.build());
+
+        first.loadMany(List.of("a", "b"));
+        CompletableFuture<List<String>> firstValues = first.dispatch();
+        second.loadMany(List.of("b", "c"));
+        CompletableFuture<List<String>> secondValues = second.dispatch();
+        loader.gate.countDown();
+
+        assertThat(firstValues.join()).containsExactly("A", "B");
+        assertThat(secondValues.join()).containsExactly("B", "C");
+        assertThat(loader.loaded).containsExactlyInAnyOrder("a", "b", "c");
+        assertThat(loader.getInFlightTable().size()).isZero();
+        factory.close();
+    }
+
+    @Test
+    public void keyIsFetchedAgainAfterBatchCompletes() {
+        SlowLoader loader = new SlowLoader();
+        loader.gate.countDown();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+
+        DataLoader<String, String> first = loader.registerIn(factory.build());
+        first.load("a");
+        assertThat(first.dispatchAndJoin()).containsExactly("A");
+        DataLoader<String, String> second = loader.registerIn(factory.build());
+        second.load("a");
+        assertThat(second.dispatchAndJoin()).containsExactly("A");
+
+        assertThat(loader.loaded).containsExactly("a", "a");
+        factory.close();
+    }
+
+    @Test
+    public void failureIsPropagatedToAttachedKeysOnly() {
+        InFlightTable<String, String> table = new InFlightTable<>();
+        CompletableFuture<Map<String, String>> running = new CompletableFuture<>();
+
+        CompletableFuture<Map<String, String>> first = table.load(List.of("a"), keys -> running);
+        CompletableFuture<Map<String, String>> second = table.load(List.of("a", "b"),
+                keys -> CompletableFuture.completedFuture(Map.of("b", "B")));
+        running.completeExceptionally(new IllegalStateException("failed"));
+
+        assertThat(first).isCompletedExceptionally();
+        assertThat(second).isCompleted();
+        assertThat(second.join().get("b")).isEqualTo("B");
+        assertThat((Object) second.join().get("a")).isInstanceOfSatisfying(Try.class,
+                value -> assertThat(value.getThrowable()).isInstanceOf(IllegalStateException.class));
+        assertThat(table.size()).isZero();
+    }
+
+    @Test
+    public void failedKeyInFlightFailsOnlyThatKeyOfAttachedBatch() {
+        SlowLoader loader = new SlowLoader();
+        loader.gate.countDown();
+        // another request is fetching the key which will fail
+        CompletableFuture<Map<String, String>> running = new CompletableFuture<>();
+        loader.getInFlightTable().load(List.of("poison"), keys -> running);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoader<String, String> dataLoader = loader.registerIn(factory.build());
+
+        CompletableFuture<String> poisoned = dataLoader.load("poison");
+        CompletableFuture<String> healthy = dataLoader.load("a");
+        dataLoader.dispatch();
+        running.completeExceptionally(new IllegalStateException("poison"));
+
+        assertThat(healthy).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("A");
+        assertThat(poisoned).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IllegalStateException.class);
+        factory.close();
+    }
+}
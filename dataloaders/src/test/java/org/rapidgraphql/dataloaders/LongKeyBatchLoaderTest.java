@@ -0,0 +1,74 @@
+package org.rapidgraphql.dataloaders;
+
+import org.dataloader.DataLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongKeyBatchLoaderTest {
+
+    public static class NameLoader extends LongKeyBatchLoader<String> {
+        final List<long[]> batches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public List<String> syncLoad(long[] keys) {
+            batches.add(keys);
+            return Arrays.stream(keys).mapToObj(key -> key < 0 ? null : "name" + key).toList();
+        }
+    }
+
+    public static class MappedNameLoader extends LongKeyMappedBatchLoader<String> {
+        final List<long[]> batches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public LongObjectHashMap<String> syncLoad(long[] keys) {
+            batches.add(keys);
+            LongObjectHashMap<String> result = new LongObjectHashMap<>(keys.length);
+            for (long key : keys) {
+                if (key >= 0) {
+                    result.put(key, "name" + key);
+                }
+            }
+            return result;
+        }
+    }
+
+    @Test
+    public void keysArePassedAsPrimitiveArray() {
+        NameLoader loader = new NameLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoader<Long, String> dataLoader = loader.registerIn(factory.build());
+
+        dataLoader.loadMany(List.of(3L, -1L, 7L));
+
+        assertThat(dataLoader.dispatchAndJoin()).containsExactly("name3", null, "name7");
+        assertThat(loader.batches).singleElement().isEqualTo(new long[]{3L, -1L, 7L});
+        factory.close();
+    }
+
+    @Test
+    public void mappedLoaderResultIsResolvedByKey() {
+        MappedNameLoader loader = new MappedNameLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoader<Long, String> dataLoader = loader.registerIn(factory.build());
+
+        dataLoader.loadMany(List.of(3L, -1L, 7L));
+
+        assertThat(dataLoader.dispatchAndJoin()).containsExactly("name3", null, "name7");
+        assertThat(loader.batches).singleElement()
+                .satisfies(keys -> assertThat(keys).containsExactlyInAnyOrder(3L, -1L, 7L));
+        factory.close();
+    }
+
+    @Test
+    public void cacheLoadSkipsMissingEntities() {
+        MappedNameLoader loader = new MappedNameLoader();
+
+        assertThat(loader.loadForCache(Set.of(1L, -1L))).containsOnlyKeys(1L);
+    }
+}
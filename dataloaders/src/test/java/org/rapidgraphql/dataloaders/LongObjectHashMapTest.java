@@ -0,0 +1,48 @@
+package org.rapidgraphql.dataloaders;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongObjectHashMapTest {
+
+    @Test
+    public void behavesLikeHashMap() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(2);
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextInt(5_000) - 2_500L;
+            String value = i % 7 == 0 ? null : "v" + i;
+            assertThat(map.put(key, value)).isEqualTo(expected.put(key, value));
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        assertThat(map.asMap()).isEqualTo(expected);
+        expected.forEach((key, value) -> {
+            assertThat(map.containsKey(key)).isTrue();
+            assertThat(map.get(key)).isEqualTo(value);
+        });
+        assertThat(map.containsKey(Long.MAX_VALUE)).isFalse();
+        assertThat(map.get(Long.MAX_VALUE)).isNull();
+    }
+
+    @Test
+    public void zeroKeyAndNullValuesAreStored() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        map.put(0L, null);
+        map.put(1L, "one");
+
+        Map<Long, String> visited = new HashMap<>();
+        map.forEach(visited::put);
+
+        assertThat(map.containsKey(0L)).isTrue();
+        assertThat(map.containsKey(2L)).isFalse();
+        assertThat(visited).containsOnlyKeys(0L, 1L).containsEntry(1L, "one");
+        assertThat(map.asMap().get("1")).isNull();
+    }
+}
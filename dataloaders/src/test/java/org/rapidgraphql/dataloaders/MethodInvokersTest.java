@@ -0,0 +1,63 @@
+package org.rapidgraphql.dataloaders;
+
+import org.junit.jupiter.api.Test;
+import org.rapidgraphql.annotations.DataLoaderMethod;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MethodInvokersTest {
+    public static class Loaders implements GraphQLDataLoader {
+        @DataLoaderMethod("lengths")
+        public List<Integer> lengths(List<String> keys) {
+            return keys.stream().map(String::length).toList();
+        }
+
+        @DataLoaderMethod("doubles")
+        private Map<Integer, Integer> doubles(Set<Integer> keys) {
+            return keys.stream().collect(Collectors.toMap(key -> key, key -> key * 2));
+        }
+
+        @DataLoaderMethod("failing")
+        public List<Integer> failing(List<String> keys) {
+            throw new IllegalStateException("failure");
+        }
+    }
+
+    @Test
+    public void bindsPublicMethod() throws NoSuchMethodException {
+        Method method = Loaders.class.getDeclaredMethod("lengths", List.class);
+        Function<List<String>, List<Integer>> invoker = MethodInvokers.bind(new Loaders(), method);
+        assertThat(invoker.apply(List.of("a", "bb", "ccc"))).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    public void bindsPrivateMethod() throws NoSuchMethodException {
+        Method method = Loaders.class.getDeclaredMethod("doubles", Set.class);
+        Function<Set<Integer>, Map<Integer, Integer>> invoker = MethodInvokers.bind(new Loaders(), method);
+        assertThat(invoker.apply(Set.of(1, 2))).containsExactlyInAnyOrderEntriesOf(Map.of(1, 2, 2, 4));
+    }
+
+    @Test
+    public void propagatesExceptionUnwrapped() throws NoSuchMethodException {
+        Method method = Loaders.class.getDeclaredMethod("failing", List.class);
+        Function<List<String>, List<Integer>> invoker = MethodInvokers.bind(new Loaders(), method);
+        assertThatThrownBy(() -> invoker.apply(List.of("a")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("failure");
+    }
+
+    @Test
+    public void rejectsMethodsWithWrongNumberOfParameters() throws NoSuchMethodException {
+        Method method = Object.class.getDeclaredMethod("hashCode");
+        assertThatThrownBy(() -> MethodInvokers.bind(new Object(), method))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,84 @@
+package org.rapidgraphql.dataloaders;
+
+import com.google.common.cache.CacheBuilder;
+import org.dataloader.DataLoader;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.rapidgraphql.dataloaders.BatchLoaderMetrics.CacheType.NEGATIVE;
+import static org.rapidgraphql.dataloaders.BatchLoaderMetrics.CacheType.VALUE;
+
+class NegativeCacheTest {
+
+    public static class ProductLoader extends GraphQLMappedBatchLoader<Integer, String> {
+        final List<Integer> loadedKeys = new CopyOnWriteArrayList<>();
+
+        public ProductLoader(Duration negativeTtl, boolean valueCache) {
+            if (valueCache) {
+                useValueCache(CacheBuilder.newBuilder().maximumSize(100).build());
+            }
+            useNegativeCache(negativeTtl, 100);
+        }
+
+        @Override
+        public Map<Integer, String> syncLoad(Set<Integer> keys) {
+            loadedKeys.addAll(keys);
+            return keys.stream().filter(key -> key > 0).collect(Collectors.toMap(key -> key, key -> "product" + key));
+        }
+    }
+
+    @Test
+    public void absentKeysAreNotLoadedAgain() {
+        ProductLoader loader = new ProductLoader(Duration.ofMinutes(1), false);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+
+        assertThat(load(loader, factory, List.of(1, -1, -2))).containsExactly("product1", null, null);
+        assertThat(load(loader, factory, List.of(1, -1, -2))).containsExactly("product1", null, null);
+
+        assertThat(loader.loadedKeys).containsExactlyInAnyOrder(1, -1, -2, 1);
+        assertThat(loader.getCacheHitCount(NEGATIVE)).isEqualTo(2);
+        assertThat(loader.getCacheMissCount(NEGATIVE)).isEqualTo(4);
+        factory.close();
+    }
+
+    @Test
+    public void negativeCacheIsCombinedWithValueCache() {
+        ProductLoader loader = new ProductLoader(Duration.ofMinutes(1), true);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+
+        assertThat(load(loader, factory, List.of(1, -1))).containsExactly("product1", null);
+        assertThat(load(loader, factory, List.of(-1, 1, 2))).containsExactly(null, "product1", "product2");
+
+        assertThat(loader.loadedKeys).containsExactlyInAnyOrder(1, -1, 2);
+        assertThat(loader.getCacheHitCount(VALUE)).isEqualTo(1);
+        assertThat(loader.getCacheHitCount(NEGATIVE)).isEqualTo(1);
+        factory.close();
+    }
+
+    @Test
+    public void absentKeysExpire() throws InterruptedException {
+        ProductLoader loader = new ProductLoader(Duration.ofMillis(20), false);
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+
+        load(loader, factory, List.of(-1));
+        Thread.sleep(50);
+        load(loader, factory, List.of(-1));
+
+        assertThat(loader.loadedKeys).containsExactly(-1, -1);
+        factory.close();
+    }
+
+    private static List<String> load(ProductLoader loader, DataLoaderRegistryFactory factory, List<Integer> keys) {
+        DataLoader<Integer, String> dataLoader = loader.registerIn(factory.build());
+        var values = dataLoader.loadMany(keys);
+        dataLoader.dispatch();
+        return values.join();
+    }
+}
@@ -0,0 +1,171 @@
+package org.rapidgraphql.dataloaders;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import org.dataloader.DataLoader;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshingFutureCacheTest {
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+    private final BlockingQueue<Set<Integer>> refreshedKeys = new LinkedBlockingQueue<>();
+    private final BlockingQueue<CompletableFuture<Map<Integer, String>>> refreshes = new LinkedBlockingQueue<>();
+
+    private RefreshingFutureCache<Integer, String> newCache() {
+        DispatchTicker dispatchTicker = new DispatchTicker("test-ticker", TimeUnit.MILLISECONDS.toNanos(20), 8);
+        return new RefreshingFutureCache<>(CacheBuilder.newBuilder(), Duration.ofSeconds(1), Duration.ofSeconds(10),
+                ticker, dispatchTicker, keys -> {
+                    CompletableFuture<Map<Integer, String>> refresh = new CompletableFuture<>();
+                    refreshedKeys.add(keys);
+                    refreshes.add(refresh);
+                    return refresh;
+                });
+    }
+
+    @Test
+    public void staleValueIsServedWhileRefreshed() throws InterruptedException {
+        RefreshingFutureCache<Integer, String> cache = newCache();
+        cache.set(1, CompletableFuture.completedFuture("v1"));
+        cache.set(2, CompletableFuture.completedFuture("v2"));
+        cache.set(3, CompletableFuture.completedFuture("v3"));
+
+        assertThat(cache.get(1)).isCompletedWithValue("v1");
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(cache.get(1)).isCompletedWithValue("v1");
+        assertThat(cache.get(1)).isCompletedWithValue("v1");
+        assertThat(cache.get(2)).isCompletedWithValue("v2");
+        assertThat(cache.get(3)).isCompletedWithValue("v3");
+
+        assertThat(refreshedKeys.poll(5, TimeUnit.SECONDS)).containsExactlyInAnyOrder(1, 2, 3);
+        refreshes.take().complete(Map.of(1, "v1'", 2, "v2'"));
+
+        // refresh result is applied by the ticker thread, which could subscribe after the completion
+        assertThat(CompletableFuture.supplyAsync(() -> {
+            while (cache.containsKey(3)) {
+                Thread.onSpinWait();
+            }
+            return cache.get(1).join();
+        })).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("v1'");
+        assertThat(cache.get(2)).isCompletedWithValue("v2'");
+        assertThat(cache.containsKey(3)).isFalse();
+        assertThat(refreshedKeys).isEmpty();
+    }
+
+    @Test
+    public void failedRefreshKeepsStaleValue() throws InterruptedException {
+        RefreshingFutureCache<Integer, String> cache = newCache();
+        cache.set(1, CompletableFuture.completedFuture("v1"));
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        assertThat(cache.get(1)).isCompletedWithValue("v1");
+        assertThat(refreshedKeys.poll(5, TimeUnit.SECONDS)).containsExactly(1);
+        refreshes.take().completeExceptionally(new IllegalStateException("backend is down"));
+
+        // failure is handled asynchronously, the next access after it retries the refresh
+        Set<Integer> retried = null;
+        for (int i = 0; i < 100 && retried == null; i++) {
+            assertThat(cache.get(1)).isCompletedWithValue("v1");
+            retried = refreshedKeys.poll(50, TimeUnit.MILLISECONDS);
+        }
+        assertThat(retried).containsExactly(1);
+    }
+
+    @Test
+    public void valueIsExpiredAfterMaxStaleness() {
+        RefreshingFutureCache<Integer, String> cache = newCache();
+        cache.set(1, CompletableFuture.completedFuture("v1"));
+        nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        assertThat(cache.containsKey(1)).isFalse();
+        assertThat(cache.get(1)).isNull();
+    }
+
+    @Test
+    public void pendingLoadIsNotRefreshed() throws InterruptedException {
+        RefreshingFutureCache<Integer, String> cache = newCache();
+        cache.set(1, new CompletableFuture<>());
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        assertThat(cache.get(1)).isNotDone();
+        assertThat(refreshedKeys.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    public static class RefreshingLoader extends GraphQLMappedBatchLoader<Integer, String> {
+        final BlockingQueue<Set<Integer>> batches = new LinkedBlockingQueue<>();
+        volatile String version = "a";
+
+        public RefreshingLoader() {
+            useRefreshingFutureCache(CacheBuilder.newBuilder().maximumSize(100), Duration.ofMillis(50), Duration.ofMinutes(1));
+        }
+
+        @Override
+        public Map<Integer, String> syncLoad(Set<Integer> keys) {
+            batches.add(keys);
+            return keys.stream().collect(Collectors.toMap(key -> key, key -> version + key));
+        }
+    }
+
+    @Test
+    public void sharedLoaderRefreshesInBackground() throws InterruptedException {
+        RefreshingLoader loader = new RefreshingLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+        DataLoader<Integer, String> dataLoader = loader.registerIn(factory.build());
+        CompletableFuture<List<String>> first = dataLoader.loadMany(List.of(1, 2));
+        dataLoader.dispatch();
+        assertThat(first.join()).containsExactly("a1", "a2");
+        assertThat(loader.batches.take()).containsExactlyInAnyOrder(1, 2);
+
+        loader.version = "b";
+        Thread.sleep(100);
+        // both keys become stale within one tick, so they are refreshed in background by one batch
+        CountDownLatch release = holdTicker(DispatchTicker.getDefault());
+        assertThat(dataLoader.loadMany(List.of(1, 2))).isCompletedWithValue(List.of("a1", "a2"));
+        release.countDown();
+        assertThat(loader.batches.poll(5, TimeUnit.SECONDS)).containsExactlyInAnyOrder(1, 2);
+
+        CompletableFuture<String> refreshed = CompletableFuture.supplyAsync(() -> {
+            String value;
+            while ((value = dataLoader.load(1).join()).equals("a1")) {
+                Thread.onSpinWait();
+            }
+            return value;
+        });
+        assertThat(refreshed).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("b1");
+        factory.close();
+    }
+
+    // occupies the ticker thread, so tasks scheduled until the release run together after it
+    private static CountDownLatch holdTicker(DispatchTicker dispatchTicker) throws InterruptedException {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatchTicker.schedule(() -> {
+            held.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 0);
+        assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+        return release;
+    }
+}
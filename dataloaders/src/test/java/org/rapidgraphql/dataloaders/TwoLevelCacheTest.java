@@ -0,0 +1,72 @@
+package org.rapidgraphql.dataloaders;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.rapidgraphql.dataloaders.BatchLoaderMetrics.CacheType.FUTURE;
+import static org.rapidgraphql.dataloaders.BatchLoaderMetrics.CacheType.SHARED;
+
+class TwoLevelCacheTest {
+
+    public static class TwoLevelCacheLoader extends GraphQLBatchLoader<Integer, String> {
+        final AtomicInteger loadedKeys = new AtomicInteger();
+
+        public TwoLevelCacheLoader() {
+            useTwoLevelCache(Caffeine.newBuilder().maximumSize(100));
+        }
+
+        @Override
+        public List<String> syncLoad(List<Integer> keys) {
+            loadedKeys.addAndGet(keys.size());
+            return keys.stream().map(key -> "value" + key).toList();
+        }
+    }
+
+    @Test
+    public void sharedCacheHitsSkipRequestDataLoader() {
+        TwoLevelCacheLoader loader = new TwoLevelCacheLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader));
+
+        DataLoaderRegistry firstRequest = factory.build();
+        DataFetchingEnvironment env = environment(firstRequest);
+        CompletableFuture<String> first = loader.get(1, env);
+        CompletableFuture<String> duplicate = loader.get(1, env);
+        CompletableFuture<String> second = loader.get(2, env);
+        firstRequest.dispatchAll();
+        assertThat(List.of(first.join(), duplicate.join(), second.join())).containsExactly("value1", "value1", "value2");
+        assertThat(loader.loadedKeys).hasValue(2);
+        assertThat(loader.getCacheHitCount(FUTURE)).isEqualTo(1);
+        assertThat(loader.getCacheMissCount(FUTURE)).isEqualTo(2);
+        assertThat(loader.getCacheMissCount(SHARED)).isEqualTo(3);
+
+        DataLoaderRegistry secondRequest = factory.build();
+        env = environment(secondRequest);
+        assertThat(loader.get(1, env)).isCompletedWithValue("value1");
+        assertThat(secondRequest.getKeys()).isEmpty();
+        CompletableFuture<List<String>> many = loader.getMany(List.of(2, 3, 1), env);
+        secondRequest.dispatchAll();
+        assertThat(many.join()).containsExactly("value2", "value3", "value1");
+
+        assertThat(loader.loadedKeys).hasValue(3);
+        assertThat(loader.getCacheHitCount(SHARED)).isEqualTo(3);
+        assertThat(loader.getCacheMissCount(SHARED)).isEqualTo(4);
+        assertThat(secondRequest.getDataLoader(loader.getDataLoaderName()))
+                .isNotSameAs(firstRequest.getDataLoader(loader.getDataLoaderName()));
+        factory.close();
+    }
+
+    private static DataFetchingEnvironment environment(DataLoaderRegistry registry) {
+        DataFetchingEnvironment env = mock(DataFetchingEnvironment.class);
+        when(env.getDataLoaderRegistry()).thenReturn(registry);
+        return env;
+    }
+}
@@ -14,6 +14,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 
 import java.lang.reflect.Field;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -89,6 +96,41 @@ class RapidGraphQLApplicationTests {
 		assertThat(testApi.message("hi")).isEqualTo(Chat.builder().iSay("ih").youSaid("hi").build());
 	}
 
+	private HttpResponse<String> post(String body) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + randomServerPort + "/graphql"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+		return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	@Test
+	public void hashOnlyRequestIsServedAfterQueryWasPersisted() throws Exception {
+		String query = "query hashOnly { helloWorld }";
+		String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+				.digest(query.getBytes(StandardCharsets.UTF_8)));
+		String extensions = "\"extensions\":{\"persistedQuery\":{\"version\":1,\"sha256Hash\":\"" + hash + "\"}}";
+
+		HttpResponse<String> notFound = post("{" + extensions + "}");
+		assertThat(notFound.body()).contains("PersistedQueryNotFound");
+		HttpResponse<String> registered = post("{\"query\":\"" + query + "\"," + extensions + "}");
+		assertThat(registered.statusCode()).isEqualTo(200);
+		assertThat(registered.body()).contains("Hello World!!");
+
+		HttpResponse<String> hashOnly = post("{" + extensions + "}");
+		assertThat(hashOnly.statusCode()).isEqualTo(200);
+		assertThat(hashOnly.body()).contains("Hello World!!").doesNotContain("errors");
+	}
+
+	@Test
+	public void clientWithPersistedQueries() {
+		GraphQLApi graphQLApi = RapidGraphQLClient.builder()
+				.persistedQueries(true)
+				.target(GraphQLApi.class, "http://localhost:" + randomServerPort + "/graphql");
+		assertThat(graphQLApi.helloWorld()).isEqualTo("Hello World!!");
+		assertThat(graphQLApi.helloWorld()).isEqualTo("Hello World!!");
+	}
+
 	@Test
 	public void testRangeOfValues() {
 		List<MyValue> myValues = testApi.myValues(10);
@@ -0,0 +1,113 @@
+package org.rapidgraphql.schemabuilder;
+
+import ch.qos.logback.classic.Level;
+import graphql.language.Definition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of discovering a synthetic schema of 1000 types: type N refers to types 2N+1 and 2N+2,
+ * so every level of the discovery has twice as many types as the previous one.
+ * Compares sequential discovery with discovery on several threads
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemaDiscoveryBenchmark {
+    private static final String PACKAGE = "org.rapidgraphql.benchmark";
+
+    @Param({"1000"})
+    public int typesCount;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private Path classesDirectory;
+    private URLClassLoader classLoader;
+    private List<Class<?>> resolverClasses;
+
+    @Setup
+    public void setUp() throws Exception {
+        // every discovered type is logged at info level, which would dominate the measurement
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("org.rapidgraphql")).setLevel(Level.WARN);
+        classesDirectory = Files.createTempDirectory("schema-discovery-benchmark");
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < typesCount; i++) {
+            sources.add(writeSource("Type" + i, typeSource(i)).toString());
+        }
+        sources.add(writeSource("Query", """
+                package %s;
+                public class Query implements graphql.kickstart.tools.GraphQLQueryResolver {
+                    public Type0 root(Long id) { return null; }
+                }
+                """.formatted(PACKAGE)).toString());
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> arguments = new ArrayList<>(List.of("-classpath", System.getProperty("java.class.path"),
+                "-d", classesDirectory.toString()));
+        arguments.addAll(sources);
+        if (compiler.run(null, null, null, arguments.toArray(String[]::new)) != 0) {
+            throw new IllegalStateException("Failed to compile synthetic types");
+        }
+        classLoader = new URLClassLoader(new URL[]{classesDirectory.toUri().toURL()}, getClass().getClassLoader());
+        resolverClasses = List.of(classLoader.loadClass(PACKAGE + ".Query"));
+    }
+
+    private String typeSource(int i) {
+        StringBuilder source = new StringBuilder()
+                .append("package ").append(PACKAGE).append(";\n")
+                .append("public class Type").append(i).append(" {\n")
+                .append("    public Long getId() { return null; }\n")
+                .append("    public String getName() { return null; }\n")
+                .append("    public java.util.List<String> getTags() { return null; }\n");
+        if (2 * i + 1 < typesCount) {
+            source.append("    public Type").append(2 * i + 1).append(" getLeft() { return null; }\n");
+        }
+        if (2 * i + 2 < typesCount) {
+            source.append("    public java.util.List<Type").append(2 * i + 2).append("> getRight() { return null; }\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    private Path writeSource(String className, String source) throws IOException {
+        Path file = classesDirectory.resolve(className + ".java");
+        Files.writeString(file, source);
+        return file;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        classLoader.close();
+    }
+
+    @Benchmark
+    public List<Definition<?>> discoverSchema() {
+        DefinitionFactory definitionFactory = new DefinitionFactory(new DefaultValueAnnotationProcessorImpl());
+        definitionFactory.setParallelism(parallelism);
+        return definitionFactory.createDefinitions(resolverClasses);
+    }
+}
@@ -0,0 +1,27 @@
+package org.rapidgraphql.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.rapidgraphql.dataloaders.BatchLoaderMetrics;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Publishes data loader metrics to Micrometer when MeterRegistry is available (e.g. spring-boot-starter-actuator is used)
+ * Can be disabled with rapidgraphql.dataloaders.metrics.enabled=false
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(name = "rapidgraphql.dataloaders.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class DataLoaderMetricsAutoConfiguration {
+
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnMissingBean(BatchLoaderMetrics.class)
+    @Bean
+    public BatchLoaderMetrics batchLoaderMetrics(MeterRegistry meterRegistry) {
+        return new MicrometerBatchLoaderMetrics(meterRegistry);
+    }
+}
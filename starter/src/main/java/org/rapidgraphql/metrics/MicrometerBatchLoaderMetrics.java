@@ -0,0 +1,182 @@
+package org.rapidgraphql.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.rapidgraphql.dataloaders.BatchLoaderExecutor;
+import org.rapidgraphql.dataloaders.BatchLoaderMetrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Publishes data loader metrics to Micrometer, every meter is tagged with the data loader name (tag "loader")
+ * <ul>
+ *     <li>rapidgraphql.dataloader.batch.size - number of keys in batch loads</li>
+ *     <li>rapidgraphql.dataloader.batch.load - duration of batch loads, tagged by outcome</li>
+ *     <li>rapidgraphql.dataloader.dispatch.delay - time keys wait for the dispatch</li>
+ *     <li>rapidgraphql.dataloader.cache.requests - cache lookups, tagged by cache type and result</li>
+ *     <li>rapidgraphql.dataloader.pending.keys - keys waiting for the dispatch</li>
+ *     <li>rapidgraphql.dataloader.batch.max.size - current maximum batch size of adaptive data loaders</li>
+ *     <li>rapidgraphql.dataloader.circuit.state - 1 for the current circuit breaker state (tag "state"), 0 for others</li>
+ * </ul>
+ * Executors are reported as rapidgraphql.dataloader.executor.* tagged by the executor name (tag "executor")
+ */
+public class MicrometerBatchLoaderMetrics implements BatchLoaderMetrics {
+    static final String PREFIX = "rapidgraphql.dataloader.";
+    static final String LOADER_TAG = "loader";
+    static final String EXECUTOR_TAG = "executor";
+
+    private final MeterRegistry registry;
+    private final Map<String, LoaderMeters> loaderMeters = new ConcurrentHashMap<>();
+
+    public MicrometerBatchLoaderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void registerDataLoader(String dataLoaderName, LongSupplier pendingKeys) {
+        Gauge.builder(PREFIX + "pending.keys", pendingKeys, LongSupplier::getAsLong)
+                .tag(LOADER_TAG, dataLoaderName)
+                .description("Keys requested from data loader and waiting for the dispatch")
+                .strongReference(true)
+                .register(registry);
+        meters(dataLoaderName);
+    }
+
+    @Override
+    public void registerMaxBatchSize(String dataLoaderName, IntSupplier maxBatchSize) {
+        Gauge.builder(PREFIX + "batch.max.size", maxBatchSize, IntSupplier::getAsInt)
+                .tag(LOADER_TAG, dataLoaderName)
+                .description("Current maximum batch size of adaptive data loader")
+                .strongReference(true)
+                .register(registry);
+    }
+
+    @Override
+    public void registerCircuitBreaker(String dataLoaderName, Supplier<CircuitState> state) {
+        for (CircuitState circuitState : CircuitState.values()) {
+            Gauge.builder(PREFIX + "circuit.state", state, current -> current.get() == circuitState ? 1 : 0)
+                    .tag(LOADER_TAG, dataLoaderName)
+                    .tag("state", circuitState.name().toLowerCase(Locale.ROOT))
+                    .description("Circuit breaker state of data loader")
+                    .strongReference(true)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void registerExecutor(BatchLoaderExecutor executor) {
+        Gauge.builder(PREFIX + "executor.active", executor, BatchLoaderExecutor::getActiveCount)
+                .tag(EXECUTOR_TAG, executor.getName())
+                .description("Batch loads being executed")
+                .strongReference(true)
+                .register(registry);
+        if (executor.getQueueSize() >= 0) {
+            Gauge.builder(PREFIX + "executor.queued", executor, BatchLoaderExecutor::getQueueSize)
+                    .tag(EXECUTOR_TAG, executor.getName())
+                    .description("Batch loads waiting for a free thread")
+                    .strongReference(true)
+                    .register(registry);
+        }
+        FunctionCounter.builder(PREFIX + "executor.rejected", executor, BatchLoaderExecutor::getRejectedCount)
+                .tag(EXECUTOR_TAG, executor.getName())
+                .description("Batch loads rejected by the executor")
+                .register(registry);
+    }
+
+    @Override
+    public void recordDispatchDelay(String dataLoaderName, long delayNanos) {
+        meters(dataLoaderName).dispatchDelay.record(delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordBatchLoad(String dataLoaderName, int batchSize, long durationNanos, Throwable error) {
+        LoaderMeters meters = meters(dataLoaderName);
+        meters.batchSize.record(batchSize);
+        (error == null ? meters.batchLoadSuccess : meters.batchLoadError).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordBatchSkipped(String dataLoaderName, int batchSize) {
+        meters(dataLoaderName).skippedKeys.increment(batchSize);
+    }
+
+    @Override
+    public void recordCacheAccess(String dataLoaderName, CacheType cacheType, int hits, int misses) {
+        LoaderMeters meters = meters(dataLoaderName);
+        Counter[] counters = meters.cacheCounters[cacheType.ordinal()];
+        if (hits > 0) {
+            counters[0].increment(hits);
+        }
+        if (misses > 0) {
+            counters[1].increment(misses);
+        }
+    }
+
+    private LoaderMeters meters(String dataLoaderName) {
+        LoaderMeters meters = loaderMeters.get(dataLoaderName);
+        if (meters == null) {
+            meters = loaderMeters.computeIfAbsent(dataLoaderName, LoaderMeters::new);
+        }
+        return meters;
+    }
+
+    private class LoaderMeters {
+        private final DistributionSummary batchSize;
+        private final Timer batchLoadSuccess;
+        private final Timer batchLoadError;
+        private final Timer dispatchDelay;
+        private final Counter skippedKeys;
+        private final Counter[][] cacheCounters = new Counter[CacheType.values().length][];
+
+        LoaderMeters(String dataLoaderName) {
+            batchSize = DistributionSummary.builder(PREFIX + "batch.size")
+                    .tag(LOADER_TAG, dataLoaderName)
+                    .description("Number of keys in batch loads")
+                    .register(registry);
+            batchLoadSuccess = batchLoadTimer(dataLoaderName, "success");
+            batchLoadError = batchLoadTimer(dataLoaderName, "error");
+            dispatchDelay = Timer.builder(PREFIX + "dispatch.delay")
+                    .tag(LOADER_TAG, dataLoaderName)
+                    .description("Time from the first pending load until the dispatch")
+                    .register(registry);
+            skippedKeys = Counter.builder(PREFIX + "deadline.exceeded")
+                    .tag(LOADER_TAG, dataLoaderName)
+                    .description("Keys of batch loads skipped because the request deadline passed")
+                    .register(registry);
+            for (CacheType cacheType : CacheType.values()) {
+                cacheCounters[cacheType.ordinal()] = cacheCounters(dataLoaderName, cacheType.name().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        private Timer batchLoadTimer(String dataLoaderName, String outcome) {
+            return Timer.builder(PREFIX + "batch.load")
+                    .tag(LOADER_TAG, dataLoaderName)
+                    .tag("outcome", outcome)
+                    .description("Duration of batch loads")
+                    .register(registry);
+        }
+
+        private Counter[] cacheCounters(String dataLoaderName, String cacheType) {
+            return new Counter[] {cacheCounter(dataLoaderName, cacheType, "hit"), cacheCounter(dataLoaderName, cacheType, "miss")};
+        }
+
+        private Counter cacheCounter(String dataLoaderName, String cacheType, String result) {
+            return Counter.builder(PREFIX + "cache.requests")
+                    .tag(LOADER_TAG, dataLoaderName)
+                    .tag("cache", cacheType)
+                    .tag("result", result)
+                    .description("Data loader cache lookups")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.rapidgraphql.metrics;
+
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.rapidgraphql.preparsed.AutomaticPersistedQueries;
+import org.rapidgraphql.preparsed.PreparsedDocumentCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Publishes hits, misses, evictions and size of the parsed queries cache to Micrometer
+ * as cache.* meters tagged with cache=rapidgraphql.parsed-queries,
+ * and of the persisted queries kept in memory tagged with cache=rapidgraphql.persisted-queries.
+ * Can be disabled with rapidgraphql.parsed-queries-cache.metrics.enabled=false
+ */
+@AutoConfiguration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(name = "rapidgraphql.parsed-queries-cache.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class PreparsedDocumentMetricsAutoConfiguration {
+    static final String CACHE_NAME = "rapidgraphql.parsed-queries";
+    static final String PERSISTED_QUERIES_CACHE_NAME = "rapidgraphql.persisted-queries";
+
+    @Bean
+    public MeterBinder preparsedDocumentCacheMetrics(ObjectProvider<PreparsedDocumentProvider> preparsedDocumentProvider) {
+        return registry -> {
+            PreparsedDocumentProvider provider = preparsedDocumentProvider.getIfAvailable();
+            if (provider instanceof AutomaticPersistedQueries persistedQueries) {
+                CaffeineCacheMetrics.monitor(registry, persistedQueries.getQueries(), PERSISTED_QUERIES_CACHE_NAME);
+                provider = persistedQueries.getDocumentCache();
+            }
+            // applications can replace the cache with their own PreparsedDocumentProvider
+            if (provider instanceof PreparsedDocumentCache cache) {
+                CaffeineCacheMetrics.monitor(registry, cache.getCache(), CACHE_NAME);
+            }
+        };
+    }
+}
@@ -0,0 +1,145 @@
+package org.rapidgraphql.preparsed;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import org.slf4j.Logger;
+
+import java.util.function.Function;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Automatic Persisted Queries (https://www.apollographql.com/docs/apollo-server/performance/apq):
+ * client sends SHA-256 hash of the query in extensions.persistedQuery.sha256Hash instead of the query,
+ * if the server doesn't know the hash it responds with PersistedQueryNotFound error and the client
+ * repeats the request with both the query and the hash.
+ * Documents of persisted queries are cached in {@link PreparsedDocumentCache} by the hash sent by the client,
+ * requests without the hash are served by the cache as is.
+ * Query texts are kept in memory, bounded by their total length, and optionally in {@link PersistedQueryStore}
+ * shared by all instances of the application
+ */
+public class AutomaticPersistedQueries extends ApolloPersistedQuerySupport {
+    private static final Logger LOGGER = getLogger(AutomaticPersistedQueries.class);
+    private final PreparsedDocumentCache documentCache;
+    private final QueryTexts queryTexts;
+
+    /**
+     * @param documentCache - cache of parsed documents
+     * @param maximumWeight - maximal total length of the query texts kept in memory
+     * @param sharedStore - store shared by the application instances, may be null
+     */
+    public AutomaticPersistedQueries(PreparsedDocumentCache documentCache, long maximumWeight, PersistedQueryStore sharedStore) {
+        this(documentCache, new QueryTexts(documentCache, maximumWeight, sharedStore));
+    }
+
+    private AutomaticPersistedQueries(PreparsedDocumentCache documentCache, QueryTexts queryTexts) {
+        super(queryTexts);
+        this.documentCache = documentCache;
+        this.queryTexts = queryTexts;
+    }
+
+    @Override
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+                                              Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        if (getPersistedQueryId(executionInput).isEmpty()) {
+            return documentCache.getDocument(executionInput, parseAndValidateFunction);
+        }
+        return super.getDocument(executionInput, parseAndValidateFunction);
+    }
+
+    public PreparsedDocumentCache getDocumentCache() {
+        return documentCache;
+    }
+
+    /**
+     * @return query texts kept in memory by hash, e.g. to publish statistics
+     */
+    public Cache<String, String> getQueries() {
+        return queryTexts.queries;
+    }
+
+    private static class QueryTexts implements PersistedQueryCache {
+        // documents of persisted queries are cached by the hash of the client, not by the normalized query
+        private static final String KEY_PREFIX = "apq:";
+
+        private final PreparsedDocumentCache documentCache;
+        private final Cache<String, String> queries;
+        private final PersistedQueryStore sharedStore;
+
+        QueryTexts(PreparsedDocumentCache documentCache, long maximumWeight, PersistedQueryStore sharedStore) {
+            this.documentCache = documentCache;
+            this.queries = Caffeine.newBuilder()
+                    .maximumWeight(maximumWeight)
+                    .<String, String>weigher((hash, query) -> query.length())
+                    .recordStats()
+                    .build();
+            this.sharedStore = sharedStore;
+        }
+
+        @Override
+        public PreparsedDocumentEntry getPersistedQueryDocument(Object persistedQueryId, ExecutionInput executionInput,
+                                                                PersistedQueryCacheMiss onCacheMiss) throws PersistedQueryNotFound {
+            String hash = persistedQueryId.toString();
+            String providedQuery = providedQuery(executionInput);
+            PreparsedDocumentEntry entry = documentCache.getDocument(KEY_PREFIX + hash, () -> {
+                String query = providedQuery != null ? providedQuery : find(hash);
+                if (query == null) {
+                    throw new PersistedQueryNotFound(persistedQueryId);
+                }
+                return query;
+            }, onCacheMiss);
+            if (providedQuery != null) {
+                register(hash, providedQuery);
+            }
+            return entry;
+        }
+
+        private static String providedQuery(ExecutionInput executionInput) {
+            String query = executionInput.getQuery();
+            return query == null || query.isBlank() || query.equals(PERSISTED_QUERY_MARKER) ? null : query;
+        }
+
+        private String find(String hash) {
+            String query = queries.getIfPresent(hash);
+            if (query != null || sharedStore == null) {
+                return query;
+            }
+            try {
+                query = sharedStore.get(hash);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Failed to read persisted query {} from shared store", hash, e);
+                return null;
+            }
+            if (query == null || !matches(hash, query)) {
+                return null;
+            }
+            queries.put(hash, query);
+            return query;
+        }
+
+        private void register(String hash, String query) {
+            // known hashes are already validated, new ones are validated before they are stored
+            if (queries.asMap().containsKey(hash) || !matches(hash, query)) {
+                return;
+            }
+            queries.put(hash, query);
+            if (sharedStore != null) {
+                try {
+                    sharedStore.put(hash, query);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Failed to write persisted query {} to shared store", hash, e);
+                }
+            }
+        }
+
+        private static boolean matches(String hash, String query) {
+            return QueryNormalizer.sha256(query).equalsIgnoreCase(hash);
+        }
+    }
+}
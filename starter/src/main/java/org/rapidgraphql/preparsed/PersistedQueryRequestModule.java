@@ -0,0 +1,56 @@
+package org.rapidgraphql.preparsed;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.kickstart.execution.GraphQLRequest;
+
+import java.io.IOException;
+
+/**
+ * Jackson module letting the servlet accept requests of persisted queries which contain only the hash.
+ * Query of such request is set to the persisted query marker of graphql-java, so the request reaches
+ * {@link AutomaticPersistedQueries} instead of failing on the missing query
+ */
+public class PersistedQueryRequestModule extends SimpleModule {
+    static final String PERSISTED_QUERY_EXTENSION = "persistedQuery";
+
+    public PersistedQueryRequestModule() {
+        super(PersistedQueryRequestModule.class.getSimpleName());
+        setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+                                                          JsonDeserializer<?> deserializer) {
+                return beanDesc.getBeanClass() == GraphQLRequest.class
+                        ? new PersistedQueryRequestDeserializer(deserializer) : deserializer;
+            }
+        });
+    }
+
+    private static class PersistedQueryRequestDeserializer extends DelegatingDeserializer {
+        PersistedQueryRequestDeserializer(JsonDeserializer<?> delegate) {
+            super(delegate);
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+            return new PersistedQueryRequestDeserializer(newDelegatee);
+        }
+
+        @Override
+        public Object deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            Object value = super.deserialize(parser, context);
+            if (value instanceof GraphQLRequest request && request.getQuery() == null
+                    && request.getExtensions().containsKey(PERSISTED_QUERY_EXTENSION)) {
+                request.setQuery(PersistedQuerySupport.PERSISTED_QUERY_MARKER);
+            }
+            return value;
+        }
+    }
+}
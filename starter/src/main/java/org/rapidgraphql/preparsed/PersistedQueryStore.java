@@ -0,0 +1,20 @@
+package org.rapidgraphql.preparsed;
+
+/**
+ * Store of persisted queries shared by all instances of the application (e.g. Redis),
+ * so query registered by a client on one instance is known to the others.
+ * Define a bean implementing this interface to use it, failures of the store are logged and ignored
+ */
+public interface PersistedQueryStore {
+    /**
+     * @param sha256Hash - hex encoded SHA-256 hash of the query
+     * @return query of the hash, null if unknown
+     */
+    String get(String sha256Hash);
+
+    /**
+     * @param sha256Hash - hex encoded SHA-256 hash of the query
+     * @param query - query text
+     */
+    void put(String sha256Hash, String query);
+}
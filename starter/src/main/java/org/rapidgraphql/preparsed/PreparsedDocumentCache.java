@@ -0,0 +1,90 @@
+package org.rapidgraphql.preparsed;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caches parsed and validated documents by hash of the normalized document (see {@link QueryNormalizer}),
+ * so clients which send the same document formatted differently share the cache entry.
+ * The cache is bounded by the total length of the cached documents, large documents take more of the cache.
+ * Source locations of the errors of a cached document refer to the document as it was first received.
+ * Keys of the recently received query texts are remembered, so the same text sent again isn't normalized again
+ */
+public class PreparsedDocumentCache implements PreparsedDocumentProvider {
+    private final Cache<String, CachedDocument> cache;
+    // query text as received -> key of its normalized document
+    private final Cache<String, String> keysByQuery;
+
+    record CachedDocument(PreparsedDocumentEntry entry, int weight) {
+    }
+
+    /**
+     * @param maximumWeight - maximal total length of the cached documents in characters
+     */
+    public PreparsedDocumentCache(long maximumWeight) {
+        this(Caffeine.newBuilder()
+                        .maximumWeight(maximumWeight)
+                        .<String, CachedDocument>weigher((key, document) -> document.weight())
+                        .recordStats()
+                        .build(),
+                Caffeine.newBuilder()
+                        .maximumWeight(maximumWeight)
+                        .<String, String>weigher((query, key) -> query.length())
+                        .build());
+    }
+
+    private PreparsedDocumentCache(Cache<String, CachedDocument> cache, Cache<String, String> keysByQuery) {
+        this.cache = cache;
+        this.keysByQuery = keysByQuery;
+    }
+
+    /**
+     * Cache bounded by the number of documents, as configured by rapidgraphql.parsed-queries-cache-size
+     * before the cache was bounded by the length of the documents
+     * @param maximumSize - maximal number of the cached documents
+     * @return cache keeping at most maximumSize documents
+     */
+    public static PreparsedDocumentCache withMaximumSize(long maximumSize) {
+        return new PreparsedDocumentCache(
+                Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build(),
+                Caffeine.newBuilder().maximumSize(maximumSize).build());
+    }
+
+    @Override
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+                                              Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        String query = executionInput.getQuery();
+        return getDocument(keysByQuery.get(query, QueryNormalizer::normalizedHash), () -> query,
+                text -> parseAndValidateFunction.apply(executionInput));
+    }
+
+    /**
+     * @param key - key of the document
+     * @param query - supplies text of the document if it isn't cached
+     * @param parseAndValidateFunction - parses and validates the text
+     */
+    PreparsedDocumentEntry getDocument(String key, Supplier<String> query,
+                                       Function<String, PreparsedDocumentEntry> parseAndValidateFunction) {
+        return cache.get(key, k -> {
+            String text = query.get();
+            return new CachedDocument(parseAndValidateFunction.apply(text), text.length());
+        }).entry();
+    }
+
+    /**
+     * @return underlying cache, e.g. to publish its statistics
+     */
+    public Cache<String, ?> getCache() {
+        return cache;
+    }
+
+    Cache<String, String> getKeysByQuery() {
+        return keysByQuery;
+    }
+}
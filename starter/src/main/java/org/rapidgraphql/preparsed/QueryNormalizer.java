@@ -0,0 +1,119 @@
+package org.rapidgraphql.preparsed;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Normalizes GraphQL documents on the lexical level, so documents which differ only in
+ * whitespace, comments, commas or order of their definitions (operations and fragments) get the same key.
+ * The document isn't parsed: tokens are separated by single space (none around punctuators),
+ * string values are kept as is and top level definitions are sorted
+ */
+public class QueryNormalizer {
+    private static final String PUNCTUATORS = "!$&():=@[]{|}";
+
+    private QueryNormalizer() {
+    }
+
+    /**
+     * @param query - GraphQL document, possibly invalid
+     * @return normalized document
+     */
+    public static String normalize(String query) {
+        List<String> definitions = new ArrayList<>();
+        StringBuilder definition = new StringBuilder();
+        int depth = 0;
+        boolean punctuator = true;
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (c == '#') {
+                while (i < query.length() && query.charAt(i) != '\n' && query.charAt(i) != '\r') {
+                    i++;
+                }
+                continue;
+            }
+            if (Character.isWhitespace(c) || c == ',' || c == '\uFEFF') {
+                i++;
+                continue;
+            }
+            boolean tokenIsPunctuator = PUNCTUATORS.indexOf(c) >= 0;
+            int end = tokenIsPunctuator ? i + 1 : tokenEnd(query, i);
+            if (!punctuator && !tokenIsPunctuator) {
+                definition.append(' ');
+            }
+            definition.append(query, i, end);
+            punctuator = tokenIsPunctuator;
+            i = end;
+            if (c == '{' || c == '(' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ')' || c == ']') {
+                depth--;
+                if (depth == 0 && c == '}') {
+                    definitions.add(definition.toString());
+                    definition.setLength(0);
+                    punctuator = true;
+                }
+            }
+        }
+        if (!definition.isEmpty()) {
+            definitions.add(definition.toString());
+        }
+        definitions.sort(null);
+        return String.join("\n", definitions);
+    }
+
+    /**
+     * @param query - GraphQL document, possibly invalid
+     * @return hex encoded SHA-256 hash of the normalized document
+     */
+    public static String normalizedHash(String query) {
+        return sha256(normalize(query));
+    }
+
+    static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int tokenEnd(String query, int start) {
+        if (query.startsWith("\"\"\"", start)) {
+            int i = start + 3;
+            while (i < query.length() && !query.startsWith("\"\"\"", i)) {
+                // escaped triple quote doesn't terminate block string
+                i += query.startsWith("\\\"\"\"", i) ? 4 : 1;
+            }
+            return Math.min(i + 3, query.length());
+        }
+        if (query.charAt(start) == '"') {
+            int i = start + 1;
+            while (i < query.length() && query.charAt(i) != '"') {
+                i += query.charAt(i) == '\\' ? 2 : 1;
+            }
+            return Math.min(i + 1, query.length());
+        }
+        if (query.startsWith("...", start)) {
+            return start + 3;
+        }
+        char first = query.charAt(start);
+        boolean number = first == '-' || Character.isDigit(first);
+        int i = start;
+        while (i < query.length() && isTokenChar(query.charAt(i), number)) {
+            i++;
+        }
+        // any other character is a token of its own
+        return i == start ? start + 1 : i;
+    }
+
+    private static boolean isTokenChar(char c, boolean number) {
+        return Character.isLetterOrDigit(c) || c == '_' || (number && (c == '-' || c == '+' || c == '.'));
+    }
+}
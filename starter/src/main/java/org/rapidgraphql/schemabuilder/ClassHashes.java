@@ -0,0 +1,62 @@
+package org.rapidgraphql.schemabuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Hash of the bytecode of classes contributing to the schema, used to detect that schema generated earlier
+ * (at build time or by previous start) is outdated. Covers superclasses as well,
+ * since inherited methods and fields contribute to the schema
+ */
+final class ClassHashes {
+    private ClassHashes() {}
+
+    /**
+     * @param classes - classes in any order
+     * @return hex encoded SHA-256 of names and bytecode of the classes and their superclasses
+     * @throws UncheckedIOException if bytecode of any class can't be read
+     */
+    static String hash(Collection<Class<?>> classes) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Class<?> clazz : sorted(classes)) {
+            for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+                digest.update(current.getName().getBytes(StandardCharsets.UTF_8));
+                digest.update(bytecode(current));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static List<Class<?>> sorted(Collection<Class<?>> classes) {
+        List<Class<?>> sorted = new ArrayList<>(classes);
+        sorted.sort(Comparator.comparing(Class::getName));
+        return sorted;
+    }
+
+    private static byte[] bytecode(Class<?> clazz) {
+        ClassLoader loader = clazz.getClassLoader();
+        if (loader == null) {
+            // JDK classes change only with JDK, which doesn't affect the schema
+            return new byte[0];
+        }
+        try (InputStream stream = loader.getResourceAsStream(clazz.getName().replace('.', '/') + ".class")) {
+            return stream == null ? new byte[0] : stream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
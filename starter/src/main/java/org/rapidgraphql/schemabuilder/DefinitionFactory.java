@@ -28,6 +28,9 @@ import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -91,14 +94,16 @@ public class DefinitionFactory {
             entry(Time.class, nullableType(TimeScalar.INSTANCE.getName())),
             entry(LocalTime.class, nullableType(LocalTimeScalar.INSTANCE.getName()))
     );
-    private final Map<String, DiscoveredClass> discoveredTypes = new HashMap<>();
-    private final Queue<DiscoveredClass> discoveredTypesQueue = new ArrayDeque<>();
-    private final Set<String> definedClasses = new HashSet<>();
+    // concurrent, since types of the discovery frontier can be processed in parallel
+    private final Map<String, DiscoveredClass> discoveredTypes = new ConcurrentHashMap<>();
+    private final Queue<DiscoveredClass> discoveredTypesQueue = new ConcurrentLinkedQueue<>();
+    private final Set<String> definedClasses = ConcurrentHashMap.newKeySet();
     private final Map<org.rapidgraphql.utils.TypeKind, Function<DiscoveredClass, Stream<Definition<?>>>> definitionFactory = new HashMap<>();
     private static final Set<Class<?>> WRAPPER_CLASSES = Set.of(Optional.class, Future.class, CompletableFuture.class);
     private final DefaultValueAnnotationProcessor defaultValueAnnotationProcessor;
-    private final Map<String, Class<?>> implementationDictionary = new HashMap<>();
+    private final Map<String, Class<?>> implementationDictionary = new ConcurrentHashMap<>();
     private Map<String, String> interfacesCreatedFromResolvers = new HashMap<>();
+    private int parallelism = 1;
 
     public DefinitionFactory(DefaultValueAnnotationProcessor defaultValueAnnotationProcessor) {
         this.defaultValueAnnotationProcessor = defaultValueAnnotationProcessor;
@@ -108,6 +113,19 @@ public class DefinitionFactory {
         definitionFactory.put(org.rapidgraphql.utils.TypeKind.INTERFACE_TYPE, this::createInterfaceTypeDefinition);
     }
 
+    /**
+     * Processes discovered types in parallel. Types are processed level by level (types discovered from the resolvers,
+     * then types discovered from them and so on), every level is processed by a ForkJoinPool of the given parallelism.
+     * Definitions are returned ordered by level and by type name within the level, regardless of the parallelism
+     * @param parallelism - number of threads processing discovered types, 1 (default) - sequential processing
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism should be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
     public List<GraphQLScalarType> getScalars() {
         return scalars;
     }
@@ -116,6 +134,13 @@ public class DefinitionFactory {
         return implementationDictionary;
     }
 
+    /**
+     * @return classes of all types discovered from the processed resolvers
+     */
+    public Set<Class<?>> getDiscoveredClasses() {
+        return discoveredTypes.values().stream().map(DiscoveredClass::getClazz).collect(Collectors.toSet());
+    }
+
     static private Type<?> nullableType(String typeName) {
         return new TypeName(typeName);
     }
@@ -124,25 +149,52 @@ public class DefinitionFactory {
         return new NonNullType(nullableType(typeName));
     }
 
+    /**
+     * @param resolverClasses - classes of all resolvers
+     * @return all definitions of the schema: directives, scalars, types of the resolvers and types they refer to
+     */
+    public List<Definition<?>> createDefinitions(List<Class<?>> resolverClasses) {
+        List<Definition<?>> definitions = new ArrayList<>();
+        definitions.add(createRoleDirectiveDefinition());
+        definitions.addAll(getScalars().stream()
+                .map(scalar -> ScalarTypeDefinition.newScalarTypeDefinition().name(scalar.getName()).build())
+                .toList());
+        definitions.addAll(resolverClasses.stream()
+                .flatMap(this::createTypeDefinition)
+                .toList());
+        definitions.addAll(processTypesQueue());
+        return definitions;
+    }
+
     public Stream<Definition<?>> createTypeDefinition(GraphQLResolver<?> resolver) {
-        boolean upperLevelResolver = resolver instanceof GraphQLQueryResolver || resolver instanceof GraphQLMutationResolver;
+        return createTypeDefinition(resolver.getClass());
+    }
+
+    /**
+     * Creates definitions of the resolver without its instance, e.g. at build time
+     * @param resolverClass - class implementing GraphQLResolver
+     * @return definitions of the type resolved by the resolver
+     */
+    public Stream<Definition<?>> createTypeDefinition(Class<?> resolverClass) {
+        boolean upperLevelResolver = GraphQLQueryResolver.class.isAssignableFrom(resolverClass)
+                || GraphQLMutationResolver.class.isAssignableFrom(resolverClass);
         boolean skipFirstParameter = !upperLevelResolver;
         String name;
         Class<?> sourceType = null;
-        Class<?> resolverType = ClassUtils.getUserClass(resolver);
+        Class<?> resolverType = ClassUtils.getUserClass(resolverClass);
         org.rapidgraphql.utils.TypeKind typeKind = org.rapidgraphql.utils.TypeKind.OUTPUT_TYPE;
         String implementsInterface = null;
         boolean isSubscription = false;
         Optional<DiscoveredClass> discoveredClass = Optional.empty();
-        if (resolver instanceof GraphQLQueryResolver) {
+        if (GraphQLQueryResolver.class.isAssignableFrom(resolverClass)) {
             name = QUERY_TYPE;
-        } else if(resolver instanceof GraphQLMutationResolver) {
+        } else if(GraphQLMutationResolver.class.isAssignableFrom(resolverClass)) {
             name = MUTATION_TYPE;
-        } else if(resolver instanceof GraphQLSubscriptionResolver) {
+        } else if(GraphQLSubscriptionResolver.class.isAssignableFrom(resolverClass)) {
             name = SUBSCRIPTION_TYPE;
             isSubscription = true;
         } else {
-            discoveredClass = extractResolverType(resolver);
+            discoveredClass = extractResolverType(resolverClass);
             if (discoveredClass.isEmpty()) {
                 throw new GraphQLSchemaGenerationException("Invalid resolver provided " + resolverType.getName());
             }
@@ -177,21 +229,51 @@ public class DefinitionFactory {
     }
 
     public List<Definition<?>> processTypesQueue() {
+        if (parallelism > 1) {
+            return processTypesQueueInParallel();
+        }
         List<Definition<?>> definitions = new ArrayList<>();
         while (!discoveredTypesQueue.isEmpty()) {
-            DiscoveredClass discoveredClass = discoveredTypesQueue.remove();
-            LOGGER.info("Begin processing {} {} as {}", discoveredClass.getTypeKind(), discoveredClass.getClazz().getName(), discoveredClass.getName());
-            definitions.addAll(definitionFactory.get(discoveredClass.getTypeKind()).apply(discoveredClass).collect(Collectors.toList()));
-            LOGGER.info("End processing {} {} as {}", discoveredClass.getTypeKind(), discoveredClass.getClazz().getName(), discoveredClass.getName());
+            definitions.addAll(processDiscoveredClass(discoveredTypesQueue.remove()));
         }
         return definitions;
     }
+
+    private List<Definition<?>> processTypesQueueInParallel() {
+        List<Definition<?>> definitions = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (!discoveredTypesQueue.isEmpty()) {
+                List<DiscoveredClass> frontier = new ArrayList<>();
+                for (DiscoveredClass discoveredClass; (discoveredClass = discoveredTypesQueue.poll()) != null; ) {
+                    frontier.add(discoveredClass);
+                }
+                // which task discovers a type first is racy, sorting keeps the output deterministic
+                frontier.sort(Comparator.comparing(DiscoveredClass::getName));
+                List<List<Definition<?>>> frontierDefinitions = pool.submit(() -> frontier.parallelStream()
+                        .map(this::processDiscoveredClass)
+                        .toList()).join();
+                frontierDefinitions.forEach(definitions::addAll);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return definitions;
+    }
+
+    private List<Definition<?>> processDiscoveredClass(DiscoveredClass discoveredClass) {
+        LOGGER.info("Begin processing {} {} as {}", discoveredClass.getTypeKind(), discoveredClass.getClazz().getName(), discoveredClass.getName());
+        List<Definition<?>> definitions = definitionFactory.get(discoveredClass.getTypeKind()).apply(discoveredClass).collect(Collectors.toList());
+        LOGGER.info("End processing {} {} as {}", discoveredClass.getTypeKind(), discoveredClass.getClazz().getName(), discoveredClass.getName());
+        return definitions;
+    }
+
     private Stream<Definition<?>> createTypeDefinition(String name, List<FieldDefinition> typeFields, String implementsInterface) {
         Type implementsType = Optional.ofNullable(implementsInterface)
                 .map(interfaceName -> TypeName.newTypeName(interfaceName).build())
                 .orElse(null);
         TypeName.newTypeName().name(implementsInterface).build();
-        if (definedClasses.contains(name)) {
+        if (!definedClasses.add(name)) {
             ObjectTypeExtensionDefinition.Builder builder = ObjectTypeExtensionDefinition.newObjectTypeExtensionDefinition()
                     .name(name)
                     .fieldDefinitions(typeFields);
@@ -200,7 +282,6 @@ public class DefinitionFactory {
             }
             return Stream.of(builder.build());
         } else {
-            definedClasses.add(name);
             ObjectTypeDefinition.Builder builder = ObjectTypeDefinition.newObjectTypeDefinition()
                     .name(name)
                     .fieldDefinitions(typeFields);
@@ -252,10 +333,9 @@ public class DefinitionFactory {
                                                                   List<FieldDefinition> typeFields,
                                                                   boolean createImplementations) {
         Stream<Definition<?>> definitionsStream = Stream.of();
-        if (definedClasses.contains(name)) {
+        if (!definedClasses.add(name)) {
             throw new GraphQLSchemaGenerationException("Extending of interface " + name + " is not supported");
         } else {
-            definedClasses.add(name);
             definitionsStream = Stream.of(InterfaceTypeDefinition.newInterfaceTypeDefinition()
                     .name(name)
                     .definitions(typeFields)
@@ -333,10 +413,9 @@ public class DefinitionFactory {
         } else {
             discoveredClass.setTypeKind(typeKind);
         }
-        DiscoveredClass alreadyDiscovered = discoveredTypes.get(discoveredClass.getName());
+        DiscoveredClass alreadyDiscovered = discoveredTypes.putIfAbsent(discoveredClass.getName(), discoveredClass);
         if (alreadyDiscovered == null) {
             LOGGER.info("Discovered new type {} of kind {}", discoveredClass.getName(), discoveredClass.getTypeKind());
-            discoveredTypes.put(discoveredClass.getName(), discoveredClass);
             discoverInterface(discoveredClass);
             discoveredTypesQueue.add(discoveredClass);
             discoverImplementations(discoveredClass);
@@ -5,34 +5,44 @@ import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import graphql.execution.preparsed.PreparsedDocumentEntry;
 import graphql.execution.preparsed.PreparsedDocumentProvider;
 import graphql.kickstart.autoconfigure.tools.GraphQLJavaToolsAutoConfiguration;
+import graphql.kickstart.autoconfigure.web.servlet.AsyncServletProperties;
+import graphql.kickstart.execution.GraphQLObjectMapper;
 import graphql.kickstart.servlet.context.GraphQLServletContextBuilder;
 import graphql.kickstart.tools.*;
 import graphql.language.Definition;
-import graphql.language.ScalarTypeDefinition;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.rapidgraphql.dataloaders.BatchLoaderExecutor;
+import org.rapidgraphql.dataloaders.BatchLoaderMetrics;
+import org.rapidgraphql.dataloaders.ClassUtils;
 import org.rapidgraphql.dataloaders.DataLoaderRegistryFactory;
 import org.rapidgraphql.dataloaders.GraphQLDataLoader;
 import org.rapidgraphql.directives.GraphQLDirectiveWiring;
 import org.rapidgraphql.directives.RoleExtractor;
 import org.rapidgraphql.directives.SecuredDirectiveWiring;
+import org.rapidgraphql.preparsed.AutomaticPersistedQueries;
+import org.rapidgraphql.preparsed.PersistedQueryRequestModule;
+import org.rapidgraphql.preparsed.PersistedQueryStore;
+import org.rapidgraphql.preparsed.PreparsedDocumentCache;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Optional;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -43,6 +53,7 @@ public class GraphQLSchemaResolver {
     private final DefinitionFactory definitionFactory= new DefinitionFactory(new DefaultValueAnnotationProcessorImpl());
 
     private SchemaParser schemaParser = null;
+    private Map<String, Class<?>> implementationDictionary;
 
     @Value("${rapidgraphql.dataloaders.reschedule-interval-in-millis:10}")
     private Long dataloadersRescheduleIntervalInMillis;
@@ -50,8 +61,43 @@ public class GraphQLSchemaResolver {
     @Value("${rapidgraphql.dataloaders.scheduler-pool-size:1}")
     private int dataloadersSchedulerPoolSize;
 
-    @Value("${rapidgraphql.parsed-queries-cache-size:100}")
-    private int parsedQueriesCacheSize;
+    @Value("${rapidgraphql.dataloaders.executor:fixed}")
+    private String dataloadersExecutor;
+
+    @Value("${rapidgraphql.dataloaders.executor-pool-size:16}")
+    private int dataloadersExecutorPoolSize;
+
+    @Value("${rapidgraphql.dataloaders.executor-queue-capacity:1000}")
+    private int dataloadersExecutorQueueCapacity;
+
+    @Value("${rapidgraphql.dataloaders.executor-rejection-policy:caller-runs}")
+    private String dataloadersExecutorRejectionPolicy;
+
+    // negative (unset) - deadline of the async servlet request, see requestTimeout()
+    @Value("${rapidgraphql.request-timeout-in-millis:-1}")
+    private long requestTimeoutInMillis;
+
+    @Value("${rapidgraphql.precomputed-schema.enabled:true}")
+    private boolean precomputedSchemaEnabled;
+
+    @Value("${rapidgraphql.schema-cache.directory:}")
+    private String schemaCacheDirectory;
+
+    @Value("${rapidgraphql.schema-discovery.parallelism:1}")
+    private int schemaDiscoveryParallelism;
+
+    @Value("${rapidgraphql.parsed-queries-cache.maximum-weight:1000000}")
+    private long parsedQueriesCacheMaximumWeight;
+
+    // replaced by rapidgraphql.parsed-queries-cache.maximum-weight, still honoured when set
+    @Value("${rapidgraphql.parsed-queries-cache-size:0}")
+    private long parsedQueriesCacheSize;
+
+    @Value("${rapidgraphql.persisted-queries.enabled:true}")
+    private boolean persistedQueriesEnabled;
+
+    @Value("${rapidgraphql.persisted-queries.maximum-weight:1000000}")
+    private long persistedQueriesMaximumWeight;
 
     static class MyTypeDefinitionFactory implements TypeDefinitionFactory {
         private final List<? extends GraphQLResolver<?>> resolvers;
@@ -69,18 +115,42 @@ public class GraphQLSchemaResolver {
         }
     }
     private List<Definition<?>> processResolvers(List<? extends GraphQLResolver<?>> resolvers) {
-        List<Definition<?>> definitions = new ArrayList<>();
-        definitions.add(definitionFactory.createRoleDirectiveDefinition());
-        definitions.addAll(definitionFactory.getScalars().stream()
-                .map(scalar -> ScalarTypeDefinition.newScalarTypeDefinition().name(scalar.getName()).build())
-                .toList());
-        definitions.addAll(resolvers.stream()
-                .flatMap(definitionFactory::createTypeDefinition)
-                .toList());
-        definitions.addAll(definitionFactory.processTypesQueue());
+        List<Class<?>> resolverClasses = resolvers.stream()
+                .<Class<?>>map(resolver -> resolver.getClass())
+                .toList();
+        List<Class<?>> userClasses = resolverClasses.stream().<Class<?>>map(ClassUtils::getUserClass).toList();
+        ClassLoader classLoader = getClass().getClassLoader();
+        if (precomputedSchemaEnabled) {
+            Optional<PrecomputedSchema> precomputedSchema = PrecomputedSchema.load(classLoader)
+                    .filter(schema -> schema.matches(userClasses, classLoader));
+            if (precomputedSchema.isPresent()) {
+                LOGGER.info("Using schema generated at build time");
+                return usePrecomputedSchema(precomputedSchema.get(), classLoader);
+            }
+        }
+        SchemaSnapshotCache snapshotCache = schemaCacheDirectory.isBlank()
+                ? null : new SchemaSnapshotCache(Path.of(schemaCacheDirectory), classLoader);
+        if (snapshotCache != null) {
+            Optional<PrecomputedSchema> snapshot = snapshotCache.load(userClasses);
+            if (snapshot.isPresent()) {
+                LOGGER.info("Using schema snapshot from {}", schemaCacheDirectory);
+                return usePrecomputedSchema(snapshot.get(), classLoader);
+            }
+        }
+        List<Definition<?>> definitions = definitionFactory.createDefinitions(resolverClasses);
+        implementationDictionary = definitionFactory.getImplementationDictionary();
+        if (snapshotCache != null) {
+            snapshotCache.store(userClasses, PrecomputedSchema.of(userClasses, definitions, implementationDictionary,
+                    definitionFactory.getDiscoveredClasses()));
+        }
         return definitions;
     }
 
+    private List<Definition<?>> usePrecomputedSchema(PrecomputedSchema schema, ClassLoader classLoader) {
+        implementationDictionary = schema.getImplementationDictionary(classLoader);
+        return schema.getDefinitions();
+    }
+
     @ConditionalOnBean(RoleExtractor.class)
     @Bean
     public SecuredDirectiveWiring securedDirectiveWiring(List<RoleExtractor> roleExtractors) {
@@ -98,14 +168,33 @@ public class GraphQLSchemaResolver {
 
     @ConditionalOnMissingBean(PreparsedDocumentProvider.class)
     @Bean
-    public PreparsedDocumentProvider getPreparsedDocumentProvider() {
-        Cache<String, PreparsedDocumentEntry> cache = Caffeine.newBuilder().maximumSize(parsedQueriesCacheSize).build();
+    public PreparsedDocumentProvider getPreparsedDocumentProvider(ObjectProvider<PersistedQueryStore> persistedQueryStore) {
+        PreparsedDocumentCache documentCache;
+        if (parsedQueriesCacheSize > 0) {
+            LOGGER.warn("rapidgraphql.parsed-queries-cache-size is deprecated, parsed queries cache is limited to {} queries "
+                    + "instead of rapidgraphql.parsed-queries-cache.maximum-weight", parsedQueriesCacheSize);
+            documentCache = PreparsedDocumentCache.withMaximumSize(parsedQueriesCacheSize);
+        } else {
+            documentCache = new PreparsedDocumentCache(parsedQueriesCacheMaximumWeight);
+        }
+        if (!persistedQueriesEnabled) {
+            return documentCache;
+        }
+        return new AutomaticPersistedQueries(documentCache, persistedQueriesMaximumWeight, persistedQueryStore.getIfAvailable());
+    }
 
-        PreparsedDocumentProvider preparsedCache = (executionInput, parseAndValidateFunction) -> {
-            Function<String, PreparsedDocumentEntry> mapCompute = key -> parseAndValidateFunction.apply(executionInput);
-            return cache.get(executionInput.getQuery(), mapCompute);
+    @ConditionalOnProperty(name = "rapidgraphql.persisted-queries.enabled", havingValue = "true", matchIfMissing = true)
+    @Bean
+    public static BeanPostProcessor persistedQueryRequestPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof GraphQLObjectMapper graphQLObjectMapper) {
+                    graphQLObjectMapper.getJacksonMapper().registerModule(new PersistedQueryRequestModule());
+                }
+                return bean;
+            }
         };
-        return preparsedCache;
     }
 
     @ConditionalOnMissingBean(PerFieldObjectMapperProvider.class)
@@ -124,6 +213,7 @@ public class GraphQLSchemaResolver {
             return schemaParser;
         }
         LOGGER.info("{} resolvers and {} directives found", resolvers.size(), directives.size());
+        definitionFactory.setParallelism(schemaDiscoveryParallelism);
         List<Definition<?>> definitions = processResolvers(resolvers);
         SchemaParserOptions options = SchemaParserOptions.newOptions()
                 .typeDefinitionFactory(new MyTypeDefinitionFactory(resolvers, definitions))
@@ -134,18 +224,47 @@ public class GraphQLSchemaResolver {
                 .options(options)
                 .scalars(definitionFactory.getScalars());
         addDirectives(schemaParserBuilder, directives);
-        addDictionary(schemaParserBuilder, definitionFactory.getImplementationDictionary());
+        addDictionary(schemaParserBuilder, implementationDictionary);
         schemaParser = schemaParserBuilder.build();
         return schemaParser;
     }
 
+    @ConditionalOnMissingBean(BatchLoaderExecutor.class)
     @Bean
-    public DataLoaderRegistryFactory dataLoaderRegistryFactory(List<? extends GraphQLDataLoader> dataLoaders) {
-        return new DataLoaderRegistryFactory(dataLoaders, dataloadersRescheduleIntervalInMillis, dataloadersSchedulerPoolSize);
+    public BatchLoaderExecutor batchLoaderExecutor() {
+        return BatchLoaderExecutor.create(BatchLoaderExecutor.Kind.parse(dataloadersExecutor),
+                "batch-loader",
+                dataloadersExecutorPoolSize,
+                dataloadersExecutorQueueCapacity,
+                BatchLoaderExecutor.RejectionPolicy.parse(dataloadersExecutorRejectionPolicy));
     }
+
     @Bean
-    public GraphQLServletContextBuilder getGraphQLServletContextBuilder(DataLoaderRegistryFactory dataLoaderRegistryFactory) {
-        return new RapidGraphQLContextBuilder(dataLoaderRegistryFactory);
+    public DataLoaderRegistryFactory dataLoaderRegistryFactory(List<? extends GraphQLDataLoader> dataLoaders,
+                                                               BatchLoaderExecutor batchLoaderExecutor,
+                                                               ObjectProvider<BatchLoaderMetrics> batchLoaderMetrics) {
+        return new DataLoaderRegistryFactory(dataLoaders, dataloadersRescheduleIntervalInMillis, dataloadersSchedulerPoolSize,
+                batchLoaderExecutor, batchLoaderMetrics.getIfAvailable(() -> BatchLoaderMetrics.NOOP));
+    }
+    @Bean
+    public GraphQLServletContextBuilder getGraphQLServletContextBuilder(DataLoaderRegistryFactory dataLoaderRegistryFactory,
+                                                                       ObjectProvider<AsyncServletProperties> asyncServletProperties) {
+        return new RapidGraphQLContextBuilder(dataLoaderRegistryFactory, requestTimeout(asyncServletProperties.getIfAvailable()));
+    }
+
+    /**
+     * Async servlet abandons the request after graphql.servlet.async.timeout, so data loading after it is wasted.
+     * rapidgraphql.request-timeout-in-millis overrides it, e.g. to leave time for the response
+     * or to set a deadline for synchronous servlet, which has no timeout of its own
+     */
+    private Duration requestTimeout(AsyncServletProperties asyncServletProperties) {
+        if (requestTimeoutInMillis >= 0) {
+            return Duration.ofMillis(requestTimeoutInMillis);
+        }
+        if (asyncServletProperties != null && asyncServletProperties.isEnabled() && asyncServletProperties.getTimeout() != null) {
+            return asyncServletProperties.getTimeout();
+        }
+        return Duration.ZERO;
     }
 
     private void addDirectives(SchemaParserBuilder schemaParserBuilder, List<GraphQLDirectiveWiring> directives) {
@@ -0,0 +1,235 @@
+package org.rapidgraphql.schemabuilder;
+
+import graphql.language.AstPrinter;
+import graphql.language.Definition;
+import graphql.language.Document;
+import graphql.parser.Parser;
+import graphql.parser.ParserEnvironment;
+import graphql.parser.ParserOptions;
+import org.rapidgraphql.exceptions.GraphQLSchemaGenerationException;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Schema definitions and implementation dictionary generated at build time by {@link SchemaGenerator}.
+ * Stored in the classpath as META-INF/rapidgraphql/schema.graphqls (SDL) and
+ * META-INF/rapidgraphql/schema.properties (resolver classes, type classes, hash of their bytecode
+ * and implementation dictionary), so the application can skip reflective discovery of the types on startup.
+ * The schema is used only while the bytecode of its resolvers and types is unchanged, see {@link #matches}
+ */
+public class PrecomputedSchema {
+    private static final Logger LOGGER = getLogger(PrecomputedSchema.class);
+    public static final String LOCATION = "META-INF/rapidgraphql/";
+    static final String SCHEMA_FILE = "schema.graphqls";
+    static final String PROPERTIES_FILE = "schema.properties";
+    private static final String RESOLVERS_PROPERTY = "resolvers";
+    private static final String TYPES_PROPERTY = "types";
+    private static final String CLASSES_HASH_PROPERTY = "classes.hash";
+    private static final String DICTIONARY_PREFIX = "dictionary.";
+
+    private final Set<String> resolverClasses;
+    private final Set<String> typeClasses;
+    private final String classesHash;
+    private final List<Definition<?>> definitions;
+    private final Map<String, String> implementationDictionary;
+
+    PrecomputedSchema(Collection<String> resolverClasses, Collection<String> typeClasses, String classesHash,
+                      List<Definition<?>> definitions, Map<String, String> implementationDictionary) {
+        this.resolverClasses = new TreeSet<>(resolverClasses);
+        this.typeClasses = new TreeSet<>(typeClasses);
+        this.classesHash = classesHash;
+        this.definitions = definitions;
+        this.implementationDictionary = new TreeMap<>(implementationDictionary);
+    }
+
+    /**
+     * @param resolverClasses - classes of the resolvers
+     * @param definitions - definitions discovered from the resolvers
+     * @param implementationDictionary - implementation classes of the types by type name
+     * @param typeClasses - classes of the types discovered from the resolvers
+     * @return schema recording hash of the bytecode of the resolvers and types
+     */
+    static PrecomputedSchema of(Collection<Class<?>> resolverClasses, List<Definition<?>> definitions,
+                                Map<String, Class<?>> implementationDictionary, Collection<Class<?>> typeClasses) {
+        Map<String, String> dictionary = new HashMap<>();
+        implementationDictionary.forEach((name, clazz) -> dictionary.put(name, clazz.getName()));
+        return new PrecomputedSchema(resolverClasses.stream().map(Class::getName).toList(),
+                typeClasses.stream().map(Class::getName).toList(), classesHash(resolverClasses, typeClasses),
+                definitions, dictionary);
+    }
+
+    private static String classesHash(Collection<Class<?>> resolverClasses, Collection<Class<?>> typeClasses) {
+        List<Class<?>> classes = new ArrayList<>(resolverClasses);
+        classes.addAll(typeClasses);
+        // output depends on the schema builder version as well
+        classes.add(DefinitionFactory.class);
+        return ClassHashes.hash(classes);
+    }
+
+    /**
+     * @param classLoader - class loader of the application
+     * @return schema generated at build time, empty if the application wasn't processed by {@link SchemaGenerator}
+     */
+    public static Optional<PrecomputedSchema> load(ClassLoader classLoader) {
+        String sdl = readResource(classLoader, LOCATION + SCHEMA_FILE);
+        String properties = readResource(classLoader, LOCATION + PROPERTIES_FILE);
+        if (sdl == null || properties == null) {
+            return Optional.empty();
+        }
+        return Optional.of(parse(sdl, properties));
+    }
+
+    static PrecomputedSchema parse(String sdl, String propertiesText) {
+        Properties properties = new Properties();
+        try {
+            properties.load(new StringReader(propertiesText));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<String> resolverClasses = classNames(properties.getProperty(RESOLVERS_PROPERTY, ""));
+        List<String> typeClasses = classNames(properties.getProperty(TYPES_PROPERTY, ""));
+        Map<String, String> dictionary = new HashMap<>();
+        properties.stringPropertyNames().forEach(name -> {
+            if (name.startsWith(DICTIONARY_PREFIX)) {
+                dictionary.put(name.substring(DICTIONARY_PREFIX.length()), properties.getProperty(name));
+            }
+        });
+        Document document = new Parser().parseDocument(ParserEnvironment.newParserEnvironment()
+                .document(sdl)
+                .parserOptions(ParserOptions.getDefaultSdlParserOptions())
+                .build());
+        List<Definition<?>> definitions = new ArrayList<>();
+        document.getDefinitions().forEach(definitions::add);
+        return new PrecomputedSchema(resolverClasses, typeClasses, properties.getProperty(CLASSES_HASH_PROPERTY),
+                definitions, dictionary);
+    }
+
+    private static List<String> classNames(String property) {
+        List<String> classNames = new ArrayList<>();
+        for (String className : property.split(",")) {
+            if (!className.isBlank()) {
+                classNames.add(className.trim());
+            }
+        }
+        return classNames;
+    }
+
+    private static String readResource(ClassLoader classLoader, String name) {
+        try (InputStream stream = classLoader.getResourceAsStream(name)) {
+            return stream == null ? null : new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Precomputed schema can be used only if it was generated from the same resolvers the application has,
+     * and neither the resolvers nor the types (or their superclasses) changed since then
+     * @param resolverClasses - classes of the resolver beans
+     * @param classLoader - class loader of the application
+     * @return true if the schema was generated from exactly these resolvers and types
+     */
+    public boolean matches(Collection<Class<?>> resolverClasses, ClassLoader classLoader) {
+        String mismatch = mismatch(resolverClasses, classLoader);
+        if (mismatch != null) {
+            LOGGER.warn("Precomputed schema can't be used: {}", mismatch);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return reason why the schema doesn't match the classes, null if it matches
+     */
+    String mismatch(Collection<Class<?>> resolverClasses, ClassLoader classLoader) {
+        Set<String> names = resolverClasses.stream().map(Class::getName).collect(Collectors.toCollection(TreeSet::new));
+        if (!names.equals(this.resolverClasses)) {
+            return "it was generated for resolvers " + this.resolverClasses + ", but application has " + names;
+        }
+        if (classesHash == null) {
+            return "it has no hash of the classes, it was generated by older version";
+        }
+        List<Class<?>> types = new ArrayList<>();
+        for (String typeClass : typeClasses) {
+            try {
+                types.add(Class.forName(typeClass, false, classLoader));
+            } catch (ClassNotFoundException e) {
+                return "type class " + typeClass + " not found";
+            }
+        }
+        try {
+            if (!classesHash(resolverClasses, types).equals(classesHash)) {
+                return "resolver or type classes changed since it was generated";
+            }
+        } catch (UncheckedIOException e) {
+            return "bytecode of the classes can't be read: " + e.getMessage();
+        }
+        return null;
+    }
+
+    public List<Definition<?>> getDefinitions() {
+        return definitions;
+    }
+
+    /**
+     * @param classLoader - class loader of the application
+     * @return implementation classes of the types by type name
+     */
+    public Map<String, Class<?>> getImplementationDictionary(ClassLoader classLoader) {
+        Map<String, Class<?>> dictionary = new HashMap<>();
+        implementationDictionary.forEach((name, className) -> {
+            try {
+                dictionary.put(name, Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException e) {
+                throw new GraphQLSchemaGenerationException("Class " + className + " of precomputed type " + name + " not found");
+            }
+        });
+        return dictionary;
+    }
+
+    /**
+     * Writes the schema into META-INF/rapidgraphql of the output directory
+     * @param outputDirectory - root of the classpath, e.g. target/classes
+     */
+    public void write(Path outputDirectory) throws IOException {
+        Path location = outputDirectory.resolve(LOCATION);
+        Files.createDirectories(location);
+        Files.writeString(location.resolve(SCHEMA_FILE), toSdl(), StandardCharsets.UTF_8);
+        Files.writeString(location.resolve(PROPERTIES_FILE), toProperties(), StandardCharsets.ISO_8859_1);
+    }
+
+    String toSdl() {
+        return AstPrinter.printAst(Document.newDocument().definitions(new ArrayList<Definition>(definitions)).build());
+    }
+
+    String toProperties() {
+        // written by hand (not Properties.store) to keep the output free of timestamps and sorted
+        StringBuilder properties = new StringBuilder();
+        properties.append(RESOLVERS_PROPERTY).append('=').append(String.join(",", resolverClasses)).append('\n');
+        properties.append(TYPES_PROPERTY).append('=').append(String.join(",", typeClasses)).append('\n');
+        properties.append(CLASSES_HASH_PROPERTY).append('=').append(classesHash).append('\n');
+        implementationDictionary.forEach((name, className) ->
+                properties.append(DICTIONARY_PREFIX).append(name).append('=').append(className).append('\n'));
+        return properties.toString();
+    }
+}
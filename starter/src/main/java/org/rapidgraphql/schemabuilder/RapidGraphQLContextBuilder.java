@@ -9,16 +9,30 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.websocket.Session;
 import jakarta.websocket.server.HandshakeRequest;
 import org.rapidgraphql.dataloaders.DataLoaderRegistryFactory;
+import org.rapidgraphql.dataloaders.Deadline;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 public class RapidGraphQLContextBuilder extends DefaultGraphQLContextBuilder
         implements GraphQLServletContextBuilder {
     private final DataLoaderRegistryFactory dataLoaderRegistryFactory;
+    private final Duration requestTimeout;
 
     public RapidGraphQLContextBuilder(DataLoaderRegistryFactory dataLoaderRegistryFactory) {
+        this(dataLoaderRegistryFactory, Duration.ZERO);
+    }
+
+    /**
+     * @param dataLoaderRegistryFactory - factory of per request data loaders
+     * @param requestTimeout - time budget of HTTP requests passed to data loaders as {@link Deadline},
+     *                       zero means requests have no deadline. Websocket operations have no deadline,
+     *                       since their context is built once per session, which lives as long as the client wants
+     */
+    public RapidGraphQLContextBuilder(DataLoaderRegistryFactory dataLoaderRegistryFactory, Duration requestTimeout) {
         this.dataLoaderRegistryFactory = dataLoaderRegistryFactory;
+        this.requestTimeout = requestTimeout;
     }
 
 
@@ -27,6 +41,9 @@ public class RapidGraphQLContextBuilder extends DefaultGraphQLContextBuilder
         Map<Object, Object> map = new HashMap<>();
         map.put(HttpServletRequest.class, request);
         map.put(HttpServletResponse.class, response);
+        if (!requestTimeout.isZero() && !requestTimeout.isNegative()) {
+            map.put(Deadline.class, Deadline.after(requestTimeout));
+        }
         return GraphQLKickstartContext.of(buildDataLoaderRegistry(), map);
     }
 
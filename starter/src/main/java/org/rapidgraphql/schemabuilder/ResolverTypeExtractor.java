@@ -20,7 +20,11 @@ public class ResolverTypeExtractor {
     private static final Logger LOGGER = getLogger(ResolverTypeExtractor.class);
 
     public static Optional<DiscoveredClass> extractResolverType(GraphQLResolver<?> graphQLResolver) {
-        return extractResolverTypeFromClass(graphQLResolver.getClass());
+        return extractResolverType(graphQLResolver.getClass());
+    }
+
+    public static Optional<DiscoveredClass> extractResolverType(Class<?> resolverClass) {
+        return extractResolverTypeFromClass(resolverClass);
     }
 
     private static Optional<DiscoveredClass> extractResolverTypeFromClass(Class<?> resolverClass) {
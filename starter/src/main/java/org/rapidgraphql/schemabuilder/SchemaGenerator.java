@@ -0,0 +1,78 @@
+package org.rapidgraphql.schemabuilder;
+
+import graphql.kickstart.tools.GraphQLResolver;
+import graphql.language.Definition;
+import org.rapidgraphql.exceptions.GraphQLSchemaGenerationException;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Generates schema of the application at build time, see {@link PrecomputedSchema}.
+ * Scans the packages for GraphQLResolver implementations and writes their definitions into the output directory.
+ * Usually executed by exec-maven-plugin in process-classes phase:
+ * <code>
+ *     &lt;mainClass&gt;org.rapidgraphql.schemabuilder.SchemaGenerator&lt;/mainClass&gt;
+ *     &lt;arguments&gt;
+ *         &lt;argument&gt;${project.build.outputDirectory}&lt;/argument&gt;
+ *         &lt;argument&gt;com.example.graphql&lt;/argument&gt;
+ *     &lt;/arguments&gt;
+ * </code>
+ */
+public class SchemaGenerator {
+    private static final Logger LOGGER = getLogger(SchemaGenerator.class);
+
+    /**
+     * @param args - output directory followed by packages to scan for resolvers
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: SchemaGenerator <output directory> <package>...");
+        }
+        List<Class<?>> resolverClasses = findResolvers(Arrays.asList(args).subList(1, args.length));
+        LOGGER.info("{} resolvers found", resolverClasses.size());
+        generate(resolverClasses).write(Path.of(args[0]));
+    }
+
+    static List<Class<?>> findResolvers(List<String> packages) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(GraphQLResolver.class));
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return packages.stream()
+                .flatMap(basePackage -> scanner.findCandidateComponents(basePackage).stream())
+                .map(BeanDefinition::getBeanClassName)
+                .distinct()
+                .map(className -> loadClass(className, classLoader))
+                .sorted(Comparator.comparing(Class::getName))
+                .collect(Collectors.toList());
+    }
+
+    private static Class<?> loadClass(String className, ClassLoader classLoader) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new GraphQLSchemaGenerationException("Resolver class " + className + " not found");
+        }
+    }
+
+    /**
+     * @param resolverClasses - classes of all resolvers of the application
+     * @return schema of the resolvers
+     */
+    public static PrecomputedSchema generate(List<Class<?>> resolverClasses) {
+        DefinitionFactory definitionFactory = new DefinitionFactory(new DefaultValueAnnotationProcessorImpl());
+        List<Definition<?>> definitions = definitionFactory.createDefinitions(resolverClasses);
+        return PrecomputedSchema.of(resolverClasses, definitions, definitionFactory.getImplementationDictionary(),
+                definitionFactory.getDiscoveredClasses());
+    }
+}
@@ -0,0 +1,110 @@
+package org.rapidgraphql.schemabuilder;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Local file cache of the schema discovered on startup, for warm restarts of applications
+ * which don't generate the schema at build time (see {@link SchemaGenerator}).
+ * Snapshot file is named by the hash of bytecode of the resolver classes and of the schema builder itself.
+ * Snapshot is reused only while it {@link PrecomputedSchema#matches matches} the classes,
+ * so change of any class contributing to the schema invalidates the snapshot. Snapshots are read memory mapped.
+ * Failures to read the bytecode are logged, the schema is discovered as usual then
+ */
+public class SchemaSnapshotCache {
+    private static final Logger LOGGER = getLogger(SchemaSnapshotCache.class);
+    // properties of the snapshot are separated from the SDL by an empty line
+    private static final String SEPARATOR = "\n\n";
+
+    private final Path directory;
+    private final ClassLoader classLoader;
+
+    /**
+     * @param directory - directory of the snapshot files, created if missing
+     * @param classLoader - class loader of the application
+     */
+    public SchemaSnapshotCache(Path directory, ClassLoader classLoader) {
+        this.directory = directory;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @param resolverClasses - classes of the resolver beans
+     * @return snapshot of the schema of these resolvers, empty if it wasn't stored or any of its classes changed
+     */
+    public Optional<PrecomputedSchema> load(Collection<Class<?>> resolverClasses) {
+        Path file = null;
+        try {
+            file = snapshotFile(resolverClasses);
+            if (!Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+            String snapshot = readMapped(file);
+            int separator = snapshot.indexOf(SEPARATOR);
+            if (separator < 0) {
+                LOGGER.warn("Schema snapshot {} is corrupted", file);
+                return Optional.empty();
+            }
+            PrecomputedSchema schema = PrecomputedSchema.parse(snapshot.substring(separator + SEPARATOR.length()),
+                    snapshot.substring(0, separator + 1));
+            String mismatch = schema.mismatch(resolverClasses, classLoader);
+            if (mismatch != null) {
+                LOGGER.info("Schema snapshot {} is outdated: {}", file, mismatch);
+                return Optional.empty();
+            }
+            return Optional.of(schema);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to read schema snapshot {}", file == null ? resolverClasses : file, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the snapshot, failures are logged and ignored
+     * @param resolverClasses - classes of the resolver beans
+     * @param schema - schema discovered from the resolvers, see {@link PrecomputedSchema#of}
+     */
+    public void store(Collection<Class<?>> resolverClasses, PrecomputedSchema schema) {
+        Path file = null;
+        try {
+            file = snapshotFile(resolverClasses);
+            String snapshot = schema.toProperties() + '\n' + schema.toSdl();
+            Files.createDirectories(directory);
+            // other instances sharing the directory never see partially written snapshot
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.writeString(temporary, snapshot, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.info("Schema snapshot stored to {}", file);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to store schema snapshot {}", file == null ? resolverClasses : file, e);
+        }
+    }
+
+    Path snapshotFile(Collection<Class<?>> resolverClasses) {
+        List<Class<?>> classes = new ArrayList<>(resolverClasses);
+        // output depends on the schema builder version as well
+        classes.add(DefinitionFactory.class);
+        return directory.resolve("schema-" + ClassHashes.hash(classes) + ".snapshot");
+    }
+
+    private static String readMapped(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return StandardCharsets.UTF_8.decode(buffer).toString();
+        }
+    }
+}
@@ -19,27 +19,38 @@ import static org.slf4j.LoggerFactory.getLogger;
 public class InterfaceUtils {
     private static final Logger LOGGER = getLogger(InterfaceUtils.class);
 
-    private static List<Class<?>> allImplementations;
+    private static volatile List<Class<?>> allImplementations;
     public static List<Class<?>> findImplementations(Class<?> interfaceClass) {
+        return getAllImplementations(interfaceClass).stream()
+                .filter(implementation -> interfaceClass.isAssignableFrom(implementation))
+                .filter(implementation -> implementation.isAnnotationPresent(GraphQLImplementation.class))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Class<?>> getAllImplementations(Class<?> interfaceClass) {
+        List<Class<?>> implementations = allImplementations;
+        return implementations != null ? implementations : scanImplementations(interfaceClass);
+    }
+
+    // types can be discovered in parallel, the classpath is scanned once
+    private static synchronized List<Class<?>> scanImplementations(Class<?> interfaceClass) {
         if (allImplementations == null) {
             ClassPathScanningCandidateComponentProvider scanner =
                     new ClassPathScanningCandidateComponentProvider(false);
 
             scanner.addIncludeFilter(new AnnotationTypeFilter(GraphQLImplementation.class, false, true));
-            allImplementations = new ArrayList<>();
+            List<Class<?>> implementations = new ArrayList<>();
             for (BeanDefinition bd : scanner.findCandidateComponents(ClassUtils.getPackageName(interfaceClass))) {
                 LOGGER.info("Discovered interface implementation {}", bd.getBeanClassName());
                 try {
-                    allImplementations.add(ClassUtils.forName(bd.getBeanClassName(), interfaceClass.getClassLoader()));
+                    implementations.add(ClassUtils.forName(bd.getBeanClassName(), interfaceClass.getClassLoader()));
                 } catch (ClassNotFoundException e) {
                     throw new GraphQLSchemaGenerationException("Failed to resolve implementation class for interface", e);
                 }
             }
+            allImplementations = implementations;
         }
-        return allImplementations.stream()
-                .filter(implementation -> interfaceClass.isAssignableFrom(implementation))
-                .filter(implementation -> implementation.isAnnotationPresent(GraphQLImplementation.class))
-                .collect(Collectors.toList());
+        return allImplementations;
     }
 
     public static Optional<Class<?>> getGraphQLInterface(Class<?> implementation) {
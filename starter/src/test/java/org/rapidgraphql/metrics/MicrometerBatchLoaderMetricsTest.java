@@ -0,0 +1,94 @@
+package org.rapidgraphql.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.dataloader.DataLoader;
+import org.junit.jupiter.api.Test;
+import org.rapidgraphql.dataloaders.BatchLoaderExecutor;
+import org.rapidgraphql.dataloaders.DataLoaderRegistryFactory;
+import org.rapidgraphql.dataloaders.GraphQLBatchLoader;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicrometerBatchLoaderMetricsTest {
+
+    public static class DoublingLoader extends GraphQLBatchLoader<Integer, Integer> {
+        public DoublingLoader() {
+            super("doubling");
+        }
+
+        @Override
+        public List<Integer> syncLoad(List<Integer> keys) {
+            return keys.stream().map(key -> key * 2).toList();
+        }
+    }
+
+    public static class GuardedLoader extends GraphQLBatchLoader<Integer, Integer> {
+        public GuardedLoader() {
+            super("guarded");
+            useCircuitBreaker(1, Duration.ofMinutes(1));
+        }
+
+        @Override
+        public List<Integer> syncLoad(List<Integer> keys) {
+            throw new IllegalStateException("backend is down");
+        }
+    }
+
+    @Test
+    public void publishesCircuitBreakerState() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GuardedLoader loader = new GuardedLoader();
+        DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader), 10, 1,
+                BatchLoaderExecutor.commonPool(), new MicrometerBatchLoaderMetrics(registry));
+        assertThat(registry.get("rapidgraphql.dataloader.circuit.state").tags("loader", "guarded", "state", "closed")
+                .gauge().value()).isEqualTo(1.0);
+
+        DataLoader<Integer, Integer> dataLoader = loader.registerIn(factory.build());
+        CompletableFuture<Integer> value = dataLoader.load(1);
+        dataLoader.dispatch();
+        assertThat(value).failsWithin(Duration.ofSeconds(5));
+
+        assertThat(registry.get("rapidgraphql.dataloader.circuit.state").tags("loader", "guarded", "state", "open")
+                .gauge().value()).isEqualTo(1.0);
+        assertThat(registry.get("rapidgraphql.dataloader.circuit.state").tags("loader", "guarded", "state", "closed")
+                .gauge().value()).isZero();
+        factory.close();
+    }
+
+    @Test
+    public void publishesMetersTaggedWithLoaderName() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DoublingLoader loader = new DoublingLoader();
+        try (BatchLoaderExecutor executor = BatchLoaderExecutor.fixed("test", 1, 10, BatchLoaderExecutor.RejectionPolicy.ABORT)) {
+            DataLoaderRegistryFactory factory = new DataLoaderRegistryFactory(List.of(loader), 10, 1,
+                    executor, new MicrometerBatchLoaderMetrics(registry));
+            DataLoader<Integer, Integer> dataLoader = loader.registerIn(factory.build());
+            dataLoader.load(1);
+            dataLoader.load(2);
+            dataLoader.load(2);
+            assertThat(registry.get("rapidgraphql.dataloader.pending.keys").tag("loader", "doubling").gauge().value())
+                    .isEqualTo(2.0);
+            dataLoader.dispatchAndJoin();
+
+            assertThat(registry.get("rapidgraphql.dataloader.batch.size").tag("loader", "doubling").summary().totalAmount())
+                    .isEqualTo(2.0);
+            assertThat(registry.get("rapidgraphql.dataloader.batch.load").tags("loader", "doubling", "outcome", "success")
+                    .timer().count()).isEqualTo(1);
+            assertThat(registry.get("rapidgraphql.dataloader.dispatch.delay").tag("loader", "doubling").timer().count())
+                    .isEqualTo(1);
+            assertThat(registry.get("rapidgraphql.dataloader.cache.requests")
+                    .tags("loader", "doubling", "cache", "future", "result", "hit").counter().count()).isEqualTo(1.0);
+            assertThat(registry.get("rapidgraphql.dataloader.cache.requests")
+                    .tags("loader", "doubling", "cache", "future", "result", "miss").counter().count()).isEqualTo(2.0);
+            assertThat(registry.get("rapidgraphql.dataloader.pending.keys").tag("loader", "doubling").gauge().value())
+                    .isZero();
+            assertThat(registry.get("rapidgraphql.dataloader.executor.queued").tag("executor", "test").gauge().value())
+                    .isZero();
+            factory.close();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.rapidgraphql.preparsed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.kickstart.execution.GraphQLRequest;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutomaticPersistedQueriesTest {
+    private static final String QUERY = "{ hello }";
+    private static final String HASH = QueryNormalizer.sha256(QUERY);
+    private static final GraphQLSchema SCHEMA = new SchemaGenerator().makeExecutableSchema(
+            new SchemaParser().parse("type Query { hello: String }"),
+            RuntimeWiring.newRuntimeWiring()
+                    .type("Query", builder -> builder.dataFetcher("hello", env -> "world"))
+                    .build());
+
+    private static class MapStore implements PersistedQueryStore {
+        private final Map<String, String> queries = new ConcurrentHashMap<>();
+
+        @Override
+        public String get(String sha256Hash) {
+            return queries.get(sha256Hash);
+        }
+
+        @Override
+        public void put(String sha256Hash, String query) {
+            queries.put(sha256Hash, query);
+        }
+    }
+
+    private static GraphQL graphQL(AutomaticPersistedQueries persistedQueries) {
+        return GraphQL.newGraphQL(SCHEMA).preparsedDocumentProvider(persistedQueries).build();
+    }
+
+    private static AutomaticPersistedQueries persistedQueries(PersistedQueryStore sharedStore) {
+        return new AutomaticPersistedQueries(new PreparsedDocumentCache(10_000), 10_000, sharedStore);
+    }
+
+    private static ExecutionResult execute(GraphQL graphQL, String query, String hash) {
+        return graphQL.execute(ExecutionInput.newExecutionInput(query)
+                .extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)))
+                .build());
+    }
+
+    @Test
+    public void unknownHashIsRegisteredWithTheQuery() {
+        AutomaticPersistedQueries persistedQueries = persistedQueries(null);
+        GraphQL graphQL = graphQL(persistedQueries);
+
+        ExecutionResult notFound = execute(graphQL, PersistedQuerySupport.PERSISTED_QUERY_MARKER, HASH);
+        assertThat(notFound.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getMessage()).isEqualTo("PersistedQueryNotFound"));
+
+        assertThat(execute(graphQL, QUERY, HASH).<Map<String, Object>>getData()).containsEntry("hello", "world");
+        assertThat(execute(graphQL, PersistedQuerySupport.PERSISTED_QUERY_MARKER, HASH).<Map<String, Object>>getData())
+                .containsEntry("hello", "world");
+        assertThat(persistedQueries.getQueries().asMap()).containsEntry(HASH, QUERY);
+        // requests without the hash are served as usual
+        assertThat(graphQL.execute(QUERY).<Map<String, Object>>getData()).containsEntry("hello", "world");
+    }
+
+    @Test
+    public void queryNotMatchingTheHashIsRejected() {
+        AutomaticPersistedQueries persistedQueries = persistedQueries(null);
+        ExecutionResult invalid = execute(graphQL(persistedQueries), "{ hello hello }", HASH);
+
+        assertThat(invalid.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getMessage()).isEqualTo("PersistedQueryIdInvalid"));
+        assertThat(persistedQueries.getQueries().asMap()).isEmpty();
+    }
+
+    @Test
+    public void queriesAreSharedByInstances() {
+        MapStore sharedStore = new MapStore();
+        execute(graphQL(persistedQueries(sharedStore)), QUERY, HASH);
+        assertThat(sharedStore.queries).containsEntry(HASH, QUERY);
+
+        ExecutionResult result = execute(graphQL(persistedQueries(sharedStore)), PersistedQuerySupport.PERSISTED_QUERY_MARKER, HASH);
+        assertThat(result.<Map<String, Object>>getData()).containsEntry("hello", "world");
+    }
+
+    @Test
+    public void requestWithoutQueryIsMarked() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new PersistedQueryRequestModule());
+        GraphQLRequest request = objectMapper.readValue(
+                "{\"extensions\": {\"persistedQuery\": {\"version\": 1, \"sha256Hash\": \"" + HASH + "\"}}}",
+                GraphQLRequest.class);
+        assertThat(request.getQuery()).isEqualTo(PersistedQuerySupport.PERSISTED_QUERY_MARKER);
+
+        assertThat(objectMapper.readValue("{\"query\": \"{ hello }\"}", GraphQLRequest.class).getQuery())
+                .isEqualTo(QUERY);
+    }
+}
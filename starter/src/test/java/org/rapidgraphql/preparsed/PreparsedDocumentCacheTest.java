@@ -0,0 +1,120 @@
+package org.rapidgraphql.preparsed;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.parser.Parser;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PreparsedDocumentCacheTest {
+    private static final String QUERY = """
+            query Products($first: Int = 10) {
+              products(first: $first, filter: {name: "a, b # c"}) { id ...ProductFields }
+            }
+            fragment ProductFields on Product { name price }
+            """;
+    private static final String REFORMATTED_QUERY = """
+            # fragments first
+            fragment ProductFields on Product {
+                name,
+                price
+            }
+            query Products($first:Int=10){products(first:$first filter:{name:"a, b # c"}){id, ... ProductFields}}
+            """;
+
+    private final AtomicInteger parseCount = new AtomicInteger();
+    private final Function<ExecutionInput, PreparsedDocumentEntry> parseFunction = executionInput -> {
+        parseCount.incrementAndGet();
+        return new PreparsedDocumentEntry(Parser.parse(executionInput.getQuery()));
+    };
+
+    private PreparsedDocumentEntry getDocument(PreparsedDocumentCache cache, String query) {
+        return cache.getDocument(ExecutionInput.newExecutionInput(query).build(), parseFunction);
+    }
+
+    @Test
+    public void normalizationIgnoresFormattingAndDefinitionsOrder() {
+        assertThat(QueryNormalizer.normalize(REFORMATTED_QUERY)).isEqualTo(QueryNormalizer.normalize(QUERY));
+        assertThat(QueryNormalizer.normalize(QUERY)).isEqualTo("""
+                fragment ProductFields on Product{name price}
+                query Products($first:Int=10){products(first:$first filter:{name:"a, b # c"}){id ... ProductFields}}""");
+    }
+
+    @Test
+    public void normalizationKeepsSignificantDifferences() {
+        assertThat(QueryNormalizer.normalize("{ product(name: \"a  b\") { id } }"))
+                .isNotEqualTo(QueryNormalizer.normalize("{ product(name: \"a b\") { id } }"));
+        assertThat(QueryNormalizer.normalize("{ product { id name } }"))
+                .isNotEqualTo(QueryNormalizer.normalize("{ product { idname } }"));
+        assertThat(QueryNormalizer.normalize("{ a(x: \"\"\"multi \"\"\\\"\"\" line\"\"\") }"))
+                .isEqualTo("{a(x:\"\"\"multi \"\"\\\"\"\" line\"\"\")}");
+    }
+
+    @Test
+    public void reformattedQueryHitsTheCache() {
+        PreparsedDocumentCache cache = new PreparsedDocumentCache(10_000);
+        PreparsedDocumentEntry entry = getDocument(cache, QUERY);
+        assertThat(getDocument(cache, REFORMATTED_QUERY)).isSameAs(entry);
+        assertThat(parseCount).hasValue(1);
+        assertThat(cache.getCache().stats().hitCount()).isEqualTo(1);
+        assertThat(cache.getCache().stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void cacheIsBoundedByQueriesLength() {
+        PreparsedDocumentCache cache = new PreparsedDocumentCache(QUERY.length() * 2L);
+        for (int i = 0; i < 10; i++) {
+            getDocument(cache, QUERY.replace("Products", "Products" + i));
+        }
+        cache.getCache().cleanUp();
+        assertThat(cache.getCache().estimatedSize()).isLessThanOrEqualTo(2);
+        assertThat(cache.getCache().stats().evictionCount()).isGreaterThanOrEqualTo(8);
+    }
+
+    @Test
+    public void repeatedQueryTextIsNotNormalizedAgain() {
+        PreparsedDocumentCache cache = new PreparsedDocumentCache(10_000);
+        PreparsedDocumentEntry entry = getDocument(cache, QUERY);
+        assertThat(getDocument(cache, REFORMATTED_QUERY)).isSameAs(entry);
+        assertThat(cache.getKeysByQuery().asMap()).containsOnlyKeys(QUERY, REFORMATTED_QUERY);
+        assertThat(cache.getKeysByQuery().getIfPresent(QUERY)).isEqualTo(QueryNormalizer.normalizedHash(QUERY));
+
+        // the key remembered for the text is used as is
+        cache.getKeysByQuery().put(QUERY, "remembered");
+        assertThat(getDocument(cache, QUERY)).isNotSameAs(entry);
+        assertThat(cache.getCache().asMap()).containsKey("remembered");
+        assertThat(parseCount).hasValue(2);
+    }
+
+    @Test
+    public void cacheCanBeBoundedByNumberOfQueries() {
+        PreparsedDocumentCache cache = PreparsedDocumentCache.withMaximumSize(2);
+        for (int i = 0; i < 10; i++) {
+            getDocument(cache, QUERY.replace("Products", "Products" + i));
+        }
+        cache.getCache().cleanUp();
+        cache.getKeysByQuery().cleanUp();
+        assertThat(cache.getCache().estimatedSize()).isLessThanOrEqualTo(2);
+        assertThat(cache.getKeysByQuery().estimatedSize()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void publishesCacheMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PreparsedDocumentCache cache = new PreparsedDocumentCache(10_000);
+        CaffeineCacheMetrics.monitor(registry, cache.getCache(), "rapidgraphql.parsed-queries");
+        getDocument(cache, QUERY);
+        getDocument(cache, REFORMATTED_QUERY);
+
+        assertThat(registry.get("cache.gets").tags("cache", "rapidgraphql.parsed-queries", "result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.gets").tags("cache", "rapidgraphql.parsed-queries", "result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+}
@@ -1,6 +1,9 @@
 package org.rapidgraphql.schemabuilder;
 
+import graphql.kickstart.tools.GraphQLQueryResolver;
+import graphql.language.AstPrinter;
 import graphql.language.Definition;
+import graphql.language.Document;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -8,6 +11,9 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.rapidgraphql.utils.TypeKind;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -64,4 +70,57 @@ class DefinitionFactoryTest {
         System.out.println(definition.get());
     }
 
-}
\ No newline at end of file
+    public static class Customer {
+        public String getName() { return null; }
+        public Address getAddress() { return null; }
+    }
+
+    public static class Address {
+        public String getCity() { return null; }
+    }
+
+    public static class Item {
+        public Product getProduct() { return null; }
+        public int getQuantity() { return 0; }
+    }
+
+    public static class Product {
+        public String getName() { return null; }
+        public Status getStatus() { return null; }
+    }
+
+    public enum Status { ACTIVE, DELETED }
+
+    public static class Order {
+        public Customer getCustomer() { return null; }
+        public List<Item> getItems() { return null; }
+    }
+
+    public static class OrderQuery implements GraphQLQueryResolver {
+        public Order order(String id) { return null; }
+        public Customer customer(String id) { return null; }
+    }
+
+    private static String createSchema(int parallelism) {
+        DefinitionFactory factory = new DefinitionFactory(new DefaultValueAnnotationProcessorImpl());
+        factory.setParallelism(parallelism);
+        List<Definition<?>> definitions = factory.createDefinitions(List.of(OrderQuery.class));
+        return AstPrinter.printAst(Document.newDocument().definitions(new ArrayList<Definition>(definitions)).build());
+    }
+
+    private static List<String> sortedDefinitions(String schema) {
+        return Arrays.stream(schema.split("\\n\\n")).sorted().toList();
+    }
+
+    @Test
+    public void parallelDiscoveryIsDeterministic() {
+        String sequential = createSchema(1);
+        String parallel = createSchema(4);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(parallel, createSchema(4));
+        }
+        assertEquals(sortedDefinitions(sequential), sortedDefinitions(parallel));
+        assertTrue(parallel.contains("type Address"));
+        assertTrue(parallel.contains("enum Status"));
+    }
+}
@@ -0,0 +1,92 @@
+package org.rapidgraphql.schemabuilder;
+
+import graphql.kickstart.tools.GraphQLQueryResolver;
+import graphql.kickstart.tools.GraphQLResolver;
+import graphql.language.AstPrinter;
+import graphql.language.Definition;
+import graphql.language.Document;
+import lombok.Value;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaGeneratorTest {
+    @Value
+    public static class Product {
+        String id;
+        String name;
+    }
+
+    public static class ProductQuery implements GraphQLQueryResolver {
+        public Product product(String id) {
+            return new Product(id, "product " + id);
+        }
+    }
+
+    public static class ProductResolver implements GraphQLResolver<Product> {
+        public String description(Product product, Integer maxLength) {
+            return product.getName();
+        }
+    }
+
+    private static String print(List<Definition<?>> definitions) {
+        return AstPrinter.printAst(Document.newDocument().definitions(new ArrayList<Definition>(definitions)).build());
+    }
+
+    @Test
+    public void findsResolversOfThePackage() {
+        assertThat(SchemaGenerator.findResolvers(List.of(SchemaGeneratorTest.class.getPackageName())))
+                .contains(ProductQuery.class, ProductResolver.class);
+    }
+
+    @Test
+    public void precomputedSchemaMatchesReflectiveDiscovery(@TempDir Path outputDirectory) throws IOException {
+        List<Class<?>> resolverClasses = List.of(ProductQuery.class, ProductResolver.class);
+        SchemaGenerator.generate(resolverClasses).write(outputDirectory);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()},
+                getClass().getClassLoader())) {
+            PrecomputedSchema schema = PrecomputedSchema.load(classLoader).orElseThrow();
+            assertThat(schema.matches(List.of(ProductResolver.class, ProductQuery.class), classLoader)).isTrue();
+            assertThat(schema.matches(List.of(ProductQuery.class), classLoader)).isFalse();
+
+            DefinitionFactory definitionFactory = new DefinitionFactory(new DefaultValueAnnotationProcessorImpl());
+            assertThat(print(schema.getDefinitions())).isEqualTo(print(definitionFactory.createDefinitions(resolverClasses)));
+            assertThat(schema.getImplementationDictionary(classLoader))
+                    .isEqualTo(definitionFactory.getImplementationDictionary());
+        }
+    }
+
+    @Test
+    public void precomputedSchemaOfChangedClassesDoesNotMatch(@TempDir Path outputDirectory) throws IOException {
+        List<Class<?>> resolverClasses = List.of(ProductQuery.class, ProductResolver.class);
+        SchemaGenerator.generate(resolverClasses).write(outputDirectory);
+        Path properties = outputDirectory.resolve(PrecomputedSchema.LOCATION + PrecomputedSchema.PROPERTIES_FILE);
+        String generated = Files.readString(properties);
+        assertThat(generated).contains("types=" + Product.class.getName());
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()},
+                getClass().getClassLoader())) {
+            Files.writeString(properties, generated.replaceFirst("classes.hash=.*", "classes.hash=0"));
+            assertThat(PrecomputedSchema.load(classLoader).orElseThrow().matches(resolverClasses, classLoader)).isFalse();
+
+            // generated by version which didn't record the hash
+            Files.writeString(properties, generated.replaceFirst("classes.hash=.*\n", ""));
+            assertThat(PrecomputedSchema.load(classLoader).orElseThrow().matches(resolverClasses, classLoader)).isFalse();
+        }
+    }
+
+    @Test
+    public void missingPrecomputedSchema() {
+        assertThat(PrecomputedSchema.load(new URLClassLoader(new URL[0], null))).isEmpty();
+    }
+}
@@ -0,0 +1,156 @@
+package org.rapidgraphql.schemabuilder;
+
+import graphql.language.AstPrinter;
+import graphql.language.Definition;
+import graphql.language.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rapidgraphql.schemabuilder.SchemaGeneratorTest.Product;
+import org.rapidgraphql.schemabuilder.SchemaGeneratorTest.ProductQuery;
+import org.rapidgraphql.schemabuilder.SchemaGeneratorTest.ProductResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaSnapshotCacheTest {
+    public static class BaseResolver {
+        public String version() {
+            return "v1";
+        }
+    }
+
+    public static class ChildResolver extends BaseResolver {}
+
+    // defines the classes itself, serving their (possibly patched) bytecode also as resources
+    private static class PatchingClassLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+        private final boolean failingResources;
+
+        PatchingClassLoader(Map<String, byte[]> classes, boolean failingResources) {
+            super(SchemaSnapshotCacheTest.class.getClassLoader());
+            this.classes = classes;
+            this.failingResources = failingResources;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            byte[] bytecode = classes.get(name);
+            if (bytecode == null) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                return loaded != null ? loaded : defineClass(name, bytecode, 0, bytecode.length);
+            }
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            byte[] bytecode = classes.get(name.replace('/', '.').replaceFirst("\\.class$", ""));
+            if (bytecode == null) {
+                return super.getResourceAsStream(name);
+            }
+            if (failingResources) {
+                return new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("broken jar");
+                    }
+                };
+            }
+            return new ByteArrayInputStream(bytecode);
+        }
+    }
+
+    private static byte[] bytecode(Class<?> clazz) throws IOException {
+        try (InputStream stream = clazz.getClassLoader().getResourceAsStream(clazz.getName().replace('.', '/') + ".class")) {
+            return stream.readAllBytes();
+        }
+    }
+
+    private static Class<?> loadChild(String baseVersion, boolean failingResources) throws Exception {
+        String base = new String(bytecode(BaseResolver.class), StandardCharsets.ISO_8859_1).replace("v1", baseVersion);
+        ClassLoader loader = new PatchingClassLoader(Map.of(
+                BaseResolver.class.getName(), base.getBytes(StandardCharsets.ISO_8859_1),
+                ChildResolver.class.getName(), bytecode(ChildResolver.class)), failingResources);
+        return loader.loadClass(ChildResolver.class.getName());
+    }
+    private final List<Class<?>> resolverClasses = List.of(ProductQuery.class, ProductResolver.class);
+
+    private static String print(List<Definition<?>> definitions) {
+        return AstPrinter.printAst(Document.newDocument().definitions(new ArrayList<Definition>(definitions)).build());
+    }
+
+    private DefinitionFactory storeSnapshot(SchemaSnapshotCache cache) {
+        DefinitionFactory definitionFactory = new DefinitionFactory(new DefaultValueAnnotationProcessorImpl());
+        List<Definition<?>> definitions = definitionFactory.createDefinitions(resolverClasses);
+        cache.store(resolverClasses, PrecomputedSchema.of(resolverClasses, definitions,
+                definitionFactory.getImplementationDictionary(), definitionFactory.getDiscoveredClasses()));
+        return definitionFactory;
+    }
+
+    @Test
+    public void storedSnapshotIsReused(@TempDir Path directory) {
+        SchemaSnapshotCache cache = new SchemaSnapshotCache(directory.resolve("schema"), getClass().getClassLoader());
+        assertThat(cache.load(resolverClasses)).isEmpty();
+        DefinitionFactory definitionFactory = storeSnapshot(cache);
+        assertThat(definitionFactory.getDiscoveredClasses()).contains(Product.class);
+
+        PrecomputedSchema snapshot = cache.load(List.of(ProductResolver.class, ProductQuery.class)).orElseThrow();
+        assertThat(print(snapshot.getDefinitions()))
+                .isEqualTo(print(new DefinitionFactory(new DefaultValueAnnotationProcessorImpl()).createDefinitions(resolverClasses)));
+        assertThat(snapshot.getImplementationDictionary(getClass().getClassLoader()))
+                .isEqualTo(definitionFactory.getImplementationDictionary());
+        assertThat(cache.load(List.of(ProductQuery.class))).isEmpty();
+    }
+
+    @Test
+    public void snapshotWithChangedTypesIsIgnored(@TempDir Path directory) throws IOException {
+        SchemaSnapshotCache cache = new SchemaSnapshotCache(directory, getClass().getClassLoader());
+        storeSnapshot(cache);
+        Path file = cache.snapshotFile(resolverClasses);
+        String snapshot = Files.readString(file);
+        Files.writeString(file, snapshot.replaceFirst("classes.hash=.*", "classes.hash=0"));
+
+        assertThat(cache.load(resolverClasses)).isEmpty();
+    }
+
+    @Test
+    public void changeOfSuperclassChangesSnapshot(@TempDir Path directory) throws Exception {
+        SchemaSnapshotCache cache = new SchemaSnapshotCache(directory, getClass().getClassLoader());
+        Class<?> child = loadChild("v1", false);
+        Class<?> childOfChangedBase = loadChild("v2", false);
+
+        assertThat(cache.snapshotFile(List.of(child))).isEqualTo(cache.snapshotFile(List.of(loadChild("v1", false))));
+        assertThat(cache.snapshotFile(List.of(child))).isNotEqualTo(cache.snapshotFile(List.of(childOfChangedBase)));
+    }
+
+    @Test
+    public void unreadableBytecodeIsIgnored(@TempDir Path directory) throws Exception {
+        SchemaSnapshotCache cache = new SchemaSnapshotCache(directory, getClass().getClassLoader());
+        List<Class<?>> resolvers = List.of(loadChild("v1", true));
+
+        assertThat(cache.load(resolvers)).isEmpty();
+        cache.store(resolvers, PrecomputedSchema.of(resolverClasses, List.of(), Map.of(), List.of()));
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    public void corruptedSnapshotIsIgnored(@TempDir Path directory) throws IOException {
+        SchemaSnapshotCache cache = new SchemaSnapshotCache(directory, getClass().getClassLoader());
+        Files.writeString(cache.snapshotFile(resolverClasses), "resolvers=");
+
+        assertThat(cache.load(resolverClasses)).isEmpty();
+    }
+}